@@ -0,0 +1,92 @@
+package dev.bengi.main.modules.submit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.h2.CloseableConnectionFactory;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end export of 1M response rows (100k submissions x 10 responses) from an in-memory
+ * H2 database. Buffers are released as soon as they are counted, as the HTTP layer would do
+ * after writing them, so heap stays flat if the pipeline is truly streaming.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class SubmissionExportBenchmark {
+
+    private static final int SUBMISSIONS = 100_000;
+    private static final int RESPONSES_PER_SUBMISSION = 10;
+
+    @Param({"NDJSON", "CSV"})
+    public SubmissionExportService.Format format;
+
+    private CloseableConnectionFactory connectionFactory;
+    private SubmissionExportService exportService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connectionFactory = H2ConnectionFactory.inMemory("export-bench");
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+        Flux.just(
+                """
+                CREATE TABLE submissions (id BIGINT PRIMARY KEY, feedback_id BIGINT, user_id VARCHAR(255),
+                    submitted_at TIMESTAMP, is_anonymous BOOLEAN, privacy_level VARCHAR(50), overall_comments TEXT)
+                """,
+                "CREATE TABLE submission_responses (submission_id BIGINT, question_id BIGINT, response TEXT, PRIMARY KEY (submission_id, question_id))",
+                """
+                INSERT INTO submissions
+                SELECT x, 1, 'user' || MOD(x, 500), TIMESTAMP '2025-01-01 00:00:00' + x * INTERVAL '1' SECOND,
+                       MOD(x, 5) = 0, CASE WHEN MOD(x, 5) = 0 THEN 'ANONYMOUS' ELSE 'PUBLIC' END,
+                       'Overall, "good" work, thanks'
+                FROM SYSTEM_RANGE(1, %d)
+                """.formatted(SUBMISSIONS),
+                """
+                INSERT INTO submission_responses
+                SELECT s.X, q.X, 'Answer ' || q.X || ' for submission ' || s.X
+                FROM SYSTEM_RANGE(1, %d) s CROSS JOIN SYSTEM_RANGE(1, %d) q
+                """.formatted(SUBMISSIONS, RESPONSES_PER_SUBMISSION)
+        ).concatMap(sql -> databaseClient.sql(sql).then()).blockLast();
+
+        exportService = new SubmissionExportService(databaseClient, new ObjectMapper());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionFactory.close().block();
+    }
+
+    @Benchmark
+    public long exportFeedback() {
+        return exportService.export(
+                        new SubmissionExportService.ExportFilter(1L, null, null, null),
+                        format,
+                        DefaultDataBufferFactory.sharedInstance)
+                .map(buffer -> {
+                    int bytes = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return (long) bytes;
+                })
+                .reduce(0L, Long::sum)
+                .block();
+    }
+}
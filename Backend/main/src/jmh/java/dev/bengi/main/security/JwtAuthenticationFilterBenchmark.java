@@ -0,0 +1,112 @@
+package dev.bengi.main.security;
+
+import dev.bengi.main.security.audit.AuditPipeline;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of JwtAuthenticationFilter for an authenticated request.
+ * <ul>
+ *   <li>{@code legacy}: the previous behaviour - key derivation, parser build and HMAC
+ *   verification on each of validateToken, getUsernameFromToken and getRoles.</li>
+ *   <li>{@code coldCache}: one verification per request (cache cleared before each call).</li>
+ *   <li>{@code warmCache}: repeat token, served from the claims cache.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "9b565deb729cf3201a19c54af3b31afbae6819226c0f1adb2e524fd121973f1c54f74048";
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    private AuditPipeline auditPipeline;
+    private JwtProvider provider;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter legacyFilter;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        auditPipeline = new AuditPipeline(8192, 256, Duration.ofMillis(50),
+                AuditPipeline.OverflowPolicy.DROP, 10, List.of(), new SimpleMeterRegistry());
+        auditPipeline.start();
+        SecurityAuditService auditService = new SecurityAuditService(auditPipeline);
+        provider = new JwtProvider(SECRET, 3_600_000, 604_800_000, 10_000);
+        filter = new JwtAuthenticationFilter(provider, auditService);
+        legacyFilter = new JwtAuthenticationFilter(new LegacyJwtProvider(), auditService);
+        token = provider.createToken("admin", List.of("ADMIN", "USER"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        auditPipeline.stop();
+    }
+
+    @Benchmark
+    public Object legacy() {
+        return legacyFilter.filter(exchange(), CHAIN).block();
+    }
+
+    @Benchmark
+    public Object coldCache() {
+        provider.invalidateClaimsCache();
+        return filter.filter(exchange(), CHAIN).block();
+    }
+
+    @Benchmark
+    public Object warmCache() {
+        return filter.filter(exchange(), CHAIN).block();
+    }
+
+    private MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/feedbacks")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    /**
+     * Reproduces the pre-cache provider: the filter's single claims lookup costs
+     * three full parses, each with a freshly derived key and parser.
+     */
+    private static final class LegacyJwtProvider extends JwtProvider {
+
+        LegacyJwtProvider() {
+            super(SECRET, 3_600_000, 604_800_000, 1);
+        }
+
+        @Override
+        public Claims getVerifiedClaims(String token) {
+            parse(token);
+            parse(token);
+            return parse(token);
+        }
+
+        private static Claims parse(String token) {
+            return Jwts.parserBuilder()
+                    .setSigningKey(deriveSigningKey(SECRET))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package dev.bengi.main.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password verifications per second during a login storm of 16 concurrent clients served
+ * by one event loop (a single-threaded scheduler standing in for a Netty loop).
+ * <ul>
+ *   <li>{@code inline}: BCrypt runs on the loop, as login used to; throughput is capped at one
+ *   core and every other request on the loop waits behind it.</li>
+ *   <li>{@code offloaded}: the loop only subscribes and verification runs on
+ *   {@link PasswordHasher}'s pool.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class LoginThroughputBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+    private ExecutorService loopExecutor;
+    private Scheduler eventLoop;
+    private String encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        encoded = passwordEncoder.encode(PASSWORD);
+        passwordHasher = new PasswordHasher(passwordEncoder, 0, 1024, new SimpleMeterRegistry());
+        loopExecutor = Executors.newSingleThreadExecutor();
+        eventLoop = Schedulers.fromExecutorService(loopExecutor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        eventLoop.dispose();
+        passwordHasher.shutdown();
+    }
+
+    @Benchmark
+    public Boolean inline() {
+        return Mono.fromCallable(() -> passwordEncoder.matches(PASSWORD, encoded))
+                .subscribeOn(eventLoop)
+                .block();
+    }
+
+    @Benchmark
+    public Boolean offloaded() {
+        return Mono.defer(() -> passwordHasher.matches(PASSWORD, encoded))
+                .subscribeOn(eventLoop)
+                .block();
+    }
+}
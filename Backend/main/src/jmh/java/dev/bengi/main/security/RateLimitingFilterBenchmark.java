@@ -0,0 +1,93 @@
+package dev.bengi.main.security;
+
+import dev.bengi.main.security.audit.AuditPipeline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of rate limiting when requests are spread over many client IPs.
+ * <ul>
+ *   <li>{@code filter}: the full WebFilter over a pool of prebuilt exchanges (at most 8192 IPs).</li>
+ *   <li>{@code limiter}: the token bucket alone over all {@code clients} IPs; values above
+ *   max-tracked-clients exercise eviction.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class RateLimitingFilterBenchmark {
+
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+    private static final int MAX_TRACKED_CLIENTS = 100_000;
+
+    @Param({"1000", "100000", "500000"})
+    public int clients;
+
+    private AuditPipeline auditPipeline;
+    private RateLimitingFilter filter;
+    private TokenBucketRateLimiter limiter;
+    private MockServerWebExchange[] exchanges;
+    private String[] ips;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        auditPipeline = new AuditPipeline(8192, 256, Duration.ofMillis(50),
+                AuditPipeline.OverflowPolicy.DROP, 10, List.of(), new SimpleMeterRegistry());
+        auditPipeline.start();
+        filter = new RateLimitingFilter(new SecurityAuditService(auditPipeline), new SimpleMeterRegistry(),
+                600, 5, 600, 5, MAX_TRACKED_CLIENTS, Duration.ofMinutes(5));
+
+        limiter = new TokenBucketRateLimiter(600, 600, MAX_TRACKED_CLIENTS, Duration.ofMinutes(5));
+
+        ips = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            ips[i] = ip(i);
+        }
+        exchanges = new MockServerWebExchange[Math.min(clients, 8192)];
+        for (int i = 0; i < exchanges.length; i++) {
+            String path = i % 10 == 0 ? "/api/auth/login" : "/api/feedbacks";
+            exchanges[i] = MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                    .header("X-Real-IP", ips[i]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        auditPipeline.stop();
+    }
+
+    @Benchmark
+    public Object filter() {
+        MockServerWebExchange exchange = exchanges[ThreadLocalRandom.current().nextInt(exchanges.length)];
+        return filter.filter(exchange, CHAIN).block();
+    }
+
+    @Benchmark
+    public long limiter() {
+        return limiter.tryAcquire(ips[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+
+    private static String ip(int i) {
+        return "10." + ((i >>> 16) & 0xff) + "." + ((i >>> 8) & 0xff) + "." + (i & 0xff);
+    }
+}
@@ -0,0 +1,138 @@
+package dev.bengi.main.common.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.bengi.main.common.db.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-process cache for small, rarely changing lookups that enrichment paths used to re-read
+ * by primary key: department and project names, and role names per username. Question texts
+ * and target usernames are not cached here: FeedbackBatchEnricher already resolves them with
+ * one joined query per page, so there is no per-id read left to save.
+ * <p>
+ * Bulk lookups fetch only the missing ids, in one query per call; concurrent lookups of the
+ * same id share a single load. The owning services evict entries when they change a row, and
+ * a TTL bounds staleness for writes that bypass them. Hit, miss and eviction counts are
+ * published as {@code cache.*} meters tagged with the cache name.
+ * <p>
+ * Loads are shared by every caller waiting on a key, so they run outside the caller's request
+ * (see {@link SingleFlight#detachRequest}) and transaction. A transaction that changes roles
+ * must read them from the repository until it commits. Evictions wait for the commit for the
+ * same reason.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final String DEPARTMENT_NAMES_SQL = "SELECT id, name FROM departments WHERE id = ANY(:ids)";
+    private static final String PROJECT_NAMES_SQL = "SELECT id, name FROM projects WHERE id = ANY(:ids)";
+    private static final String ROLE_NAMES_SQL = """
+            SELECT r.name
+            FROM roles r
+            JOIN user_roles ur ON ur.role_id = r.id
+            JOIN users u ON ur.user_id = u.id
+            WHERE u.username = :username
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final AsyncCache<Long, String> departmentNames;
+    private final AsyncCache<Long, String> projectNames;
+    private final AsyncCache<String, List<String>> roleNames;
+
+    public ReferenceDataCache(DatabaseClient databaseClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.reference-cache.max-size:10000}") long maxSize,
+                              @Value("${app.reference-cache.ttl:PT10M}") Duration ttl) {
+        this.databaseClient = databaseClient;
+        this.departmentNames = build(meterRegistry, "reference.departments", maxSize, ttl);
+        this.projectNames = build(meterRegistry, "reference.projects", maxSize, ttl);
+        this.roleNames = build(meterRegistry, "reference.roles", maxSize, ttl);
+    }
+
+    public Mono<Map<Long, String>> departmentNames(Collection<Long> ids) {
+        return getAll(departmentNames, DEPARTMENT_NAMES_SQL, ids);
+    }
+
+    public Mono<String> departmentName(Long id) {
+        return getOne(departmentNames, DEPARTMENT_NAMES_SQL, id);
+    }
+
+    public Mono<Map<Long, String>> projectNames(Collection<Long> ids) {
+        return getAll(projectNames, PROJECT_NAMES_SQL, ids);
+    }
+
+    public Mono<List<String>> roleNames(String username) {
+        return Mono.fromFuture(roleNames.get(username, (key, executor) -> databaseClient.sql(ROLE_NAMES_SQL)
+                .bind("username", key)
+                .map((row, meta) -> row.get("name", String.class))
+                .all()
+                .collectList()
+                .map(List::copyOf)
+                .contextWrite(SingleFlight::detachRequest)
+                .toFuture()));
+    }
+
+    public Mono<Void> evictDepartment(Long id) {
+        return TransactionCallbacks.afterCompletion(() -> departmentNames.synchronous().invalidate(id));
+    }
+
+    public Mono<Void> evictProject(Long id) {
+        return TransactionCallbacks.afterCompletion(() -> projectNames.synchronous().invalidate(id));
+    }
+
+    public Mono<Void> evictRoles(String username) {
+        if (username == null) {
+            return Mono.empty();
+        }
+        return TransactionCallbacks.afterCompletion(() -> roleNames.synchronous().invalidate(username));
+    }
+
+    private Mono<Map<Long, String>> getAll(AsyncCache<Long, String> cache, String sql, Collection<Long> ids) {
+        Set<Long> keys = ids.stream().filter(Objects::nonNull).collect(java.util.stream.Collectors.toSet());
+        if (keys.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        // Ids with no row are simply absent from the result and are not cached
+        return Mono.fromFuture(cache.getAll(keys, (missing, executor) -> loadNames(sql, missing)));
+    }
+
+    private Mono<String> getOne(AsyncCache<Long, String> cache, String sql, Long id) {
+        if (id == null) {
+            return Mono.empty();
+        }
+        return getAll(cache, sql, List.of(id)).mapNotNull(names -> names.get(id));
+    }
+
+    private CompletableFuture<Map<Long, String>> loadNames(String sql, Set<? extends Long> ids) {
+        return databaseClient.sql(sql)
+                .bind("ids", ids.toArray(Long[]::new))
+                .map((row, meta) -> Map.entry(row.get("id", Long.class), row.get("name", String.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .contextWrite(SingleFlight::detachRequest)
+                .toFuture();
+    }
+
+    private static <K, V> AsyncCache<K, V> build(MeterRegistry meterRegistry, String name, long maxSize, Duration ttl) {
+        AsyncCache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+}
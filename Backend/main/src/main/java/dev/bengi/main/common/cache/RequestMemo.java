@@ -0,0 +1,91 @@
+package dev.bengi.main.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Request-scoped memoization carried in the Reactor context.
+ * <p>
+ * {@link RequestMemoFilter} opens a scope for each HTTP request. Within it, calls with the same
+ * name and key share one subscription to the first caller's loader, so a composite endpoint
+ * that resolves the same user several times reads it once. Outside a request (scheduled jobs,
+ * tests) the loader simply runs. Errors and empty results are shared like values. Meant for
+ * reads only: a memoized read that already ran does not see a write made later in the same
+ * request.
+ * <p>
+ * When a request completes, the lookups it avoided are added to
+ * {@code request.memo.avoided{route,name}}, the route being the matched handler pattern. Names
+ * appear as a meter tag, so they must be low-cardinality constants; a name must always map to
+ * the same value type.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestMemo {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public <V> Mono<V> memoize(String name, Object key, Supplier<Mono<V>> loader) {
+        return Mono.deferContextual(context -> context.<Scope>getOrEmpty(Scope.class)
+                .map(scope -> scope.get(name, key, loader))
+                .orElseGet(() -> Mono.defer(loader)));
+    }
+
+    /**
+     * Removes the request's scope from {@code context}, for publishers shared between requests.
+     */
+    public static Context detach(Context context) {
+        return context.delete(Scope.class);
+    }
+
+    Scope open() {
+        return new Scope();
+    }
+
+    void close(Scope scope, String route) {
+        scope.avoided.forEach((name, count) -> counters.computeIfAbsent(route + '\u0000' + name,
+                        k -> Counter.builder("request.memo.avoided")
+                                .description("Lookups served from an earlier identical lookup in the same request")
+                                .tag("route", route)
+                                .tag("name", name)
+                                .register(meterRegistry))
+                .increment(count.get()));
+    }
+
+    static final class Scope {
+        private final ConcurrentMap<Key, Mono<?>> results = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, AtomicInteger> avoided = new ConcurrentHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        <V> Mono<V> get(String name, Object key, Supplier<Mono<V>> loader) {
+            Key memoKey = new Key(name, key);
+            Mono<?> result = results.get(memoKey);
+            if (result == null) {
+                Mono<V> created = Mono.defer(loader).cache();
+                result = results.putIfAbsent(memoKey, created);
+                if (result == null) {
+                    return created;
+                }
+            }
+            avoided.computeIfAbsent(name, n -> new AtomicInteger()).incrementAndGet();
+            return (Mono<V>) result;
+        }
+
+        int avoided(String name) {
+            AtomicInteger count = avoided.get(name);
+            return count != null ? count.get() : 0;
+        }
+    }
+
+    private record Key(String name, Object key) {
+    }
+}
@@ -0,0 +1,36 @@
+package dev.bengi.main.common.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+/**
+ * Opens a {@link RequestMemo} scope around each request and reports what it saved.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestMemoFilter implements WebFilter {
+
+    private final RequestMemo requestMemo;
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        RequestMemo.Scope scope = requestMemo.open();
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(RequestMemo.Scope.class, scope))
+                .doFinally(signal -> requestMemo.close(scope, route(exchange)));
+    }
+
+    // The handler's pattern keeps the tag low-cardinality (no ids from the path)
+    private static String route(ServerWebExchange exchange) {
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.getPatternString() : "unmatched";
+    }
+}
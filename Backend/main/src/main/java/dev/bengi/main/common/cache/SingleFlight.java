@@ -0,0 +1,135 @@
+package dev.bengi.main.common.cache;
+
+import dev.bengi.main.common.db.QueryInstrumentation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: callers using the same key while a load is in flight
+ * subscribe to that load instead of starting their own, and all receive the same result.
+ * <p>
+ * With a positive TTL a successful result keeps being served for that long after it
+ * completes; errors and empty results are never retained. The load runs with the first
+ * caller's Reactor context minus its per-request state (see {@link #detachRequest}), and is
+ * not cancelled when individual callers cancel.
+ * <p>
+ * Keys appear as a meter tag ({@code singleflight.calls{key,outcome}}, outcome one of
+ * {@code load}, {@code coalesced}, {@code cached}), so they must be low-cardinality
+ * constants rather than per-user or per-request values. A key must always map to the same
+ * value type.
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public <V> Mono<V> execute(String key, Supplier<Mono<V>> loader) {
+        return execute(key, Duration.ZERO, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> Mono<V> execute(String key, Duration ttl, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            Flight current = flights.get(key);
+            if (current != null && current.isLive(now)) {
+                count(key, current.isSettled() ? "cached" : "coalesced");
+                return (Mono<V>) current.result;
+            }
+
+            Flight[] started = new Flight[1];
+            Flight flight = flights.compute(key, (k, existing) -> {
+                if (existing != null && existing.isLive(now)) {
+                    return existing;
+                }
+                started[0] = new Flight(k, ttl, loader);
+                return started[0];
+            });
+            if (flight == started[0]) {
+                count(key, "load");
+            } else {
+                count(key, flight.isSettled() ? "cached" : "coalesced");
+            }
+            return (Mono<V>) flight.result;
+        });
+    }
+
+    /**
+     * Drop a retained result so the next caller loads afresh. An in-flight load is not
+     * affected for callers already attached to it.
+     */
+    public void evict(String key) {
+        flights.remove(key);
+    }
+
+    /**
+     * Strips the per-request query stats and memo scope from {@code context}, so work shared by
+     * many callers is not charged to, or failed by the budget of, whichever request started it.
+     */
+    public static Context detachRequest(Context context) {
+        return RequestMemo.detach(QueryInstrumentation.detach(context));
+    }
+
+    int inFlight() {
+        return flights.size();
+    }
+
+    private void count(String key, String outcome) {
+        counters.computeIfAbsent(key + '\u0000' + outcome, k -> Counter.builder("singleflight.calls")
+                        .description("Calls to a single-flight key by how they were served")
+                        .tag("key", key)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private final class Flight {
+        private final String key;
+        private final long ttlNanos;
+        private final Mono<?> result;
+        private volatile boolean settled;
+        private volatile boolean retained;
+        private volatile long expiresAt;
+
+        private <V> Flight(String key, Duration ttl, Supplier<Mono<V>> loader) {
+            this.key = key;
+            this.ttlNanos = ttl.toNanos();
+            this.result = Mono.defer(loader)
+                    .contextWrite(SingleFlight::detachRequest)
+                    .doOnSuccess(value -> settle(value != null))
+                    .doOnError(e -> settle(false))
+                    .cache();
+        }
+
+        boolean isLive(long now) {
+            return !settled || (retained && now - expiresAt < 0);
+        }
+
+        boolean isSettled() {
+            return settled;
+        }
+
+        private void settle(boolean retain) {
+            if (retain && ttlNanos > 0) {
+                expiresAt = System.nanoTime() + ttlNanos;
+                retained = true;
+                settled = true;
+            } else {
+                settled = true;
+                flights.remove(key, this);
+            }
+        }
+    }
+}
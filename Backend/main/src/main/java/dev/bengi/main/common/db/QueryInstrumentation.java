@@ -0,0 +1,189 @@
+package dev.bengi.main.common.db;
+
+import dev.bengi.main.exception.ErrorCode;
+import dev.bengi.main.exception.GlobalServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.ExecuteFunction;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Per-request database accounting.
+ * <p>
+ * {@link QueryInstrumentationFilter} puts a {@link RequestQueryStats} into the Reactor context of
+ * each request. The application's DatabaseClient, and with it every repository, runs statements
+ * through {@link #execute}, which counts the statement, the rows it returns and its time until the
+ * last row has been read. When the request completes, {@link #record} publishes per-route
+ * distributions: {@code request.db.queries}, {@code request.db.time} and {@code request.db.rows}.
+ * Time is summed over statements, so queries run in parallel can add up to more than the
+ * request's wall time. Statements outside a request (scheduled jobs, startup) are not counted,
+ * nor are those of publishers shared between requests, which must {@link #detach} the context.
+ * <p>
+ * The query budget makes N+1 regressions visible: when one request runs more than
+ * {@code app.db.query-budget.max-queries} statements, LOG warns once it completes and FAIL
+ * errors the statement that went over, failing the request (meant for tests).
+ */
+@Component
+@Slf4j
+public class QueryInstrumentation implements ExecuteFunction {
+
+    public enum BudgetMode { LOG, FAIL }
+
+    private final MeterRegistry meterRegistry;
+    private final int maxQueries;
+    private final BudgetMode budgetMode;
+    private final ConcurrentMap<String, RouteMeters> meters = new ConcurrentHashMap<>();
+
+    public QueryInstrumentation(MeterRegistry meterRegistry,
+                                @Value("${app.db.query-budget.max-queries:50}") int maxQueries,
+                                @Value("${app.db.query-budget.mode:LOG}") BudgetMode budgetMode) {
+        this.meterRegistry = meterRegistry;
+        this.maxQueries = maxQueries;
+        this.budgetMode = budgetMode;
+    }
+
+    @Override
+    public Publisher<? extends Result> execute(Statement statement) {
+        return Flux.<Result>deferContextual(context -> {
+            if (!context.hasKey(RequestQueryStats.class)) {
+                return Flux.from(statement.execute());
+            }
+            RequestQueryStats stats = context.get(RequestQueryStats.class);
+            if (overBudget(stats.statementStarted()) && budgetMode == BudgetMode.FAIL) {
+                return Flux.error(new GlobalServiceException(ErrorCode.INTERNAL_ERROR,
+                        "Query budget of " + maxQueries + " statements exceeded on " + stats.route()));
+            }
+            StatementTrace trace = new StatementTrace(stats);
+            return Flux.from(statement.execute())
+                    .<Result>map(result -> new TracedResult(result, trace))
+                    .doOnError(e -> trace.finish());
+        });
+    }
+
+    /**
+     * Removes the request's stats from {@code context}, for work that outlives the request or runs
+     * on behalf of many (shared upstreams).
+     */
+    public static Context detach(Context context) {
+        return context.delete(RequestQueryStats.class);
+    }
+
+    void record(RequestQueryStats stats) {
+        String route = stats.route();
+        RouteMeters routeMeters = meters.computeIfAbsent(route, this::registerMeters);
+        routeMeters.queries.record(stats.queries());
+        routeMeters.time.record(stats.nanos(), TimeUnit.NANOSECONDS);
+        routeMeters.rows.record(stats.rows());
+        if (overBudget(stats.queries())) {
+            routeMeters.overBudget.increment();
+            if (budgetMode == BudgetMode.LOG) {
+                log.warn("{} ran {} statements, over the query budget of {}", route, stats.queries(), maxQueries);
+            }
+        }
+    }
+
+    private boolean overBudget(int queries) {
+        return maxQueries > 0 && queries > maxQueries;
+    }
+
+    private RouteMeters registerMeters(String route) {
+        return new RouteMeters(
+                DistributionSummary.builder("request.db.queries")
+                        .description("SQL statements per request")
+                        .tag("route", route)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                Timer.builder("request.db.time")
+                        .description("Database time per request, summed over its statements")
+                        .tag("route", route)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                DistributionSummary.builder("request.db.rows")
+                        .description("Rows fetched per request")
+                        .tag("route", route)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                Counter.builder("request.db.budget.exceeded")
+                        .description("Requests that ran more statements than the query budget")
+                        .tag("route", route)
+                        .register(meterRegistry));
+    }
+
+    private record RouteMeters(DistributionSummary queries, Timer time, DistributionSummary rows, Counter overBudget) {
+    }
+
+    /**
+     * One statement's timing; finishes when its rows (or update count) have been read.
+     */
+    private static final class StatementTrace {
+        private final RequestQueryStats stats;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        StatementTrace(RequestQueryStats stats) {
+            this.stats = stats;
+        }
+
+        void rowRead() {
+            stats.rowRead();
+        }
+
+        void finish() {
+            if (finished.compareAndSet(false, true)) {
+                stats.statementFinished(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private record TracedResult(Result delegate, StatementTrace trace) implements Result {
+
+        @Override
+        public Publisher<Long> getRowsUpdated() {
+            return Flux.from(delegate.getRowsUpdated()).doFinally(signal -> trace.finish());
+        }
+
+        @Override
+        public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> mappingFunction) {
+            return Flux.<T>from(delegate.map(mappingFunction))
+                    .doOnNext(row -> trace.rowRead())
+                    .doFinally(signal -> trace.finish());
+        }
+
+        @Override
+        public <T> Publisher<T> map(Function<? super Readable, ? extends T> mappingFunction) {
+            return Flux.<T>from(delegate.map(mappingFunction))
+                    .doOnNext(row -> trace.rowRead())
+                    .doFinally(signal -> trace.finish());
+        }
+
+        @Override
+        public Result filter(Predicate<Segment> filter) {
+            return new TracedResult(delegate.filter(filter), trace);
+        }
+
+        @Override
+        public <T> Publisher<T> flatMap(Function<Segment, ? extends Publisher<? extends T>> mappingFunction) {
+            return Flux.<T>from(delegate.flatMap(mappingFunction)).doFinally(signal -> trace.finish());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package dev.bengi.main.common.db;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+/**
+ * Collects {@link QueryInstrumentation} stats for each request and records them per route.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryInstrumentationFilter implements WebFilter {
+
+    private final QueryInstrumentation queryInstrumentation;
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        // Resolved lazily: the handler (and so the pattern) is only known once routing has run
+        RequestQueryStats stats = new RequestQueryStats(() -> route(exchange));
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(RequestQueryStats.class, stats))
+                .doFinally(signal -> queryInstrumentation.record(stats));
+    }
+
+    private static String route(ServerWebExchange exchange) {
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.getPatternString() : "unmatched";
+    }
+}
@@ -0,0 +1,52 @@
+package dev.bengi.main.common.db;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Statements, database time and rows of one request. Updated concurrently by the statements
+ * the request runs in parallel.
+ */
+final class RequestQueryStats {
+
+    private final Supplier<String> route;
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+
+    RequestQueryStats(Supplier<String> route) {
+        this.route = route;
+    }
+
+    String route() {
+        return route.get();
+    }
+
+    /**
+     * @return the number of statements including this one
+     */
+    int statementStarted() {
+        return queries.incrementAndGet();
+    }
+
+    void statementFinished(long elapsedNanos) {
+        nanos.addAndGet(elapsedNanos);
+    }
+
+    void rowRead() {
+        rows.incrementAndGet();
+    }
+
+    int queries() {
+        return queries.get();
+    }
+
+    long nanos() {
+        return nanos.get();
+    }
+
+    long rows() {
+        return rows.get();
+    }
+}
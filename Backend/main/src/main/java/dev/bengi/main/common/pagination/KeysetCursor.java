@@ -0,0 +1,77 @@
+package dev.bengi.main.common.pagination;
+
+import dev.bengi.main.exception.ErrorCode;
+import dev.bengi.main.exception.GlobalServiceException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort column, the sort value and the id of the boundary row,
+ * plus the paging direction. Encoded as URL-safe base64 so it can travel as a query parameter.
+ */
+record KeysetCursor(boolean backward, String column, Object value, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String payload = String.join(SEPARATOR,
+                backward ? "b" : "f",
+                column,
+                String.valueOf(id),
+                tag(value),
+                value == null ? "" : value.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String token) {
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = payload.split("\\|", 5);
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new KeysetCursor(
+                    "b".equals(parts[0]),
+                    parts[1],
+                    parse(parts[3], parts[4]),
+                    Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new GlobalServiceException(ErrorCode.BAD_REQUEST, "Invalid pagination cursor");
+        }
+    }
+
+    private static String tag(Object value) {
+        if (value == null) return "n";
+        if (value instanceof String) return "s";
+        if (value instanceof Long) return "l";
+        if (value instanceof Integer) return "i";
+        if (value instanceof LocalDateTime) return "t";
+        if (value instanceof OffsetDateTime) return "o";
+        if (value instanceof LocalDate) return "a";
+        if (value instanceof Boolean) return "z";
+        if (value instanceof BigDecimal) return "d";
+        if (value instanceof Double) return "f";
+        throw new IllegalArgumentException("Unsupported keyset column type: " + value.getClass().getName());
+    }
+
+    private static Object parse(String tag, String raw) {
+        return switch (tag) {
+            case "n" -> null;
+            case "s" -> raw;
+            case "l" -> Long.parseLong(raw);
+            case "i" -> Integer.parseInt(raw);
+            case "t" -> LocalDateTime.parse(raw);
+            case "o" -> OffsetDateTime.parse(raw);
+            case "a" -> LocalDate.parse(raw);
+            case "z" -> Boolean.parseBoolean(raw);
+            case "d" -> new BigDecimal(raw);
+            case "f" -> Double.parseDouble(raw);
+            default -> throw new IllegalArgumentException("Unknown cursor value type: " + tag);
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package dev.bengi.main.common.pagination;
+
+import dev.bengi.main.common.search.SearchTarget;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Describes a query that can be paginated with keyset (seek) pagination.
+ * The base query is wrapped as a sub-select, so it may carry its own WHERE clause and
+ * named parameters; sortable columns refer to the column names it returns.
+ */
+public final class KeysetQuery<E> {
+
+    private final Class<E> type;
+    private final String sql;
+    private final Set<String> sortColumns = new HashSet<>();
+    private final Set<String> nullableSortColumns = new HashSet<>();
+    private final Map<String, Object> params = new LinkedHashMap<>();
+    private SearchTarget searchTarget;
+    private boolean counted = true;
+
+    private KeysetQuery(Class<E> type, String sql) {
+        this.type = type;
+        this.sql = sql;
+        this.sortColumns.add("id");
+    }
+
+    public static <E> KeysetQuery<E> of(Class<E> type, String sql) {
+        return new KeysetQuery<>(type, sql);
+    }
+
+    /**
+     * Columns that are NOT NULL and can be used as the leading sort key.
+     */
+    public KeysetQuery<E> sortableBy(String... columns) {
+        Collections.addAll(sortColumns, columns);
+        return this;
+    }
+
+    /**
+     * Nullable columns that can be used as the leading sort key (NULLs sort last ascending).
+     */
+    public KeysetQuery<E> nullableSortableBy(String... columns) {
+        Collections.addAll(sortColumns, columns);
+        Collections.addAll(nullableSortColumns, columns);
+        return this;
+    }
+
+    /**
+     * Filter by the request's search term; the base query must return the target's columns
+     * unqualified.
+     */
+    public KeysetQuery<E> searchable(SearchTarget target) {
+        this.searchTarget = target;
+        return this;
+    }
+
+    /**
+     * Skip the total count on the first page (reported as -1), for feeds over large tables
+     * where only the next page matters.
+     */
+    public KeysetQuery<E> uncounted() {
+        this.counted = false;
+        return this;
+    }
+
+    public KeysetQuery<E> bind(String name, Object value) {
+        params.put(name, Objects.requireNonNull(value, "Keyset query parameter must not be null: " + name));
+        return this;
+    }
+
+    public Class<E> getType() {
+        return type;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public Map<String, Object> getParams() {
+        return Collections.unmodifiableMap(params);
+    }
+
+    public SearchTarget getSearchTarget() {
+        return searchTarget;
+    }
+
+    public boolean isCounted() {
+        return counted;
+    }
+
+    public boolean isSortable(String column) {
+        return sortColumns.contains(column);
+    }
+
+    public boolean isNullable(String column) {
+        return nullableSortColumns.contains(column);
+    }
+}
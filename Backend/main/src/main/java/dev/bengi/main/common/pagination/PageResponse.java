@@ -59,6 +59,26 @@ public class PageResponse<T> {
         return response;
     }
 
+    /**
+     * Page produced by keyset pagination. Navigation comes from the cursors;
+     * totalElements is -1 (and totalPages -1) when the total was not counted.
+     */
+    public static <T> PageResponse<T> keyset(List<T> content, PageRequest pageRequest, long totalElements,
+                                             String nextCursor, String previousCursor) {
+        PageResponse<T> response = of(content, pageRequest, Math.max(totalElements, 0));
+        response.totalElements = totalElements;
+        if (totalElements < 0) {
+            response.totalPages = -1;
+        }
+        response.nextCursor = nextCursor;
+        response.previousCursor = previousCursor;
+        response.hasNext = nextCursor != null;
+        response.hasPrevious = previousCursor != null;
+        response.first = !response.hasPrevious;
+        response.last = !response.hasNext;
+        return response;
+    }
+
     public static <T> PageResponse<T> empty(PageRequest pageRequest) {
         return of(List.of(), pageRequest, 0);
     }
@@ -1,10 +1,21 @@
 package dev.bengi.main.common.pagination;
 
+import dev.bengi.main.common.search.SearchCondition;
+import dev.bengi.main.common.search.SearchTarget;
+import dev.bengi.main.exception.ErrorCode;
+import dev.bengi.main.exception.GlobalServiceException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -13,12 +24,21 @@ import java.util.function.Function;
  * Provides utilities for common pagination patterns
  */
 @Service
+@RequiredArgsConstructor
 public class PaginationService {
 
     // Default values
     public static final int DEFAULT_PAGE = 0;
     public static final int DEFAULT_LIMIT = 10;
     public static final int MAX_LIMIT = 100;
+    // Sort field that orders search results by rank; without a search it falls back to id
+    public static final String RELEVANCE_SORT = "relevance";
+
+    private static final String KEYSET_VALUE_PARAM = "keyset_value";
+    private static final String KEYSET_ID_PARAM = "keyset_id";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
 
     /**
      * Parse pagination parameters from HTTP request
@@ -46,7 +66,17 @@ public class PaginationService {
      * Build ORDER BY clause for SQL queries
      */
     public String buildOrderByClause(PageRequest pageRequest, Set<String> allowedSortFields) {
+        return buildOrderByClause(pageRequest, allowedSortFields, null);
+    }
+
+    /**
+     * Build ORDER BY clause, ranking by {@code search} when the relevance sort is requested
+     */
+    public String buildOrderByClause(PageRequest pageRequest, Set<String> allowedSortFields, SearchCondition search) {
         String sortBy = pageRequest.getSortBy();
+        if (ranksBy(pageRequest, search)) {
+            return "ORDER BY " + search.orderBy() + ", id ASC";
+        }
         
         // Validate sort field
         if (!allowedSortFields.contains(sortBy)) {
@@ -57,6 +87,10 @@ public class PaginationService {
         return String.format("ORDER BY %s %s", sortBy, direction);
     }
 
+    private static boolean ranksBy(PageRequest pageRequest, SearchCondition search) {
+        return search != null && RELEVANCE_SORT.equals(pageRequest.getSortBy());
+    }
+
     /**
      * Build LIMIT clause for SQL queries
      */
@@ -71,10 +105,15 @@ public class PaginationService {
      * Build complete SQL query with pagination
      */
     public String buildPaginatedQuery(String baseQuery, PageRequest pageRequest, Set<String> allowedSortFields) {
+        return buildPaginatedQuery(baseQuery, pageRequest, allowedSortFields, null);
+    }
+
+    private String buildPaginatedQuery(String baseQuery, PageRequest pageRequest, Set<String> allowedSortFields,
+                                       SearchCondition search) {
         StringBuilder query = new StringBuilder(baseQuery);
         
         // Add ORDER BY
-        query.append(" ").append(buildOrderByClause(pageRequest, allowedSortFields));
+        query.append(" ").append(buildOrderByClause(pageRequest, allowedSortFields, search));
         
         // Add LIMIT/OFFSET
         String limitClause = buildLimitClause(pageRequest);
@@ -86,54 +125,67 @@ public class PaginationService {
     }
 
     /**
-     * Build search WHERE clause
+     * Search condition for the request's search term, or null when it has none.
+     * Columns are qualified with {@code alias} when given.
      */
-    public String buildSearchClause(PageRequest pageRequest, Set<String> searchableFields) {
-        if (!pageRequest.hasSearch() || searchableFields.isEmpty()) {
-            return "";
-        }
-
-        String searchTerm = pageRequest.getSearch().toLowerCase();
-        StringBuilder clause = new StringBuilder(" AND (");
-        
-        boolean first = true;
-        for (String field : searchableFields) {
-            if (!first) clause.append(" OR ");
-            clause.append(String.format("LOWER(%s) LIKE '%%%s%%'", field, searchTerm));
-            first = false;
+    public SearchCondition buildSearchCondition(PageRequest pageRequest, SearchTarget target, String alias) {
+        if (!pageRequest.hasSearch()) {
+            return null;
         }
-        
-        clause.append(")");
-        return clause.toString();
+        return SearchCondition.of(target, alias, pageRequest.getSearch());
     }
 
     /**
-     * Execute paginated query with automatic count
+     * Execute paginated query with automatic count.
+     * Base and count queries must end in a WHERE clause (e.g. {@code WHERE 1=1}); the search
+     * condition is appended with AND. {@code params} and the search terms are bound to both;
+     * the ranking terms only to the data query, and only when it is ordered by relevance.
      */
     public <T> Mono<PageResponse<T>> executePaginatedQuery(
             String baseQuery,
             String countQuery,
+            Map<String, Object> params,
             PageRequest pageRequest,
             Set<String> allowedSortFields,
-            Set<String> searchableFields,
-            Function<String, Flux<T>> queryExecutor,
-            Function<String, Mono<Long>> countExecutor) {
+            SearchCondition search,
+            Function<DatabaseClient.GenericExecuteSpec, Flux<T>> queryExecutor,
+            Function<DatabaseClient.GenericExecuteSpec, Mono<Long>> countExecutor) {
         
-        // Build search clause
-        String searchClause = buildSearchClause(pageRequest, searchableFields);
+        String searchClause = search != null ? " AND " + search.where() : "";
         
         // Build final queries
         String finalCountQuery = countQuery + searchClause;
-        String finalDataQuery = buildPaginatedQuery(baseQuery + searchClause, pageRequest, allowedSortFields);
+        String finalDataQuery = buildPaginatedQuery(baseQuery + searchClause, pageRequest, allowedSortFields, search);
         
         // Execute count and data queries in parallel
-        Mono<Long> totalCountMono = countExecutor.apply(finalCountQuery);
-        Mono<java.util.List<T>> contentMono = queryExecutor.apply(finalDataQuery).collectList();
+        Mono<Long> totalCountMono = countExecutor.apply(bindAll(databaseClient.sql(finalCountQuery), params, search));
+        DatabaseClient.GenericExecuteSpec dataSpec = bindAll(databaseClient.sql(finalDataQuery), params, search);
+        if (ranksBy(pageRequest, search)) {
+            dataSpec = bind(dataSpec, search.orderParams());
+        }
+        Mono<java.util.List<T>> contentMono = queryExecutor.apply(dataSpec)
+                .collectList();
         
         return Mono.zip(totalCountMono, contentMono)
                 .map(tuple -> PageResponse.of(tuple.getT2(), pageRequest, tuple.getT1()));
     }
 
+    // Binds the WHERE parameters of the query and search; ranking parameters are bound separately
+    private static DatabaseClient.GenericExecuteSpec bindAll(DatabaseClient.GenericExecuteSpec spec,
+                                                             Map<String, Object> params,
+                                                             SearchCondition search) {
+        spec = bind(spec, params);
+        return search != null ? bind(spec, search.params()) : spec;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec,
+                                                          Map<String, Object> params) {
+        for (var param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec;
+    }
+
     /**
      * Simple pagination for small datasets (load all then paginate in memory)
      */
@@ -158,6 +210,167 @@ public class PaginationService {
                 });
     }
 
+    /**
+     * Keyset (seek) pagination pushed down to the database.
+     * Only the rows of the requested page are read and handed to {@code enricher}, so a deep page
+     * costs the same as the first one. Requests without a cursor start at {@code page * limit}
+     * and get an exact total; cursor requests seek on {@code (sortBy, id)} and skip the count.
+     */
+    public <E, T> Mono<PageResponse<T>> paginateKeyset(KeysetQuery<E> query,
+                                                       PageRequest pageRequest,
+                                                       Function<List<E>, Flux<T>> enricher) {
+        String sortColumn = resolveSortColumn(pageRequest.getSortBy(), query);
+        KeysetCursor cursor;
+        try {
+            cursor = pageRequest.hasCursor() && pageRequest.hasLimit()
+                    ? KeysetCursor.decode(pageRequest.getCursor())
+                    : null;
+        } catch (GlobalServiceException e) {
+            return Mono.error(e);
+        }
+        if (cursor != null && !cursor.column().equals(sortColumn)) {
+            return Mono.error(new GlobalServiceException(
+                    ErrorCode.BAD_REQUEST, "Cursor does not match sort field " + sortColumn));
+        }
+
+        boolean backward = cursor != null && cursor.backward();
+        boolean scanAscending = pageRequest.isAscending() != backward;
+        SearchCondition search = query.getSearchTarget() != null
+                ? buildSearchCondition(pageRequest, query.getSearchTarget(), null)
+                : null;
+        String sql = buildKeysetQuery(query, sortColumn, cursor, scanAscending, pageRequest, search);
+
+        DatabaseClient.GenericExecuteSpec spec = bindAll(databaseClient.sql(sql), query.getParams(), search);
+        if (cursor != null) {
+            spec = spec.bind(KEYSET_ID_PARAM, cursor.id());
+            if (cursor.value() != null && !"id".equals(sortColumn)) {
+                spec = spec.bind(KEYSET_VALUE_PARAM, cursor.value());
+            }
+        }
+
+        Mono<List<KeyedRow<E>>> rowsMono = spec
+                .map((row, meta) -> new KeyedRow<>(
+                        converter.read(query.getType(), row, meta),
+                        row.get(sortColumn),
+                        row.get("id", Long.class)))
+                .all()
+                .collectList();
+
+        Mono<Long> totalMono = cursor == null && query.isCounted()
+                ? countKeysetQuery(query, search)
+                : Mono.just(-1L);
+
+        return rowsMono.flatMap(rows -> {
+            boolean hasMore = pageRequest.hasLimit() && rows.size() > pageRequest.getLimit();
+            List<KeyedRow<E>> pageRows = new ArrayList<>(hasMore ? rows.subList(0, pageRequest.getLimit()) : rows);
+            if (backward) {
+                Collections.reverse(pageRows);
+            }
+
+            String nextCursor = null;
+            String previousCursor = null;
+            if (pageRequest.hasLimit() && !pageRows.isEmpty()) {
+                KeyedRow<E> firstRow = pageRows.get(0);
+                KeyedRow<E> lastRow = pageRows.get(pageRows.size() - 1);
+                boolean moreAfter = backward || hasMore;
+                boolean moreBefore = backward ? hasMore : (cursor != null || pageRequest.getOffset() > 0);
+                if (moreAfter) {
+                    nextCursor = new KeysetCursor(false, sortColumn, lastRow.sortValue(), lastRow.id()).encode();
+                }
+                if (moreBefore) {
+                    previousCursor = new KeysetCursor(true, sortColumn, firstRow.sortValue(), firstRow.id()).encode();
+                }
+            }
+
+            List<E> entities = pageRows.stream().map(KeyedRow::entity).toList();
+            Mono<List<T>> contentMono = entities.isEmpty()
+                    ? Mono.just(List.of())
+                    : enricher.apply(entities).collectList();
+            String next = nextCursor;
+            String previous = previousCursor;
+            return Mono.zip(contentMono, totalMono)
+                    .map(tuple -> PageResponse.keyset(tuple.getT1(), pageRequest, tuple.getT2(), next, previous));
+        });
+    }
+
+    private <E> String buildKeysetQuery(KeysetQuery<E> query, String sortColumn, KeysetCursor cursor,
+                                        boolean ascending, PageRequest pageRequest, SearchCondition search) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM (")
+                .append(query.getSql())
+                .append(") keyset_page");
+
+        List<String> conditions = new ArrayList<>(2);
+        if (search != null) {
+            // Simple sub-selects are flattened, so the search expressions still match the indexes
+            conditions.add(search.where());
+        }
+        if (cursor != null) {
+            conditions.add(buildSeekCondition(query, sortColumn, cursor, ascending));
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        String direction = ascending ? "ASC" : "DESC";
+        if ("id".equals(sortColumn)) {
+            sql.append(" ORDER BY id ").append(direction);
+        } else {
+            String nulls = query.isNullable(sortColumn) ? (ascending ? " NULLS LAST" : " NULLS FIRST") : "";
+            sql.append(" ORDER BY ").append(sortColumn).append(" ").append(direction).append(nulls)
+                    .append(", id ").append(direction);
+        }
+
+        if (pageRequest.hasLimit()) {
+            // One extra row tells whether another page follows
+            sql.append(" LIMIT ").append(pageRequest.getLimit() + 1);
+            if (cursor == null && pageRequest.getOffset() > 0) {
+                sql.append(" OFFSET ").append(pageRequest.getOffset());
+            }
+        }
+        return sql.toString();
+    }
+
+    private <E> String buildSeekCondition(KeysetQuery<E> query, String sortColumn, KeysetCursor cursor, boolean ascending) {
+        String op = ascending ? ">" : "<";
+        String idParam = ":" + KEYSET_ID_PARAM;
+        if ("id".equals(sortColumn)) {
+            return "id " + op + " " + idParam;
+        }
+        String seek = "(" + sortColumn + ", id) " + op + " (:" + KEYSET_VALUE_PARAM + ", " + idParam + ")";
+        if (!query.isNullable(sortColumn)) {
+            return seek;
+        }
+        // NULLs sort after every value ascending and before every value descending
+        if (cursor.value() == null) {
+            return ascending
+                    ? "(" + sortColumn + " IS NULL AND id > " + idParam + ")"
+                    : "((" + sortColumn + " IS NULL AND id < " + idParam + ") OR " + sortColumn + " IS NOT NULL)";
+        }
+        return ascending ? "(" + seek + " OR " + sortColumn + " IS NULL)" : seek;
+    }
+
+    private <E> Mono<Long> countKeysetQuery(KeysetQuery<E> query, SearchCondition search) {
+        String sql = "SELECT COUNT(*) AS total FROM (" + query.getSql() + ") keyset_count"
+                + (search != null ? " WHERE " + search.where() : "");
+        return bindAll(databaseClient.sql(sql), query.getParams(), search)
+                .map((row, meta) -> row.get("total", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    /**
+     * Map an API sort field (camelCase or snake_case) onto a sortable column, falling back to id.
+     */
+    private <E> String resolveSortColumn(String sortBy, KeysetQuery<E> query) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return "id";
+        }
+        String column = sortBy.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+        return query.isSortable(column) ? column : "id";
+    }
+
+    private record KeyedRow<E>(E entity, Object sortValue, Long id) {}
+
     private int parseIntParam(String value, int defaultValue) {
         if (value == null || value.isEmpty()) {
             return defaultValue;
@@ -0,0 +1,87 @@
+package dev.bengi.main.common.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * WHERE and ORDER BY fragments for a user-supplied search term, with the term bound as
+ * parameters rather than pasted into the SQL. The statement text depends only on the number
+ * of words, so it is reused across searches.
+ * <p>
+ * Every word must match. Words of three or more characters match anywhere in the document
+ * (served by the trigram index); shorter words have no trigrams and match the start of the
+ * primary name instead (served by the prefix index). Results rank names starting with the
+ * first word ahead of the rest, then by trigram word similarity.
+ * <p>
+ * {@code params} belong to {@code where}; {@code orderParams} belong to {@code orderBy} and must
+ * only be bound to statements that use it, since the driver rejects unreferenced parameters.
+ */
+public record SearchCondition(String where, String orderBy, Map<String, Object> params,
+                              Map<String, Object> orderParams) {
+
+    static final int MAX_WORDS = 5;
+    static final int MAX_WORD_LENGTH = 64;
+    private static final int MIN_TRIGRAM_LENGTH = 3;
+    private static final String PARAM_PREFIX = "search_";
+
+    /**
+     * Build the condition for {@code term}, or {@code null} when it contains no words.
+     */
+    public static SearchCondition of(SearchTarget target, String alias, String term) {
+        List<String> words = words(term);
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        String document = target.document(alias);
+        String name = target.name(alias);
+        Map<String, Object> params = new LinkedHashMap<>();
+        List<String> conditions = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            String param = PARAM_PREFIX + i;
+            if (word.length() >= MIN_TRIGRAM_LENGTH) {
+                conditions.add(document + " LIKE :" + param);
+                params.put(param, "%" + escapeLike(word) + "%");
+            } else {
+                conditions.add(name + " LIKE :" + param);
+                params.put(param, escapeLike(word) + "%");
+            }
+        }
+
+        Map<String, Object> orderParams = new LinkedHashMap<>();
+        orderParams.put(PARAM_PREFIX + "prefix", escapeLike(words.get(0)) + "%");
+        orderParams.put(PARAM_PREFIX + "query", String.join(" ", words));
+        String orderBy = "(" + name + " LIKE :" + PARAM_PREFIX + "prefix) DESC, "
+                + "word_similarity(:" + PARAM_PREFIX + "query, " + document + ") DESC";
+
+        return new SearchCondition("(" + String.join(" AND ", conditions) + ")", orderBy,
+                Collections.unmodifiableMap(params), Collections.unmodifiableMap(orderParams));
+    }
+
+    static List<String> words(String term) {
+        if (term == null || term.isBlank()) {
+            return List.of();
+        }
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : term.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            if (!word.isEmpty()) {
+                words.add(word.length() > MAX_WORD_LENGTH ? word.substring(0, MAX_WORD_LENGTH) : word);
+            }
+            if (words.size() == MAX_WORDS) {
+                break;
+            }
+        }
+        return List.copyOf(words);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
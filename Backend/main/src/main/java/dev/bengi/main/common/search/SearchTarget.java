@@ -0,0 +1,47 @@
+package dev.bengi.main.common.search;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Searchable entities and the text they are searched by.
+ * <p>
+ * The generated expressions must stay identical to the ones indexed in
+ * {@code V7__add_search_indexes.sql}: a trigram GIN index on the whole document and a
+ * {@code text_pattern_ops} index on the primary name for prefix lookups.
+ */
+public enum SearchTarget {
+    USERS("username", "username", "email", "first_name", "last_name"),
+    FEEDBACKS("title", "title", "description"),
+    PROJECTS("name", "name", "description", "category"),
+    QUESTIONS("text", "text", "description", "category");
+
+    private final String nameColumn;
+    private final String[] documentColumns;
+
+    SearchTarget(String nameColumn, String... documentColumns) {
+        this.nameColumn = nameColumn;
+        this.documentColumns = documentColumns;
+    }
+
+    /**
+     * Lower-cased concatenation of all searchable columns.
+     */
+    public String document(String alias) {
+        return Arrays.stream(documentColumns)
+                .map(column -> coalesce(alias, column))
+                .collect(Collectors.joining(" || ' ' || ", "lower(", ")"));
+    }
+
+    /**
+     * Lower-cased primary name, used for prefix matching and ranking.
+     */
+    public String name(String alias) {
+        return "lower(" + coalesce(alias, nameColumn) + ")";
+    }
+
+    private static String coalesce(String alias, String column) {
+        String qualified = alias == null || alias.isEmpty() ? column : alias + "." + column;
+        return "coalesce(" + qualified + ", '')";
+    }
+}
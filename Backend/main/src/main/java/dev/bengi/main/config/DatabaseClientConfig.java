@@ -0,0 +1,23 @@
+package dev.bengi.main.config;
+
+import dev.bengi.main.common.db.QueryInstrumentation;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Replaces the auto-configured DatabaseClient so that every statement, including those issued
+ * by the R2DBC repositories, runs through {@link QueryInstrumentation}.
+ */
+@Configuration
+public class DatabaseClientConfig {
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory, QueryInstrumentation queryInstrumentation) {
+        return DatabaseClient.builder()
+                .connectionFactory(connectionFactory)
+                .executeFunction(queryInstrumentation)
+                .build();
+    }
+}
@@ -1,15 +1,23 @@
 package dev.bengi.main.modules.dashboard.controller;
 
+import dev.bengi.main.common.pagination.PageResponse;
+import dev.bengi.main.common.pagination.PaginationService;
 import dev.bengi.main.modules.dashboard.dto.DashboardDtos.*;
+import dev.bengi.main.modules.dashboard.service.ActivityEventService;
 import dev.bengi.main.modules.dashboard.service.DashboardService;
+import dev.bengi.main.modules.dashboard.service.DashboardStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Map;
 
 @RestController
@@ -17,7 +25,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DashboardController {
 
+    private static final Duration STREAM_HEARTBEAT = Duration.ofSeconds(20);
+
     private final DashboardService dashboardService;
+    private final DashboardStreamService dashboardStreamService;
+    private final PaginationService paginationService;
     
     @GetMapping("/quick-stats")
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
@@ -99,8 +111,25 @@ public class DashboardController {
     
     @GetMapping("/activity-feed")
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
-    public Flux<ActivityFeed> getActivityFeed(@RequestParam(defaultValue = "20") int limit) {
-        return dashboardService.getActivityFeed(limit);
+    public Flux<ActivityFeed> getActivityFeed(@RequestParam(defaultValue = "20") int limit,
+                                              @RequestParam(required = false) String actor,
+                                              @RequestParam(required = false) Long projectId,
+                                              @RequestParam(required = false) Long departmentId) {
+        return dashboardService.getActivityFeed(new ActivityEventService.ActivityFilter(actor, projectId, departmentId), limit);
+    }
+
+    // Keyset-paged activity feed, newest first; follow nextCursor for older events
+    @GetMapping("/activity")
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    public Mono<ResponseEntity<PageResponse<ActivityFeed>>> getActivityPage(
+            ServerWebExchange exchange,
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Long departmentId) {
+        return dashboardService.getActivityFeedPage(
+                        new ActivityEventService.ActivityFilter(actor, projectId, departmentId),
+                        paginationService.parsePageRequest(exchange))
+                .map(ResponseEntity::ok);
     }
     
     @GetMapping("/quick-actions")
@@ -138,11 +167,27 @@ public class DashboardController {
         return dashboardService.getRecentNotifications(username, limit);
     }
     
+    // Push alternative to polling realtime-metrics, activity-feed and notifications; every
+    // client shares the same upstream queries
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    public Flux<ServerSentEvent<Object>> stream() {
+        return Flux.merge(
+                dashboardStreamService.metrics().map(data -> event(DashboardStreamService.METRICS, data)),
+                dashboardStreamService.activity().map(data -> event(DashboardStreamService.ACTIVITY, data)),
+                dashboardStreamService.notifications().map(data -> event(DashboardStreamService.NOTIFICATIONS, data)),
+                // Keeps proxies from closing idle connections and surfaces dead clients
+                Flux.interval(STREAM_HEARTBEAT).onBackpressureDrop()
+                        .map(tick -> ServerSentEvent.builder().comment("keep-alive").build()));
+    }
+
     @GetMapping("/health")
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
     public Mono<ResponseEntity<java.util.Map<String, Long>>> getSystemHealth() {
         return dashboardService.getSystemHealthMetrics().map(ResponseEntity::ok);
     }
-}
-
 
+    private static ServerSentEvent<Object> event(String name, Object data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
+}
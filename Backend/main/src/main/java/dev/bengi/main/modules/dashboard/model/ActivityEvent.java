@@ -0,0 +1,26 @@
+package dev.bengi.main.modules.dashboard.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("activity_events")
+public class ActivityEvent {
+    @Id
+    private Long id;
+    private LocalDateTime occurredAt;
+    private String actor;
+    private String action;
+    private String targetType;
+    private Long targetId;
+    private String targetName;
+    private Long projectId;
+    private Long departmentId;
+}
@@ -0,0 +1,152 @@
+package dev.bengi.main.modules.dashboard.service;
+
+import dev.bengi.main.common.pagination.KeysetQuery;
+import dev.bengi.main.common.pagination.PageRequest;
+import dev.bengi.main.common.pagination.PageResponse;
+import dev.bengi.main.common.pagination.PaginationService;
+import dev.bengi.main.modules.dashboard.dto.DashboardDtos.ActivityFeed;
+import dev.bengi.main.modules.dashboard.model.ActivityEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes and reads the append-only activity_events log.
+ * <p>
+ * Service create/update/submit paths append one row inside their own transaction. The feed
+ * reads it newest first with keyset pagination on {@code (occurred_at, id)}, optionally
+ * narrowed to an actor, project or department; each variant has a matching index, so a page
+ * is one index range scan regardless of table size.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityEventService {
+
+    public static final String PROJECT = "Project";
+    public static final String FEEDBACK = "Feedback";
+    public static final String SUBMISSION = "Submission";
+
+    private static final String SYSTEM_ACTOR = "System";
+
+    // The department is the project's when known, otherwise the actor's
+    private static final String INSERT_SQL = """
+        INSERT INTO activity_events (occurred_at, actor, action, target_type, target_id, target_name, project_id, department_id)
+        SELECT NOW(), CAST(:actor AS VARCHAR), :action, :targetType, :targetId, :targetName, CAST(:projectId AS BIGINT),
+               COALESCE((SELECT department_id FROM projects WHERE id = CAST(:projectId AS BIGINT)),
+                        (SELECT department_id FROM users WHERE username = CAST(:actor AS VARCHAR)))
+        """;
+
+    private final DatabaseClient databaseClient;
+    private final PaginationService paginationService;
+
+    /**
+     * Feed filters; null fields are not applied.
+     */
+    public record ActivityFilter(String actor, Long projectId, Long departmentId) {
+        public static final ActivityFilter NONE = new ActivityFilter(null, null, null);
+    }
+
+    /**
+     * Append an event attributed to the authenticated user, or to the system when there is none.
+     */
+    public Mono<Void> record(String action, String targetType, Long targetId, String targetName, Long projectId) {
+        return currentActor()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(actor -> record(actor.orElse(null), action, targetType, targetId, targetName, projectId));
+    }
+
+    /**
+     * Append an event for an explicit actor; {@code null} hides it (system or anonymous activity).
+     */
+    public Mono<Void> record(String actor, String action, String targetType, Long targetId,
+                             String targetName, Long projectId) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(INSERT_SQL)
+                .bind("action", action)
+                .bind("targetType", targetType);
+        spec = actor != null ? spec.bind("actor", actor) : spec.bindNull("actor", String.class);
+        spec = targetId != null ? spec.bind("targetId", targetId) : spec.bindNull("targetId", Long.class);
+        spec = targetName != null ? spec.bind("targetName", truncate(targetName)) : spec.bindNull("targetName", String.class);
+        spec = projectId != null ? spec.bind("projectId", projectId) : spec.bindNull("projectId", Long.class);
+        return spec.then();
+    }
+
+    /**
+     * Newest events first; one index range scan of {@code limit} rows.
+     */
+    public Flux<ActivityFeed> latest(ActivityFilter filter, int limit) {
+        return feed(filter, PageRequest.of(0, limit)).flatMapIterable(PageResponse::getContent);
+    }
+
+    /**
+     * Keyset page of the feed. Pass the returned cursors back to move through it; the total is
+     * not computed (-1).
+     */
+    public Mono<PageResponse<ActivityFeed>> feed(ActivityFilter filter, PageRequest pageRequest) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM activity_events");
+        List<String> conditions = new ArrayList<>(3);
+        if (filter.actor() != null) conditions.add("actor = :actor");
+        if (filter.projectId() != null) conditions.add("project_id = :projectId");
+        if (filter.departmentId() != null) conditions.add("department_id = :departmentId");
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        KeysetQuery<ActivityEvent> query = KeysetQuery.of(ActivityEvent.class, sql.toString())
+                .sortableBy("occurred_at")
+                .uncounted();
+        if (filter.actor() != null) query.bind("actor", filter.actor());
+        if (filter.projectId() != null) query.bind("projectId", filter.projectId());
+        if (filter.departmentId() != null) query.bind("departmentId", filter.departmentId());
+
+        // The feed always runs newest first and is never unbounded; only the page size and
+        // position come from the caller
+        int limit = pageRequest.getLimit() <= 0
+                ? PaginationService.DEFAULT_LIMIT
+                : Math.min(pageRequest.getLimit(), PaginationService.MAX_LIMIT);
+        PageRequest feedRequest = new PageRequest(pageRequest.getPage(), limit,
+                "occurred_at", "desc", null, pageRequest.getCursor()).validate();
+        return paginationService.paginateKeyset(query, feedRequest,
+                page -> Flux.fromIterable(page).map(ActivityEventService::toFeed));
+    }
+
+    private static ActivityFeed toFeed(ActivityEvent event) {
+        String icon;
+        String color;
+        switch (event.getTargetType()) {
+            case PROJECT -> { icon = "folder-plus"; color = "blue"; }
+            case FEEDBACK -> { icon = "message-circle"; color = "green"; }
+            case SUBMISSION -> { icon = "send"; color = "purple"; }
+            default -> { icon = "activity"; color = "gray"; }
+        }
+        return new ActivityFeed(
+                event.getTargetId(),
+                event.getActor() != null ? event.getActor() : SYSTEM_ACTOR,
+                event.getAction(),
+                event.getTargetType(),
+                event.getTargetName(),
+                event.getOccurredAt(),
+                icon,
+                color);
+    }
+
+    private static Mono<String> currentActor() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .map(Authentication::getName);
+    }
+
+    private static String truncate(String value) {
+        return value.length() > 255 ? value.substring(0, 255) : value;
+    }
+}
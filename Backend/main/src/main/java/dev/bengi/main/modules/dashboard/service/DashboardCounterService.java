@@ -0,0 +1,215 @@
+package dev.bengi.main.modules.dashboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maintains the dashboard_counters rollup: running totals per entity plus per-day
+ * creation buckets. Create and delete paths adjust the counters inside their own
+ * transaction; a periodic reconciliation recomputes everything from the base tables
+ * to correct drift (e.g. active flags toggled by plain updates, cascaded deletes).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DashboardCounterService {
+
+    public static final String USERS = "users";
+    public static final String DEPARTMENTS = "departments";
+    public static final String PROJECTS = "projects";
+    public static final String FEEDBACKS = "feedbacks";
+    public static final String SUBMISSIONS = "submissions";
+
+    private static final String ACTIVE_SUFFIX = ".active";
+
+    // Total and day bucket are adjusted in one round trip
+    private static final String ADJUST_SQL = """
+        WITH total AS (
+            INSERT INTO dashboard_counters (metric, value, updated_at)
+            VALUES (:metric, :delta, NOW())
+            ON CONFLICT (metric) DO UPDATE
+            SET value = dashboard_counters.value + EXCLUDED.value, updated_at = NOW()
+        )
+        INSERT INTO dashboard_counter_buckets (metric, bucket_date, value)
+        VALUES (:metric, :day, :delta)
+        ON CONFLICT (metric, bucket_date) DO UPDATE
+        SET value = dashboard_counter_buckets.value + EXCLUDED.value
+        """;
+
+    private static final String ADJUST_TOTAL_SQL = """
+        INSERT INTO dashboard_counters (metric, value, updated_at)
+        VALUES (:metric, :delta, NOW())
+        ON CONFLICT (metric) DO UPDATE
+        SET value = dashboard_counters.value + EXCLUDED.value, updated_at = NOW()
+        """;
+
+    private static final String SNAPSHOT_SQL = """
+        SELECT
+            COALESCE((SELECT value FROM dashboard_counters WHERE metric = :metric), 0) AS total,
+            COALESCE((SELECT value FROM dashboard_counters WHERE metric = :activeMetric), 0) AS active,
+            COALESCE((SELECT SUM(value) FROM dashboard_counter_buckets
+                      WHERE metric = :metric AND bucket_date >= :monthStart AND bucket_date < :nextMonthStart), 0) AS this_month,
+            COALESCE((SELECT SUM(value) FROM dashboard_counter_buckets
+                      WHERE metric = :metric AND bucket_date >= :prevMonthStart AND bucket_date < :monthStart), 0) AS last_month
+        """;
+
+    private static final String RECONCILE_TOTALS_SQL = """
+        INSERT INTO dashboard_counters (metric, value, updated_at)
+        SELECT 'users', COUNT(*), NOW() FROM users
+        UNION ALL SELECT 'users.active', COUNT(*), NOW() FROM users WHERE active = true
+        UNION ALL SELECT 'departments', COUNT(*), NOW() FROM departments
+        UNION ALL SELECT 'departments.active', COUNT(*), NOW() FROM departments WHERE active = true
+        UNION ALL SELECT 'projects', COUNT(*), NOW() FROM projects
+        UNION ALL SELECT 'projects.active', COUNT(*), NOW() FROM projects WHERE active = true
+        UNION ALL SELECT 'feedbacks', COUNT(*), NOW() FROM feedbacks
+        UNION ALL SELECT 'feedbacks.active', COUNT(*), NOW() FROM feedbacks WHERE active = true
+        UNION ALL SELECT 'submissions', COUNT(*), NOW() FROM submissions
+        ON CONFLICT (metric) DO UPDATE SET value = EXCLUDED.value, updated_at = NOW()
+        """;
+
+    private static final String RECONCILE_BUCKETS_SQL = """
+        INSERT INTO dashboard_counter_buckets (metric, bucket_date, value)
+        SELECT 'users', CAST(created_at AS DATE), COUNT(*) FROM users WHERE created_at IS NOT NULL GROUP BY CAST(created_at AS DATE)
+        UNION ALL SELECT 'departments', CAST(created_at AS DATE), COUNT(*) FROM departments WHERE created_at IS NOT NULL GROUP BY CAST(created_at AS DATE)
+        UNION ALL SELECT 'projects', CAST(created_at AS DATE), COUNT(*) FROM projects WHERE created_at IS NOT NULL GROUP BY CAST(created_at AS DATE)
+        UNION ALL SELECT 'feedbacks', CAST(created_at AS DATE), COUNT(*) FROM feedbacks WHERE created_at IS NOT NULL GROUP BY CAST(created_at AS DATE)
+        UNION ALL SELECT 'submissions', CAST(submitted_at AS DATE), COUNT(*) FROM submissions WHERE submitted_at IS NOT NULL GROUP BY CAST(submitted_at AS DATE)
+        """;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    // Best effort: a dropped signal only delays listeners until their next periodic refresh
+    private final Sinks.Many<String> changes = Sinks.many().multicast().directBestEffort();
+
+    /**
+     * Totals and month-over-month creation counts for a single entity.
+     */
+    public record CounterSnapshot(long total, long active, long thisMonth, long lastMonth) {}
+
+    public Mono<Void> recordCreated(String metric, LocalDateTime createdAt, boolean active) {
+        Mono<Void> created = adjust(metric, day(createdAt), 1);
+        return notifying(metric, active ? created.then(adjustTotal(metric + ACTIVE_SUFFIX, 1)) : created);
+    }
+
+    public Mono<Void> recordDeleted(String metric, LocalDateTime createdAt, boolean active) {
+        Mono<Void> deleted = adjust(metric, day(createdAt), -1);
+        return notifying(metric, active ? deleted.then(adjustTotal(metric + ACTIVE_SUFFIX, -1)) : deleted);
+    }
+
+    public Mono<Void> recordActiveChanged(String metric, boolean wasActive, boolean isActive) {
+        if (wasActive == isActive) {
+            return Mono.empty();
+        }
+        return notifying(metric, adjustTotal(metric + ACTIVE_SUFFIX, isActive ? 1 : -1));
+    }
+
+    /**
+     * Metric names whose counters were just adjusted by a create, delete or activation change.
+     * Hot and lossy; subscribers only see changes made after they subscribe.
+     */
+    public Flux<String> changes() {
+        return changes.asFlux();
+    }
+
+    private Mono<Void> notifying(String metric, Mono<Void> adjustment) {
+        return adjustment.doOnSuccess(v -> changes.tryEmitNext(metric));
+    }
+
+    /**
+     * Adjust a running total and its bucket for {@code day} by {@code delta}.
+     */
+    public Mono<Void> adjust(String metric, LocalDate day, long delta) {
+        return databaseClient.sql(ADJUST_SQL)
+                .bind("metric", metric)
+                .bind("delta", delta)
+                .bind("day", day)
+                .then();
+    }
+
+    public Mono<Void> adjustTotal(String metric, long delta) {
+        return databaseClient.sql(ADJUST_TOTAL_SQL)
+                .bind("metric", metric)
+                .bind("delta", delta)
+                .then();
+    }
+
+    public Mono<CounterSnapshot> snapshot(String metric) {
+        YearMonth now = YearMonth.now();
+        return databaseClient.sql(SNAPSHOT_SQL)
+                .bind("metric", metric)
+                .bind("activeMetric", metric + ACTIVE_SUFFIX)
+                .bind("monthStart", now.atDay(1))
+                .bind("nextMonthStart", now.plusMonths(1).atDay(1))
+                .bind("prevMonthStart", now.minusMonths(1).atDay(1))
+                .map((row, meta) -> new CounterSnapshot(
+                        toLong(row.get("total")),
+                        toLong(row.get("active")),
+                        toLong(row.get("this_month")),
+                        toLong(row.get("last_month"))))
+                .one()
+                .defaultIfEmpty(new CounterSnapshot(0, 0, 0, 0));
+    }
+
+    /**
+     * Current totals for the given metrics (missing metrics read as 0).
+     */
+    public Mono<Map<String, Long>> totals(Collection<String> metrics) {
+        return databaseClient.sql("SELECT metric, value FROM dashboard_counters WHERE metric = ANY(:metrics)")
+                .bind("metrics", metrics.toArray(String[]::new))
+                .map((row, meta) -> Map.entry(row.get("metric", String.class), row.get("value", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(found -> {
+                    Map<String, Long> result = new HashMap<>();
+                    metrics.forEach(metric -> result.put(metric, found.getOrDefault(metric, 0L)));
+                    return result;
+                });
+    }
+
+    public static String active(String metric) {
+        return metric + ACTIVE_SUFFIX;
+    }
+
+    /**
+     * Recompute all counters and buckets from the base tables.
+     */
+    @Scheduled(
+            initialDelayString = "${app.dashboard.counters.reconcile-initial-delay:PT1M}",
+            fixedDelayString = "${app.dashboard.counters.reconcile-interval:PT15M}")
+    public Mono<Void> reconcile() {
+        return Flux.concat(
+                        databaseClient.sql(RECONCILE_TOTALS_SQL).then(),
+                        databaseClient.sql("DELETE FROM dashboard_counter_buckets").then(),
+                        databaseClient.sql(RECONCILE_BUCKETS_SQL).then())
+                .then()
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(v -> log.debug("Dashboard counters reconciled"))
+                .onErrorResume(e -> {
+                    log.warn("Dashboard counter reconciliation failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static LocalDate day(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toLocalDate() : LocalDate.now();
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
@@ -1,5 +1,8 @@
 package dev.bengi.main.modules.dashboard.service;
 
+import dev.bengi.main.common.cache.SingleFlight;
+import dev.bengi.main.common.pagination.PageRequest;
+import dev.bengi.main.common.pagination.PageResponse;
 import dev.bengi.main.modules.dashboard.dto.DashboardDtos.*;
 import dev.bengi.main.modules.projects.repository.ProjectRepository;
 import dev.bengi.main.modules.projects.repository.ProjectMemberRepository;
@@ -14,6 +17,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.*;
@@ -29,144 +33,133 @@ public class DashboardService {
     private final UserRepository userRepository;
     private final DepartmentRepository departmentRepository;
     private final DatabaseClient databaseClient;
-    private final dev.bengi.main.modules.submit.service.SubmissionSessionService sessionService;
+    private final dev.bengi.main.modules.submit.service.SessionTimeRollupService sessionTimeRollupService;
+    private final DashboardCounterService counterService;
+    private final SingleFlight singleFlight;
+    private final ActivityEventService activityEventService;
+
+    private static final int TIME_SERIES_MONTHS = 12;
+    // Aggregate stats are identical for every caller; concurrent dashboards share one computation
+    private static final Duration STATS_TTL = Duration.ofSeconds(5);
+    private static final int CHART_MONTHS = 6;
+
+    // One pass per table, grouped by month; months without rows are zero-filled in memory
+    private static final String MONTHLY_COUNTS_SQL = """
+        SELECT 'projects' AS series, date_trunc('month', created_at) AS month, COUNT(*) AS total
+        FROM projects
+        WHERE created_at >= :from AND created_at < :to
+        GROUP BY date_trunc('month', created_at)
+        UNION ALL
+        SELECT 'submissions' AS series, date_trunc('month', submitted_at) AS month, COUNT(*) AS total
+        FROM submissions
+        WHERE submitted_at >= :from AND submitted_at < :to
+        GROUP BY date_trunc('month', submitted_at)
+        UNION ALL
+        SELECT 'feedbacks' AS series, date_trunc('month', created_at) AS month, COUNT(*) AS total
+        FROM feedbacks
+        WHERE created_at >= :from AND created_at < :to
+        GROUP BY date_trunc('month', created_at)
+        """;
+
+    // Department activity for the current month; members join on department_id, submissions on (user_id, submitted_at)
+    private static final String DEPARTMENT_METRICS_SQL = """
+        SELECT
+            d.id as department_id,
+            d.name as department_name,
+            COUNT(DISTINCT u.id) as active_members,
+            COUNT(DISTINCT s.id) as total_submissions,
+            COALESCE(AVG(s.admin_rating), 0) as average_rating
+        FROM departments d
+        LEFT JOIN users u ON d.id = u.department_id AND u.active = true
+        LEFT JOIN submissions s ON u.username = s.user_id AND s.submitted_at >= :monthStart AND s.submitted_at < :monthEnd
+        WHERE d.active = true
+        GROUP BY d.id, d.name
+        ORDER BY active_members DESC
+        """;
 
     // Individual stats methods for dashboard cards
     public Mono<Map<String, Object>> getUsersStats() {
-        YearMonth now = YearMonth.now();
-        LocalDateTime monthStart = now.atDay(1).atStartOfDay();
-        LocalDateTime monthEnd = now.plusMonths(1).atDay(1).atStartOfDay();
-        LocalDateTime prevMonthStart = now.minusMonths(1).atDay(1).atStartOfDay();
-        
-        return Mono.zip(
-                userRepository.count(),
-                userRepository.countActiveUsers(),
-                userRepository.countNewUsersBetween(monthStart, monthEnd),
-                userRepository.countNewUsersBetween(prevMonthStart, monthStart)
-        ).map(t -> {
+        return counterService.snapshot(DashboardCounterService.USERS).map(c -> {
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalUsers", t.getT1());
-            stats.put("activeUsers", t.getT2());
-            stats.put("newUsersThisMonth", t.getT3());
-            stats.put("newUsersLastMonth", t.getT4());
-            stats.put("growth", formatGrowth(t.getT3(), t.getT4()));
+            stats.put("totalUsers", c.total());
+            stats.put("activeUsers", c.active());
+            stats.put("newUsersThisMonth", c.thisMonth());
+            stats.put("newUsersLastMonth", c.lastMonth());
+            stats.put("growth", formatGrowth(c.thisMonth(), c.lastMonth()));
             return stats;
         });
     }
 
     public Mono<Map<String, Object>> getDepartmentsStats() {
-        YearMonth now = YearMonth.now();
-        LocalDateTime monthStart = now.atDay(1).atStartOfDay();
-        LocalDateTime monthEnd = now.plusMonths(1).atDay(1).atStartOfDay();
-        LocalDateTime prevMonthStart = now.minusMonths(1).atDay(1).atStartOfDay();
-        
-        return Mono.zip(
-                departmentRepository.count(),
-                departmentRepository.countActiveDepartments(),
-                departmentRepository.countNewDepartmentsBetween(monthStart, monthEnd),
-                departmentRepository.countNewDepartmentsBetween(prevMonthStart, monthStart)
-        ).map(t -> {
+        return counterService.snapshot(DashboardCounterService.DEPARTMENTS).map(c -> {
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalDepartments", t.getT1());
-            stats.put("activeDepartments", t.getT2());
-            stats.put("newDepartmentsThisMonth", t.getT3());
-            stats.put("newDepartmentsLastMonth", t.getT4());
-            stats.put("growth", formatGrowth(t.getT3(), t.getT4()));
+            stats.put("totalDepartments", c.total());
+            stats.put("activeDepartments", c.active());
+            stats.put("newDepartmentsThisMonth", c.thisMonth());
+            stats.put("newDepartmentsLastMonth", c.lastMonth());
+            stats.put("growth", formatGrowth(c.thisMonth(), c.lastMonth()));
             return stats;
         });
     }
 
     public Mono<Map<String, Object>> getQuestionsStats() {
         // Since we don't have a questions table, we'll use feedbacks as questions
-        YearMonth now = YearMonth.now();
-        LocalDateTime monthStart = now.atDay(1).atStartOfDay();
-        LocalDateTime monthEnd = now.plusMonths(1).atDay(1).atStartOfDay();
-        LocalDateTime prevMonthStart = now.minusMonths(1).atDay(1).atStartOfDay();
-        
-        return Mono.zip(
-                feedbackRepository.count(),
-                feedbackRepository.countActiveFeedbacks(),
-                feedbackRepository.countCreatedBetween(monthStart, monthEnd),
-                feedbackRepository.countCreatedBetween(prevMonthStart, monthStart)
-        ).map(t -> {
+        return counterService.snapshot(DashboardCounterService.FEEDBACKS).map(c -> {
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalQuestions", t.getT1());
-            stats.put("activeQuestions", t.getT2());
-            stats.put("newQuestionsThisMonth", t.getT3());
-            stats.put("newQuestionsLastMonth", t.getT4());
-            stats.put("growth", formatGrowth(t.getT3(), t.getT4()));
+            stats.put("totalQuestions", c.total());
+            stats.put("activeQuestions", c.active());
+            stats.put("newQuestionsThisMonth", c.thisMonth());
+            stats.put("newQuestionsLastMonth", c.lastMonth());
+            stats.put("growth", formatGrowth(c.thisMonth(), c.lastMonth()));
             return stats;
         });
     }
 
     public Mono<Map<String, Object>> getFeedbacksStats() {
-        YearMonth now = YearMonth.now();
-        LocalDateTime monthStart = now.atDay(1).atStartOfDay();
-        LocalDateTime monthEnd = now.plusMonths(1).atDay(1).atStartOfDay();
-        LocalDateTime prevMonthStart = now.minusMonths(1).atDay(1).atStartOfDay();
-        
-        return Mono.zip(
-                feedbackRepository.count(),
-                feedbackRepository.countActiveFeedbacks(),
-                feedbackRepository.countCreatedBetween(monthStart, monthEnd),
-                feedbackRepository.countCreatedBetween(prevMonthStart, monthStart)
-        ).map(t -> {
+        return counterService.snapshot(DashboardCounterService.FEEDBACKS).map(c -> {
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalFeedbacks", t.getT1());
-            stats.put("activeFeedbacks", t.getT2());
-            stats.put("newFeedbacksThisMonth", t.getT3());
-            stats.put("newFeedbacksLastMonth", t.getT4());
-            stats.put("growth", formatGrowth(t.getT3(), t.getT4()));
+            stats.put("totalFeedbacks", c.total());
+            stats.put("activeFeedbacks", c.active());
+            stats.put("newFeedbacksThisMonth", c.thisMonth());
+            stats.put("newFeedbacksLastMonth", c.lastMonth());
+            stats.put("growth", formatGrowth(c.thisMonth(), c.lastMonth()));
             return stats;
         });
     }
 
     public Mono<Map<String, Object>> getSubmissionsStats() {
-        YearMonth now = YearMonth.now();
-        LocalDateTime monthStart = now.atDay(1).atStartOfDay();
-        LocalDateTime monthEnd = now.plusMonths(1).atDay(1).atStartOfDay();
-        LocalDateTime prevMonthStart = now.minusMonths(1).atDay(1).atStartOfDay();
-        
-        return Mono.zip(
-                submitRepository.count(),
-                submitRepository.countSubmittedBetween(monthStart, monthEnd),
-                submitRepository.countSubmittedBetween(prevMonthStart, monthStart)
-        ).map(t -> {
+        return counterService.snapshot(DashboardCounterService.SUBMISSIONS).map(c -> {
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalSubmissions", t.getT1());
-            stats.put("submissionsThisMonth", t.getT2());
-            stats.put("submissionsLastMonth", t.getT3());
-            stats.put("growth", formatGrowth(t.getT2(), t.getT3()));
+            stats.put("totalSubmissions", c.total());
+            stats.put("submissionsThisMonth", c.thisMonth());
+            stats.put("submissionsLastMonth", c.lastMonth());
+            stats.put("growth", formatGrowth(c.thisMonth(), c.lastMonth()));
             return stats;
         });
     }
 
     public Mono<Map<String, Object>> getProjectsStats() {
-        YearMonth now = YearMonth.now();
-        LocalDateTime monthStart = now.atDay(1).atStartOfDay();
-        LocalDateTime monthEnd = now.plusMonths(1).atDay(1).atStartOfDay();
-        LocalDateTime prevMonthStart = now.minusMonths(1).atDay(1).atStartOfDay();
-        
-        return Mono.zip(
-                projectRepository.count(),
-                projectRepository.countActiveProjects(),
-                projectRepository.countCreatedBetween(monthStart, monthEnd),
-                projectRepository.countCreatedBetween(prevMonthStart, monthStart)
-        ).map(t -> {
+        return counterService.snapshot(DashboardCounterService.PROJECTS).map(c -> {
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalProjects", t.getT1());
-            stats.put("activeProjects", t.getT2());
-            stats.put("newProjectsThisMonth", t.getT3());
-            stats.put("newProjectsLastMonth", t.getT4());
-            stats.put("growth", formatGrowth(t.getT3(), t.getT4()));
+            stats.put("totalProjects", c.total());
+            stats.put("activeProjects", c.active());
+            stats.put("newProjectsThisMonth", c.thisMonth());
+            stats.put("newProjectsLastMonth", c.lastMonth());
+            stats.put("growth", formatGrowth(c.thisMonth(), c.lastMonth()));
             return stats;
         });
     }
 
     public Mono<DashboardStats> getStats(String currentUsername) {
+        return getStats(currentUsername, loadMonthlyCounts(TIME_SERIES_MONTHS).cache());
+    }
+
+    private Mono<DashboardStats> getStats(String currentUsername, Mono<MonthlyCounts> monthlyCounts) {
         // Overview metrics - enhanced with actual data
-        Mono<Long> totalProjects = projectRepository.count();
-        Mono<Long> totalSubmissions = submitRepository.count();
+        Mono<Map<String, Long>> totals = counterService.totals(List.of(
+                DashboardCounterService.PROJECTS, DashboardCounterService.SUBMISSIONS, DashboardCounterService.FEEDBACKS)).cache();
+        Mono<Long> totalProjects = totals.map(t -> t.get(DashboardCounterService.PROJECTS));
+        Mono<Long> totalSubmissions = totals.map(t -> t.get(DashboardCounterService.SUBMISSIONS));
         Mono<Long> totalMembers = projectMemberRepository.countDistinctMembers();
 
         // Simple growth placeholders (compute against previous month)
@@ -174,33 +167,26 @@ public class DashboardService {
         LocalDateTime mStart = now.atDay(1).atStartOfDay();
         LocalDateTime mEnd = now.plusMonths(1).atDay(1).atStartOfDay();
         LocalDateTime pmStart = now.minusMonths(1).atDay(1).atStartOfDay();
-        LocalDateTime pmEnd = mStart;
-
-        Mono<Long> projThisMonth = projectRepository.countCreatedBetween(mStart, mEnd);
-        Mono<Long> projPrevMonth = projectRepository.countCreatedBetween(pmStart, pmEnd);
-        Mono<Long> submThisMonth = submitRepository.countSubmittedBetween(mStart, mEnd);
-        Mono<Long> submPrevMonth = submitRepository.countSubmittedBetween(pmStart, pmEnd);
 
         // Calculate completion rate
         Mono<Double> completionRate = Mono.zip(
                 feedbackRepository.countCompletedFeedbacks(),
-                feedbackRepository.count()
+                totals.map(t -> t.get(DashboardCounterService.FEEDBACKS))
         ).map(t -> t.getT2() > 0 ? (double) t.getT1() / t.getT2() * 100.0 : 0.0);
 
         // Calculate member growth
         Mono<Long> membersThisMonth = projectMemberRepository.countNewMembersBetween(mStart, mEnd);
-        Mono<Long> membersPrevMonth = projectMemberRepository.countNewMembersBetween(pmStart, pmEnd);
+        Mono<Long> membersPrevMonth = projectMemberRepository.countNewMembersBetween(pmStart, mStart);
 
         // Split the zip operations to avoid parameter limit
         Mono<DashboardOverview> overview = Mono.zip(
                 Mono.zip(totalProjects, totalSubmissions, totalMembers, completionRate.defaultIfEmpty(0.0)),
-                Mono.zip(projThisMonth.defaultIfEmpty(0L), projPrevMonth.defaultIfEmpty(0L),
-                        submThisMonth.defaultIfEmpty(0L), submPrevMonth.defaultIfEmpty(0L)),
+                monthlyCounts,
                 Mono.zip(membersThisMonth.defaultIfEmpty(0L), membersPrevMonth.defaultIfEmpty(0L))
             )
             .map(t -> {
                 var basicData = t.getT1();
-                var projectData = t.getT2();
+                MonthlyCounts monthly = t.getT2();
                 var memberData = t.getT3();
                 
                 return new DashboardOverview(
@@ -208,8 +194,8 @@ public class DashboardService {
                         basicData.getT2(),  // totalSubmissions
                         basicData.getT3(),  // totalMembers
                         basicData.getT4(),  // completionRate
-                        formatGrowth(projectData.getT1(), projectData.getT2()),  // projectsGrowth
-                        formatGrowth(projectData.getT3(), projectData.getT4()),  // submissionsGrowth
+                        formatGrowth(monthly.get("projects", now), monthly.get("projects", now.minusMonths(1))),        // projectsGrowth
+                        formatGrowth(monthly.get("submissions", now), monthly.get("submissions", now.minusMonths(1))),  // submissionsGrowth
                         formatGrowth(memberData.getT1(), memberData.getT2()),    // membersGrowth
                         calculateCompletionGrowth(basicData.getT4())             // completionGrowth
                 );
@@ -246,18 +232,13 @@ public class DashboardService {
                 )).collectList();
 
         // Chart data for last 6 months
-        YearMonth base = YearMonth.now().minusMonths(5);
-        Mono<int[]> projectsSeries = countsForMonths(6, base,
-                (from, to) -> projectRepository.countCreatedBetween(from, to));
-        Mono<int[]> submissionsSeries = countsForMonths(6, base,
-                (from, to) -> submitRepository.countSubmittedBetween(from, to));
-
-        Mono<ChartData> chartMono = Mono.zip(projectsSeries, submissionsSeries)
-                .map(t -> new ChartData(
-                        monthLabels(6, base),
+        YearMonth base = YearMonth.now().minusMonths(CHART_MONTHS - 1);
+        Mono<ChartData> chartMono = monthlyCounts
+                .map(monthly -> new ChartData(
+                        monthLabels(CHART_MONTHS, base),
                         new ChartDataset[]{
-                                new ChartDataset("Projects", t.getT1(), "#3b82f6", "#3b82f6"),
-                                new ChartDataset("Submissions", t.getT2(), "#10b981", "#10b981")
+                                new ChartDataset("Projects", monthly.series("projects", base, CHART_MONTHS), "#3b82f6", "#3b82f6"),
+                                new ChartDataset("Submissions", monthly.series("submissions", base, CHART_MONTHS), "#10b981", "#10b981")
                         }
                 ));
 
@@ -267,8 +248,16 @@ public class DashboardService {
 
     // Advanced dashboard metrics
     public Mono<EnhancedDashboardStats> getAdvancedStats(String currentUsername) {
+        // Nothing below depends on the caller, so all callers share one key
+        return singleFlight.execute("dashboard.advancedStats", STATS_TTL, () -> loadAdvancedStats(currentUsername));
+    }
+
+    private Mono<EnhancedDashboardStats> loadAdvancedStats(String currentUsername) {
+        // Month buckets are scanned once and shared by the chart and the time series
+        Mono<MonthlyCounts> monthlyCounts = loadMonthlyCounts(TIME_SERIES_MONTHS).cache();
+
         // Get basic stats
-        Mono<DashboardStats> basicStats = getStats(currentUsername);
+        Mono<DashboardStats> basicStats = getStats(currentUsername, monthlyCounts);
         
         // Calculate advanced metrics
         Mono<AdvancedMetrics> advancedMetrics = getAdvancedMetrics();
@@ -277,7 +266,7 @@ public class DashboardService {
         Mono<List<DepartmentMetrics>> departmentMetrics = getDepartmentMetrics();
         
         // Get time series data for the last 12 months
-        Mono<List<TimeSeriesMetric>> timeSeriesData = getTimeSeriesData();
+        Mono<List<TimeSeriesMetric>> timeSeriesData = monthlyCounts.map(this::toTimeSeries);
         
         return Mono.zip(basicStats, advancedMetrics, departmentMetrics, timeSeriesData)
                 .map(t -> new EnhancedDashboardStats(
@@ -292,6 +281,10 @@ public class DashboardService {
     }
 
     public Mono<AdvancedMetrics> getAdvancedMetrics() {
+        return singleFlight.execute("dashboard.advancedMetrics", STATS_TTL, this::loadAdvancedMetrics);
+    }
+
+    private Mono<AdvancedMetrics> loadAdvancedMetrics() {
         YearMonth now = YearMonth.now();
         LocalDateTime monthStart = now.atDay(1).atStartOfDay();
         LocalDateTime monthEnd = now.plusMonths(1).atDay(1).atStartOfDay();
@@ -336,8 +329,8 @@ public class DashboardService {
                 : submitRepository.countSubmittedBetween(from, to).defaultIfEmpty(0L);
 
         Mono<Long> totalSeconds = userId != null
-                ? sessionService.totalSecondsForUserThisMonth(userId).defaultIfEmpty(0L)
-                : sessionService.totalSecondsThisMonth().defaultIfEmpty(0L);
+                ? sessionTimeRollupService.totalSecondsForUserThisMonth(userId).defaultIfEmpty(0L)
+                : sessionTimeRollupService.totalSecondsThisMonth().defaultIfEmpty(0L);
 
         Mono<Double> avgRating = userId != null
                 ? submitRepository.getUserAverageRatingBetween(userId, from, to).defaultIfEmpty(0.0)
@@ -354,26 +347,15 @@ public class DashboardService {
     }
 
     public Mono<List<DepartmentMetrics>> getDepartmentMetrics() {
+        return singleFlight.execute("dashboard.departmentMetrics", STATS_TTL, this::loadDepartmentMetrics);
+    }
+
+    private Mono<List<DepartmentMetrics>> loadDepartmentMetrics() {
         YearMonth now = YearMonth.now();
         LocalDateTime monthStart = now.atDay(1).atStartOfDay();
         LocalDateTime monthEnd = now.plusMonths(1).atDay(1).atStartOfDay();
         
-        String query = """
-            SELECT 
-                d.id as department_id,
-                d.name as department_name,
-                COUNT(DISTINCT u.id) as active_members,
-                COUNT(DISTINCT s.id) as total_submissions,
-                COALESCE(AVG(s.rating), 0) as average_rating
-            FROM departments d
-            LEFT JOIN users u ON d.id = u.department_id AND u.active = true
-            LEFT JOIN submissions s ON u.username = s.user_id AND s.submitted_at >= :monthStart AND s.submitted_at < :monthEnd
-            WHERE d.active = true
-            GROUP BY d.id, d.name
-            ORDER BY active_members DESC
-            """;
-        
-        return databaseClient.sql(query)
+        return databaseClient.sql(DEPARTMENT_METRICS_SQL)
                 .bind("monthStart", monthStart)
                 .bind("monthEnd", monthEnd)
                 .map((row, meta) -> {
@@ -400,91 +382,37 @@ public class DashboardService {
     }
 
     public Mono<List<TimeSeriesMetric>> getTimeSeriesData() {
-        YearMonth start = YearMonth.now().minusMonths(11);
-        
-        return Flux.range(0, 12)
-                .concatMap(i -> {
-                    YearMonth ym = start.plusMonths(i);
-                    LocalDateTime from = ym.atDay(1).atStartOfDay();
-                    LocalDateTime to = ym.plusMonths(1).atDay(1).atStartOfDay();
-                    String period = ym.getMonth().name().substring(0, 3) + " " + ym.getYear();
-                    
-                    Mono<Long> projects = projectRepository.countCreatedBetween(from, to).defaultIfEmpty(0L);
-                    Mono<Long> submissions = submitRepository.countSubmittedBetween(from, to).defaultIfEmpty(0L);
-                    Mono<Long> feedbacks = feedbackRepository.countCreatedBetween(from, to).defaultIfEmpty(0L);
-                    
-                    return Mono.zip(projects, submissions, feedbacks)
-                            .flatMapMany(t -> Flux.just(
-                                    new TimeSeriesMetric(period, t.getT1(), "Projects"),
-                                    new TimeSeriesMetric(period, t.getT2(), "Submissions"),
-                                    new TimeSeriesMetric(period, t.getT3(), "Feedbacks")
-                            ));
-                })
-                .collectList();
+        return loadMonthlyCounts(TIME_SERIES_MONTHS).map(this::toTimeSeries);
+    }
+
+    private List<TimeSeriesMetric> toTimeSeries(MonthlyCounts monthly) {
+        YearMonth start = YearMonth.now().minusMonths(TIME_SERIES_MONTHS - 1);
+        List<TimeSeriesMetric> metrics = new ArrayList<>(TIME_SERIES_MONTHS * 3);
+        for (int i = 0; i < TIME_SERIES_MONTHS; i++) {
+            YearMonth ym = start.plusMonths(i);
+            String period = ym.getMonth().name().substring(0, 3) + " " + ym.getYear();
+            metrics.add(new TimeSeriesMetric(period, monthly.get("projects", ym), "Projects"));
+            metrics.add(new TimeSeriesMetric(period, monthly.get("submissions", ym), "Submissions"));
+            metrics.add(new TimeSeriesMetric(period, monthly.get("feedbacks", ym), "Feedbacks"));
+        }
+        return metrics;
     }
 
     // Real-time and interactive dashboard features
     
     public Flux<ActivityFeed> getActivityFeed(int limit) {
-        // Simplified, defensive query to avoid type/cast issues across environments
-        String query = """
-            SELECT 
-                'project' as source_type,
-                p.id as source_id,
-                'System' as actor_name,
-                'created project' as action,
-                'Project' as target_type,
-                p.name as target_name,
-                p.created_at as timestamp,
-                'folder-plus' as icon,
-                'blue' as color
-            FROM projects p
-            WHERE p.created_at >= NOW() - INTERVAL '30 days'
-            UNION ALL
-            SELECT 
-                'feedback' as source_type,
-                f.id as source_id,
-                'System' as actor_name,
-                'created feedback' as action,
-                'Feedback' as target_type,
-                f.title as target_name,
-                f.created_at as timestamp,
-                'message-circle' as icon,
-                'green' as color
-            FROM feedbacks f
-            WHERE f.created_at >= NOW() - INTERVAL '30 days'
-            UNION ALL
-            SELECT 
-                'submission' as source_type,
-                s.id as source_id,
-                'System' as actor_name,
-                'submitted feedback' as action,
-                'Submission' as target_type,
-                'Feedback Response' as target_name,
-                s.submitted_at as timestamp,
-                'send' as icon,
-                'purple' as color
-            FROM submissions s
-            WHERE s.submitted_at >= NOW() - INTERVAL '7 days'
-            ORDER BY timestamp DESC
-            LIMIT :limit
-            """;
-
-        return databaseClient.sql(query)
-                .bind("limit", limit)
-                .map((row, meta) -> new ActivityFeed(
-                        row.get("source_id", Long.class),
-                        row.get("actor_name", String.class),
-                        row.get("action", String.class),
-                        row.get("target_type", String.class),
-                        row.get("target_name", String.class),
-                        row.get("timestamp", LocalDateTime.class),
-                        row.get("icon", String.class),
-                        row.get("color", String.class)
-                ))
-                .all()
+        return getActivityFeed(ActivityEventService.ActivityFilter.NONE, limit);
+    }
+
+    public Flux<ActivityFeed> getActivityFeed(ActivityEventService.ActivityFilter filter, int limit) {
+        return activityEventService.latest(filter, limit)
                 .onErrorResume(e -> Flux.empty());
     }
+
+    public Mono<PageResponse<ActivityFeed>> getActivityFeedPage(ActivityEventService.ActivityFilter filter,
+                                                                PageRequest pageRequest) {
+        return activityEventService.feed(filter, pageRequest);
+    }
     
     public Flux<QuickAction> getQuickActions(String userRole) {
         List<QuickAction> actions = new ArrayList<>();
@@ -563,20 +491,27 @@ public class DashboardService {
     public Mono<Map<String, Long>> getSystemHealthMetrics() {
         Map<String, Long> health = new HashMap<>();
         
-        return Mono.zip(
-                projectRepository.count(),
-                feedbackRepository.countActiveFeedbacks(),
-                submitRepository.count(),
-                userRepository.countActiveUsers()
-        ).map(t -> {
-            health.put("totalProjects", t.getT1());
-            health.put("activeFeedbacks", t.getT2());
-            health.put("totalSubmissions", t.getT3());
-            health.put("activeUsers", t.getT4());
+        String activeFeedbacksMetric = DashboardCounterService.active(DashboardCounterService.FEEDBACKS);
+        String activeUsersMetric = DashboardCounterService.active(DashboardCounterService.USERS);
+
+        return counterService.totals(List.of(
+                DashboardCounterService.PROJECTS,
+                activeFeedbacksMetric,
+                DashboardCounterService.SUBMISSIONS,
+                activeUsersMetric
+        )).map(totals -> {
+            long totalProjects = totals.get(DashboardCounterService.PROJECTS);
+            long activeFeedbacks = totals.get(activeFeedbacksMetric);
+            long totalSubmissions = totals.get(DashboardCounterService.SUBMISSIONS);
+            long activeUsers = totals.get(activeUsersMetric);
+            health.put("totalProjects", totalProjects);
+            health.put("activeFeedbacks", activeFeedbacks);
+            health.put("totalSubmissions", totalSubmissions);
+            health.put("activeUsers", activeUsers);
             
             // Calculate system health score (0-100)
             long healthScore = Math.min(100, 
-                (t.getT1() * 10 + t.getT2() * 20 + t.getT3() * 5 + t.getT4() * 15) / 10
+                (totalProjects * 10 + activeFeedbacks * 20 + totalSubmissions * 5 + activeUsers * 15) / 10
             );
             health.put("healthScore", healthScore);
             
@@ -609,20 +544,43 @@ public class DashboardService {
         return String.format("%+.0f%%", growth);
     }
 
-    private interface Counter {
-        Mono<Long> count(LocalDateTime from, LocalDateTime to);
+    /**
+     * Monthly counts for projects, submissions and feedbacks over the last {@code months} months,
+     * loaded with a single grouped scan.
+     */
+    private Mono<MonthlyCounts> loadMonthlyCounts(int months) {
+        YearMonth current = YearMonth.now();
+        LocalDateTime from = current.minusMonths(months - 1).atDay(1).atStartOfDay();
+        LocalDateTime to = current.plusMonths(1).atDay(1).atStartOfDay();
+
+        return databaseClient.sql(MONTHLY_COUNTS_SQL)
+                .bind("from", from)
+                .bind("to", to)
+                .map((row, meta) -> new MonthCount(
+                        row.get("series", String.class),
+                        YearMonth.from(row.get("month", LocalDateTime.class)),
+                        row.get("total", Long.class)))
+                .all()
+                .collect(() -> new HashMap<String, Map<YearMonth, Long>>(),
+                        (map, c) -> map.computeIfAbsent(c.series(), k -> new HashMap<>()).put(c.month(), c.total()))
+                .map(MonthlyCounts::new);
     }
 
-    private Mono<int[]> countsForMonths(int months, YearMonth start, Counter counter) {
-        return Flux.range(0, months)
-                .concatMap(i -> {
-                    YearMonth ym = start.plusMonths(i);
-                    LocalDateTime from = ym.atDay(1).atStartOfDay();
-                    LocalDateTime to = ym.plusMonths(1).atDay(1).atStartOfDay();
-                    return counter.count(from, to).defaultIfEmpty(0L).map(Long::intValue);
-                })
-                .collectList()
-                .map(list -> list.stream().mapToInt(Integer::intValue).toArray());
+    private record MonthCount(String series, YearMonth month, Long total) {}
+
+    private record MonthlyCounts(Map<String, Map<YearMonth, Long>> counts) {
+        long get(String series, YearMonth month) {
+            Long total = counts.getOrDefault(series, Map.of()).get(month);
+            return total != null ? total : 0L;
+        }
+
+        int[] series(String series, YearMonth start, int months) {
+            int[] values = new int[months];
+            for (int i = 0; i < months; i++) {
+                values[i] = (int) get(series, start.plusMonths(i));
+            }
+            return values;
+        }
     }
 
     private String[] monthLabels(int months, YearMonth start) {
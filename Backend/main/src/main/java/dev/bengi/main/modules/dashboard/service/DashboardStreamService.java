@@ -0,0 +1,112 @@
+package dev.bengi.main.modules.dashboard.service;
+
+import dev.bengi.main.common.cache.SingleFlight;
+import dev.bengi.main.modules.dashboard.dto.DashboardDtos.ActivityFeed;
+import dev.bengi.main.modules.dashboard.dto.DashboardDtos.RealTimeUpdate;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shared upstreams for the dashboard event stream.
+ * <p>
+ * Each metric set is computed by one hot publisher, on a fixed interval and whenever the
+ * dashboard counters change (coalesced to at most one refresh per {@code min-interval}), and
+ * multicast to every connected client with the latest value replayed to newcomers. Database
+ * load therefore depends on the interval, not on the number of open dashboards. A publisher
+ * only runs while someone is connected. Slow clients skip intermediate values and always
+ * receive the most recent one.
+ */
+@Service
+@Slf4j
+public class DashboardStreamService {
+
+    public static final String METRICS = "metrics";
+    public static final String ACTIVITY = "activity";
+    public static final String NOTIFICATIONS = "notifications";
+
+    private static final int ACTIVITY_LIMIT = 20;
+    private static final int NOTIFICATION_LIMIT = 10;
+
+    private final Flux<Map<String, Object>> metrics;
+    private final Flux<List<ActivityFeed>> activity;
+    private final Flux<List<RealTimeUpdate>> notifications;
+    private final Map<String, AtomicInteger> connections = Map.of(
+            METRICS, new AtomicInteger(),
+            ACTIVITY, new AtomicInteger(),
+            NOTIFICATIONS, new AtomicInteger());
+
+    public DashboardStreamService(DashboardService dashboardService,
+                                  DashboardCounterService counterService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.dashboard.stream.refresh-interval:PT15S}") Duration refreshInterval,
+                                  @Value("${app.dashboard.stream.min-interval:PT2S}") Duration minInterval,
+                                  @Value("${app.dashboard.stream.idle-grace:PT30S}") Duration idleGrace) {
+        Flux<Long> triggers = Flux.merge(
+                        Flux.interval(Duration.ZERO, refreshInterval),
+                        counterService.changes().map(metric -> 0L))
+                .sample(minInterval);
+
+        this.metrics = shared(triggers, idleGrace, METRICS, dashboardService::getRealTimeMetrics);
+        this.activity = shared(triggers, idleGrace, ACTIVITY,
+                () -> dashboardService.getActivityFeed(ACTIVITY_LIMIT).collectList());
+        this.notifications = shared(triggers, idleGrace, NOTIFICATIONS,
+                () -> dashboardService.getRecentNotifications(null, NOTIFICATION_LIMIT).collectList());
+
+        connections.forEach((stream, count) -> Gauge.builder("dashboard.stream.connections", count, AtomicInteger::get)
+                .description("Clients subscribed to a dashboard event stream")
+                .tag("stream", stream)
+                .register(meterRegistry));
+    }
+
+    public Flux<Map<String, Object>> metrics() {
+        return subscribe(METRICS, metrics);
+    }
+
+    public Flux<List<ActivityFeed>> activity() {
+        return subscribe(ACTIVITY, activity);
+    }
+
+    public Flux<List<RealTimeUpdate>> notifications() {
+        return subscribe(NOTIFICATIONS, notifications);
+    }
+
+    public int connections(String stream) {
+        AtomicInteger count = connections.get(stream);
+        return count != null ? count.get() : 0;
+    }
+
+    private <T> Flux<T> subscribe(String stream, Flux<T> shared) {
+        AtomicInteger count = connections.get(stream);
+        // Per-client coalescing: a client that cannot keep up gets the latest value, not a backlog
+        return shared.onBackpressureLatest()
+                .doOnSubscribe(s -> count.incrementAndGet())
+                .doFinally(signal -> count.decrementAndGet());
+    }
+
+    private static <T> Flux<T> shared(Flux<Long> triggers, Duration idleGrace, String stream,
+                                      Supplier<Mono<T>> query) {
+        return triggers
+                .onBackpressureLatest()
+                .concatMap(tick -> Mono.defer(query)
+                        // Subscribed from the first client's request, but runs for every client
+                        .contextWrite(SingleFlight::detachRequest)
+                        .onErrorResume(e -> {
+                            log.warn("Dashboard stream '{}' refresh failed: {}", stream, e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .distinctUntilChanged()
+                .replay(1)
+                .refCount(1, idleGrace);
+    }
+}
@@ -1,10 +1,13 @@
 package dev.bengi.main.modules.department.service;
 
+import dev.bengi.main.common.cache.ReferenceDataCache;
+import dev.bengi.main.common.pagination.KeysetQuery;
 import dev.bengi.main.common.pagination.PageRequest;
 import dev.bengi.main.common.pagination.PageResponse;
 import dev.bengi.main.common.pagination.PaginationService;
 import dev.bengi.main.exception.ErrorCode;
 import dev.bengi.main.exception.GlobalServiceException;
+import dev.bengi.main.modules.dashboard.service.DashboardCounterService;
 import dev.bengi.main.modules.department.dto.DepartmentMapper;
 import dev.bengi.main.modules.department.dto.DepartmentRequestDto;
 import dev.bengi.main.modules.department.dto.DepartmentResponseDto;
@@ -29,11 +32,16 @@ public class DepartmentService {
     private final DepartmentMapper mapper;
     private final PaginationService paginationService;
     private final UserService userService;
+    private final DashboardCounterService dashboardCounterService;
+    private final ReferenceDataCache referenceDataCache;
 
     @Transactional
     public Mono<DepartmentResponseDto> create(DepartmentRequestDto req) {
         Department entity = mapper.toEntity(req);
         return departmentRepository.save(entity)
+                .flatMap(savedDepartment -> dashboardCounterService
+                        .recordCreated(DashboardCounterService.DEPARTMENTS, savedDepartment.getCreatedAt(), savedDepartment.isActive())
+                        .thenReturn(savedDepartment))
                 .flatMap(savedDepartment -> {
                     // Handle member assignment if provided
                     if (req.memberIds() != null && !req.memberIds().isEmpty()) {
@@ -55,14 +63,19 @@ public class DepartmentService {
                     mapper.updateEntity(e, req);
                     return departmentRepository.save(e);
                 })
+                .flatMap(saved -> referenceDataCache.evictDepartment(id).thenReturn(saved))
                 .map(mapper::toResponse)
                 .doOnSuccess(d -> log.info("Department updated: {}", d));
     }
 
+    @Transactional
     public Mono<Void> delete(Long id) {
-        return departmentRepository.existsById(id)
-                .flatMap(exists -> exists ? departmentRepository.deleteById(id)
-                        : Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND)))
+        return departmentRepository.findById(id)
+                .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND)))
+                .flatMap(dept -> departmentRepository.deleteById(id)
+                        .then(dashboardCounterService.recordDeleted(
+                                DashboardCounterService.DEPARTMENTS, dept.getCreatedAt(), dept.isActive())))
+                .then(referenceDataCache.evictDepartment(id))
                 .doOnSuccess(v -> log.info("Department deleted: {}", id));
     }
 
@@ -75,20 +88,25 @@ public class DepartmentService {
 
     public Flux<DepartmentResponseDto> getAll() {
         return departmentRepository.findAll()
-                .flatMap(dept -> calculateMemberCount(dept))
+                .collectList()
+                .flatMapMany(this::withMemberCounts)
                 .doOnNext(d -> log.info("Department found: {}", d));
     }
 
     public Flux<DepartmentResponseDto> listActive() {
         return departmentRepository.findByActive(true)
-                .flatMap(dept -> calculateMemberCount(dept));
+                .collectList()
+                .flatMapMany(this::withMemberCounts);
     }
 
     public Mono<PageResponse<DepartmentResponseDto>> listActive(PageRequest pageRequest) {
-        return paginationService.paginateInMemory(
-            departmentRepository.findByActive(true)
-                .flatMap(dept -> calculateMemberCount(dept)),
-            pageRequest
+        return paginationService.paginateKeyset(
+            KeysetQuery.of(Department.class, "SELECT * FROM departments WHERE active = :active")
+                .bind("active", true)
+                .sortableBy("name")
+                .nullableSortableBy("created_at", "updated_at"),
+            pageRequest,
+            this::withMemberCounts
         );
     }
 
@@ -99,28 +117,26 @@ public class DepartmentService {
     }
 
     private Mono<DepartmentResponseDto> calculateMemberCount(Department dept) {
-        return userService.getUsersByDepartmentId(dept.getId(), PageRequest.unlimited())
-                .map(pageResponse -> {
-                    long memberCount = pageResponse.getContent().size();
-                    return new DepartmentResponseDto(
+        return withMemberCounts(java.util.List.of(dept)).next();
+    }
+
+    /**
+     * Map a batch of departments to responses with one grouped member-count query.
+     */
+    private Flux<DepartmentResponseDto> withMemberCounts(java.util.List<Department> departments) {
+        if (departments.isEmpty()) {
+            return Flux.empty();
+        }
+        return userService.countMembersByDepartment(departments.stream().map(Department::getId).toList())
+                .flatMapMany(counts -> Flux.fromIterable(departments).map(dept -> new DepartmentResponseDto(
                         dept.getId(),
                         dept.getName(),
                         dept.getDescription(),
                         dept.isActive(),
                         dept.getCreatedAt(),
                         dept.getUpdatedAt(),
-                        memberCount
-                    );
-                })
-                .defaultIfEmpty(new DepartmentResponseDto(
-                    dept.getId(),
-                    dept.getName(),
-                    dept.getDescription(),
-                    dept.isActive(),
-                    dept.getCreatedAt(),
-                    dept.getUpdatedAt(),
-                    0L
-                ));
+                        counts.getOrDefault(dept.getId(), 0L)
+                )));
     }
 
     private Mono<Void> assignMembersToDepartment(Long departmentId, java.util.List<Long> memberIds) {
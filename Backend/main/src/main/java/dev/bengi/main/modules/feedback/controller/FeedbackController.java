@@ -2,10 +2,11 @@ package dev.bengi.main.modules.feedback.controller;
 
 import dev.bengi.main.common.pagination.PageResponse;
 import dev.bengi.main.common.pagination.PaginationService;
-import dev.bengi.main.modules.feedback.repository.FeedbackRepository;
 import dev.bengi.main.modules.feedback.dto.FeedbackCreateRequestDto;
 import dev.bengi.main.modules.feedback.dto.FeedbackUpdateRequestDto;
 import dev.bengi.main.modules.feedback.dto.FeedbackResponseDto;
+import dev.bengi.main.modules.feedback.dto.FeedbackResultsDto;
+import dev.bengi.main.modules.feedback.service.FeedbackResultsService;
 import lombok.RequiredArgsConstructor;
 import dev.bengi.main.modules.feedback.service.FeedbackService;
 import jakarta.validation.Valid;
@@ -24,9 +25,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 @RequiredArgsConstructor
 public class FeedbackController {
 
-    private final FeedbackRepository feedbackRepository;
     private final FeedbackService feedbackService;
     private final PaginationService paginationService;
+    private final FeedbackResultsService feedbackResultsService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -71,9 +72,8 @@ public class FeedbackController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
-        return feedbackRepository.existsById(id)
-                .flatMap(exists -> exists ? feedbackRepository.deleteById(id).then(Mono.just(ResponseEntity.noContent().<Void>build()))
-                        : Mono.just(ResponseEntity.notFound().build()));
+        return feedbackService.deleteFeedback(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
     }
 
     // Relations
@@ -101,6 +101,22 @@ public class FeedbackController {
         return feedbackService.removeTargetUsers(id, userIds).thenReturn(ResponseEntity.noContent().build());
     }
 
+    // Per-question answer distributions from the results rollup
+    @GetMapping("/{id}/results")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<FeedbackResultsDto>> results(@PathVariable Long id) {
+        return feedbackResultsService.getResults(id)
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/{id}/results/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<FeedbackResultsDto>> rebuildResults(@PathVariable Long id) {
+        return feedbackResultsService.rebuild(id)
+                .then(feedbackResultsService.getResults(id))
+                .map(ResponseEntity::ok);
+    }
+
     @PostMapping("/{id}/target-departments")
     @PreAuthorize("hasRole('ADMIN')")
     public Mono<ResponseEntity<Void>> addTargetDepartments(@PathVariable Long id, @RequestBody @NotEmpty java.util.List<Long> departmentIds) {
@@ -0,0 +1,11 @@
+package dev.bengi.main.modules.feedback.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record FeedbackResultsDto(
+        Long feedbackId,
+        long submissionCount,
+        LocalDateTime updatedAt,
+        List<QuestionResultDto> questions
+) {}
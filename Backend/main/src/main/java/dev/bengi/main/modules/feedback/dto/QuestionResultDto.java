@@ -0,0 +1,16 @@
+package dev.bengi.main.modules.feedback.dto;
+
+import java.util.Map;
+
+public record QuestionResultDto(
+        Long questionId,
+        String text,
+        String questionType,
+        long answerCount,
+        long textAnswerCount,
+        long ratingCount,
+        Double ratingAverage,
+        Double ratingMin,
+        Double ratingMax,
+        Map<String, Long> choiceCounts // Defined choices first (zero if unanswered), then other answers
+) {}
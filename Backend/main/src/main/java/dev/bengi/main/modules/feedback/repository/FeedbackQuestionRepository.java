@@ -6,8 +6,8 @@ import reactor.core.publisher.Flux;
 
 public interface FeedbackQuestionRepository extends R2dbcRepository<FeedbackQuestionRepository.FeedbackQuestionRow, Long> {
 
-    @Query("INSERT INTO feedback_questions(feedback_id, question_id) VALUES (:feedbackId, :questionId) ON CONFLICT DO NOTHING")
-    Flux<Void> addQuestion(Long feedbackId, Long questionId);
+    @Query("INSERT INTO feedback_questions(feedback_id, question_id) SELECT :feedbackId, unnest(CAST(:questionIds AS BIGINT[])) ON CONFLICT DO NOTHING")
+    Flux<Void> addQuestions(Long feedbackId, Long[] questionIds);
 
     @Query("DELETE FROM feedback_questions WHERE feedback_id = :feedbackId AND question_id = :questionId")
     Flux<Void> removeQuestion(Long feedbackId, Long questionId);
@@ -0,0 +1,149 @@
+package dev.bengi.main.modules.feedback.service;
+
+import dev.bengi.main.common.cache.ReferenceDataCache;
+import dev.bengi.main.modules.feedback.dto.FeedbackMapper;
+import dev.bengi.main.modules.feedback.dto.FeedbackResponseDto;
+import dev.bengi.main.modules.feedback.model.Feedback;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Batch enrichment stage for feedback listings.
+ * Resolves project names, question titles, target users, target departments and
+ * submission counts for a whole batch of feedbacks with a fixed number of set-based
+ * queries, so the query count does not grow with the page size.
+ */
+@Component
+@RequiredArgsConstructor
+public class FeedbackBatchEnricher {
+
+    private static final String QUESTIONS_SQL = """
+            SELECT fq.feedback_id AS owner_id, fq.question_id AS ref_id, q.text AS ref_name
+            FROM feedback_questions fq
+            LEFT JOIN questions q ON q.id = fq.question_id
+            WHERE fq.feedback_id = ANY(:ids)
+            ORDER BY fq.feedback_id, fq.question_id
+            """;
+
+    private static final String TARGET_USERS_SQL = """
+            SELECT ftu.feedback_id AS owner_id, ftu.user_id AS ref_id, u.username AS ref_name
+            FROM feedback_target_users ftu
+            LEFT JOIN users u ON u.id = ftu.user_id
+            WHERE ftu.feedback_id = ANY(:ids)
+            ORDER BY ftu.feedback_id, ftu.user_id
+            """;
+
+    private static final String TARGET_DEPARTMENTS_SQL = """
+            SELECT ftd.feedback_id AS owner_id, ftd.department_id AS ref_id, d.name AS ref_name
+            FROM feedback_target_departments ftd
+            LEFT JOIN departments d ON d.id = ftd.department_id
+            WHERE ftd.feedback_id = ANY(:ids)
+            ORDER BY ftd.feedback_id, ftd.department_id
+            """;
+
+    private static final String SUBMISSION_COUNTS_SQL = """
+            SELECT feedback_id, COUNT(*) AS submission_count
+            FROM submissions
+            WHERE feedback_id = ANY(:ids)
+            GROUP BY feedback_id
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final FeedbackMapper feedbackMapper;
+    private final ReferenceDataCache referenceDataCache;
+
+    /**
+     * Enrich a batch of feedbacks. {@code canSubmitResolver} receives the whole batch and
+     * returns the ids of the feedbacks the current user may submit to.
+     */
+    public Flux<FeedbackResponseDto> enrich(Flux<Feedback> feedbacks,
+                                            Function<List<Feedback>, Mono<Set<Long>>> canSubmitResolver) {
+        return feedbacks.collectList()
+                .flatMapMany(list -> list.isEmpty() ? Flux.empty() : enrichBatch(list, canSubmitResolver));
+    }
+
+    private Flux<FeedbackResponseDto> enrichBatch(List<Feedback> feedbacks,
+                                                  Function<List<Feedback>, Mono<Set<Long>>> canSubmitResolver) {
+        Long[] feedbackIds = feedbacks.stream().map(Feedback::getId).toArray(Long[]::new);
+        List<Long> projectIds = feedbacks.stream()
+                .map(Feedback::getProjectId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        // Project names are reference data; only ids missing from the cache hit the database
+        Mono<Map<Long, String>> projectNamesMono = referenceDataCache.projectNames(projectIds);
+
+        Mono<Map<Long, Collection<Link>>> questionsMono = loadLinks(QUESTIONS_SQL, feedbackIds);
+        Mono<Map<Long, Collection<Link>>> targetUsersMono = loadLinks(TARGET_USERS_SQL, feedbackIds);
+        Mono<Map<Long, Collection<Link>>> targetDeptsMono = loadLinks(TARGET_DEPARTMENTS_SQL, feedbackIds);
+
+        Mono<Map<Long, Long>> submissionCountsMono = databaseClient.sql(SUBMISSION_COUNTS_SQL)
+                .bind("ids", feedbackIds)
+                .map((row, meta) -> Map.entry(row.get("feedback_id", Long.class), row.get("submission_count", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+
+        Mono<Set<Long>> canSubmitMono = canSubmitResolver.apply(feedbacks).defaultIfEmpty(Set.of());
+
+        return Mono.zip(projectNamesMono, questionsMono, targetUsersMono, targetDeptsMono, submissionCountsMono, canSubmitMono)
+                .flatMapMany(t -> Flux.fromIterable(feedbacks).map(feedback -> {
+                    FeedbackResponseDto basic = feedbackMapper.toBasicResponse(feedback);
+                    Long id = feedback.getId();
+                    Collection<Link> questions = t.getT2().getOrDefault(id, List.of());
+                    Collection<Link> users = t.getT3().getOrDefault(id, List.of());
+                    Collection<Link> depts = t.getT4().getOrDefault(id, List.of());
+
+                    return new FeedbackResponseDto(
+                            basic.id(),
+                            basic.title(),
+                            basic.description(),
+                            basic.projectId(),
+                            t.getT1().getOrDefault(feedback.getProjectId(), "Unknown Project"),
+                            basic.startDate(),
+                            basic.endDate(),
+                            basic.active(),
+                            basic.createdAt(),
+                            basic.updatedAt(),
+                            ids(questions),
+                            names(questions, "Unknown Question"),
+                            ids(users),
+                            names(users, "Unknown User"),
+                            ids(depts),
+                            names(depts, "Unknown Department"),
+                            t.getT5().getOrDefault(id, 0L),
+                            t.getT6().contains(id)
+                    );
+                }));
+    }
+
+    private Mono<Map<Long, Collection<Link>>> loadLinks(String sql, Long[] feedbackIds) {
+        return databaseClient.sql(sql)
+                .bind("ids", feedbackIds)
+                .map((row, meta) -> Map.entry(
+                        row.get("owner_id", Long.class),
+                        new Link(row.get("ref_id", Long.class), row.get("ref_name", String.class))))
+                .all()
+                .collectMultimap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private static List<Long> ids(Collection<Link> links) {
+        return links.stream().map(Link::id).toList();
+    }
+
+    private static List<String> names(Collection<Link> links, String fallback) {
+        return links.stream().map(link -> link.name() != null ? link.name() : fallback).toList();
+    }
+
+    private record Link(Long id, String name) {}
+}
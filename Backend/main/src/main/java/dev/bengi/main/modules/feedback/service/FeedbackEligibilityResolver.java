@@ -0,0 +1,121 @@
+package dev.bengi.main.modules.feedback.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.bengi.main.common.db.TransactionCallbacks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers "which of these feedbacks is this user targeted by" with one query: a user is
+ * eligible when they are a target user, their department is a target department, or they
+ * are a member of the feedback's project.
+ * <p>
+ * Decisions are cached per (username, feedback) for a short TTL. Targeting and membership
+ * changes made through the services call {@link #invalidateAll()}; anything else (e.g. a
+ * user moving department) is picked up when the TTL runs out.
+ */
+@Service
+public class FeedbackEligibilityResolver {
+
+    private static final String ELIGIBLE_FEEDBACKS_SQL = """
+        SELECT f.id
+        FROM feedbacks f
+        JOIN users u ON u.username = :username
+        WHERE f.id = ANY(:ids)
+          AND (EXISTS (SELECT 1 FROM feedback_target_users tu
+                       WHERE tu.feedback_id = f.id AND tu.user_id = u.id)
+               OR EXISTS (SELECT 1 FROM feedback_target_departments td
+                          WHERE td.feedback_id = f.id AND td.department_id = u.department_id)
+               OR EXISTS (SELECT 1 FROM project_members pm
+                          WHERE pm.project_id = f.project_id AND pm.user_id = u.id))
+        """;
+
+    private final DatabaseClient databaseClient;
+    private final Cache<EligibilityKey, Boolean> decisions;
+
+    public FeedbackEligibilityResolver(DatabaseClient databaseClient,
+                                       @Value("${app.feedback.eligibility-cache.ttl:PT30S}") Duration ttl,
+                                       @Value("${app.feedback.eligibility-cache.max-size:100000}") long maxSize) {
+        this.databaseClient = databaseClient;
+        this.decisions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Subset of {@code feedbackIds} the user is targeted by. Only ids missing from the cache
+     * reach the database, in a single query.
+     */
+    public Mono<Set<Long>> resolveEligible(String username, Collection<Long> feedbackIds) {
+        if (username == null || feedbackIds.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+
+        Set<EligibilityKey> keys = new LinkedHashSet<>();
+        for (Long id : feedbackIds) {
+            keys.add(new EligibilityKey(username, id));
+        }
+        Map<EligibilityKey, Boolean> cached = decisions.getAllPresent(keys);
+
+        Set<Long> eligible = new HashSet<>();
+        List<Long> missing = new ArrayList<>();
+        for (EligibilityKey key : keys) {
+            Boolean decision = cached.get(key);
+            if (decision == null) {
+                missing.add(key.feedbackId());
+            } else if (decision) {
+                eligible.add(key.feedbackId());
+            }
+        }
+        if (missing.isEmpty()) {
+            return Mono.just(eligible);
+        }
+
+        return databaseClient.sql(ELIGIBLE_FEEDBACKS_SQL)
+                .bind("username", username)
+                .bind("ids", missing.toArray(Long[]::new))
+                .map((row, meta) -> row.get("id", Long.class))
+                .all()
+                .collect(HashSet<Long>::new, Set::add)
+                .map(found -> {
+                    Map<EligibilityKey, Boolean> loaded = new HashMap<>();
+                    for (Long id : missing) {
+                        loaded.put(new EligibilityKey(username, id), found.contains(id));
+                    }
+                    decisions.putAll(loaded);
+                    eligible.addAll(found);
+                    return eligible;
+                });
+    }
+
+    public Mono<Boolean> isEligible(String username, Long feedbackId) {
+        return resolveEligible(username, List.of(feedbackId))
+                .map(eligible -> eligible.contains(feedbackId));
+    }
+
+    /**
+     * Drop all cached decisions after feedback targeting or project membership changes, once
+     * the current transaction completes; earlier, a concurrent check could re-cache the
+     * pre-commit decision.
+     */
+    public Mono<Void> invalidateAll() {
+        return TransactionCallbacks.afterCompletion(decisions::invalidateAll);
+    }
+
+    private record EligibilityKey(String username, long feedbackId) {
+    }
+}
@@ -0,0 +1,207 @@
+package dev.bengi.main.modules.feedback.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains and reads feedback_inbox: one row per (user, feedback) the user is or was
+ * eligible for, with whether they have submitted and the feedback's window copied in.
+ * <p>
+ * Eligibility follows {@link FeedbackEligibilityResolver}: target user, target department or
+ * member of the feedback's project. Each refresh recomputes one scope in a single statement:
+ * all users of a feedback after its targets, project or window change, or all feedbacks of
+ * some users after their department or project membership changes. The window is compared
+ * with the current time when reading, so nothing runs when a feedback opens or closes. A
+ * periodic reconciliation recomputes everything to pick up changes made outside the services
+ * (e.g. a deleted project or department).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FeedbackInboxService {
+
+    // Upserts each (user, feedback) pair of the preceding "targeted" CTE as eligible;
+    // rows that already match are left alone
+    private static final String UPSERT_TARGETED_CTE = """
+        upserted AS (
+            INSERT INTO feedback_inbox (user_id, feedback_id, eligible, submitted, active, start_date, due_date, updated_at)
+            SELECT t.user_id, f.id, TRUE,
+                   EXISTS (SELECT 1 FROM submissions s WHERE s.feedback_id = f.id AND s.user_id = u.username),
+                   f.active, f.start_date, f.end_date, NOW()
+            FROM targeted t
+            JOIN feedbacks f ON f.id = t.feedback_id
+            JOIN users u ON u.id = t.user_id
+            ON CONFLICT (user_id, feedback_id) DO UPDATE
+            SET eligible = TRUE,
+                submitted = EXCLUDED.submitted,
+                active = EXCLUDED.active,
+                start_date = EXCLUDED.start_date,
+                due_date = EXCLUDED.due_date,
+                updated_at = NOW()
+            WHERE (feedback_inbox.eligible, feedback_inbox.submitted, feedback_inbox.active,
+                   feedback_inbox.start_date, feedback_inbox.due_date)
+                IS DISTINCT FROM (TRUE, EXCLUDED.submitted, EXCLUDED.active, EXCLUDED.start_date, EXCLUDED.due_date)
+        )
+        """;
+
+    private static final String REFRESH_FEEDBACK_SQL = """
+        WITH targeted AS (
+            SELECT tu.user_id, tu.feedback_id FROM feedback_target_users tu
+            WHERE tu.feedback_id = :feedbackId
+            UNION
+            SELECT u.id, td.feedback_id FROM feedback_target_departments td
+            JOIN users u ON u.department_id = td.department_id
+            WHERE td.feedback_id = :feedbackId
+            UNION
+            SELECT pm.user_id, f.id FROM feedbacks f
+            JOIN project_members pm ON pm.project_id = f.project_id
+            WHERE f.id = :feedbackId
+        ),
+        """ + UPSERT_TARGETED_CTE + """
+        UPDATE feedback_inbox i
+        SET eligible = FALSE, updated_at = NOW()
+        WHERE i.feedback_id = :feedbackId AND i.eligible
+          AND NOT EXISTS (SELECT 1 FROM targeted t WHERE t.user_id = i.user_id)
+        """;
+
+    private static final String REFRESH_USERS_SQL = """
+        WITH targeted AS (
+            SELECT tu.user_id, tu.feedback_id FROM feedback_target_users tu
+            WHERE tu.user_id = ANY(:userIds)
+            UNION
+            SELECT u.id, td.feedback_id FROM users u
+            JOIN feedback_target_departments td ON td.department_id = u.department_id
+            WHERE u.id = ANY(:userIds)
+            UNION
+            SELECT pm.user_id, f.id FROM project_members pm
+            JOIN feedbacks f ON f.project_id = pm.project_id
+            WHERE pm.user_id = ANY(:userIds)
+        ),
+        """ + UPSERT_TARGETED_CTE + """
+        UPDATE feedback_inbox i
+        SET eligible = FALSE, updated_at = NOW()
+        WHERE i.user_id = ANY(:userIds) AND i.eligible
+          AND NOT EXISTS (SELECT 1 FROM targeted t WHERE t.user_id = i.user_id AND t.feedback_id = i.feedback_id)
+        """;
+
+    private static final String RECONCILE_SQL = """
+        WITH targeted AS (
+            SELECT tu.user_id, tu.feedback_id FROM feedback_target_users tu
+            UNION
+            SELECT u.id, td.feedback_id FROM feedback_target_departments td
+            JOIN users u ON u.department_id = td.department_id
+            UNION
+            SELECT pm.user_id, f.id FROM feedbacks f
+            JOIN project_members pm ON pm.project_id = f.project_id
+        ),
+        """ + UPSERT_TARGETED_CTE + """
+        UPDATE feedback_inbox i
+        SET eligible = FALSE, updated_at = NOW()
+        WHERE i.eligible
+          AND NOT EXISTS (SELECT 1 FROM targeted t WHERE t.user_id = i.user_id AND t.feedback_id = i.feedback_id)
+        """;
+
+    private static final String MARK_SUBMITTED_SQL = """
+        UPDATE feedback_inbox i
+        SET submitted = TRUE, updated_at = NOW()
+        FROM users u
+        WHERE u.username = :username AND i.user_id = u.id AND i.feedback_id = :feedbackId AND NOT i.submitted
+        """;
+
+    private static final String SUMMARY_SQL = """
+        SELECT COUNT(*) AS available, COUNT(*) FILTER (WHERE NOT submitted) AS pending
+        FROM feedback_inbox
+        WHERE user_id = :userId AND eligible AND active
+          AND (start_date IS NULL OR start_date <= :now)
+          AND (due_date IS NULL OR due_date >= :now)
+        """;
+
+    private static final String PENDING_SQL = """
+        SELECT i.feedback_id
+        FROM feedback_inbox i
+        JOIN users u ON u.id = i.user_id
+        WHERE u.username = :username AND i.eligible AND i.active AND NOT i.submitted
+          AND (i.start_date IS NULL OR i.start_date <= :now)
+          AND (i.due_date IS NULL OR i.due_date >= :now)
+        ORDER BY i.due_date NULLS LAST, i.feedback_id
+        LIMIT :limit
+        """;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Open feedbacks the user is eligible for, and how many of those they have not submitted.
+     */
+    public record InboxSummary(long available, long pending) {}
+
+    public Mono<InboxSummary> summary(Long userId) {
+        return databaseClient.sql(SUMMARY_SQL)
+                .bind("userId", userId)
+                .bind("now", LocalDateTime.now())
+                .map((row, meta) -> new InboxSummary(
+                        row.get("available", Long.class),
+                        row.get("pending", Long.class)))
+                .one()
+                .defaultIfEmpty(new InboxSummary(0, 0));
+    }
+
+    /**
+     * Ids of open, eligible, not yet submitted feedbacks, nearest deadline first.
+     */
+    public Flux<Long> pendingFeedbackIds(String username, int limit) {
+        return databaseClient.sql(PENDING_SQL)
+                .bind("username", username)
+                .bind("now", LocalDateTime.now())
+                .bind("limit", limit)
+                .map((row, meta) -> row.get("feedback_id", Long.class))
+                .all();
+    }
+
+    public Mono<Void> refreshFeedback(Long feedbackId) {
+        return databaseClient.sql(REFRESH_FEEDBACK_SQL)
+                .bind("feedbackId", feedbackId)
+                .then();
+    }
+
+    public Mono<Void> refreshUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql(REFRESH_USERS_SQL)
+                .bind("userIds", userIds.toArray(Long[]::new))
+                .then();
+    }
+
+    public Mono<Void> refreshUser(Long userId) {
+        return refreshUsers(List.of(userId));
+    }
+
+    public Mono<Void> markSubmitted(String username, Long feedbackId) {
+        return databaseClient.sql(MARK_SUBMITTED_SQL)
+                .bind("username", username)
+                .bind("feedbackId", feedbackId)
+                .then();
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.feedback.inbox.reconcile-initial-delay:PT2M}",
+            fixedDelayString = "${app.feedback.inbox.reconcile-interval:PT1H}")
+    public Mono<Void> reconcile() {
+        return databaseClient.sql(RECONCILE_SQL)
+                .then()
+                .doOnSuccess(v -> log.debug("Feedback inbox reconciled"))
+                .onErrorResume(e -> {
+                    log.warn("Feedback inbox reconciliation failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
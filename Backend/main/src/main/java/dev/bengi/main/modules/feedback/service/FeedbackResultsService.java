@@ -0,0 +1,392 @@
+package dev.bengi.main.modules.feedback.service;
+
+import dev.bengi.main.exception.ErrorCode;
+import dev.bengi.main.exception.GlobalServiceException;
+import dev.bengi.main.modules.feedback.dto.FeedbackResultsDto;
+import dev.bengi.main.modules.feedback.dto.QuestionResultDto;
+import dev.bengi.main.modules.question.enums.QuestionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the per-feedback results rollup: submission count, per-question answer counts,
+ * rating sum/count/min/max and an answer histogram for choice, rating and boolean questions.
+ * <p>
+ * Submits fold their responses in with one additive upsert inside the submit transaction, so
+ * reading results touches only the rollup rows and does not depend on the number of
+ * submissions. {@link #rebuild(Long)} recomputes a feedback from submission_responses in one
+ * streaming pass. A feedback is rebuilt once on its first read, which also picks up
+ * submissions made before the rollup existed.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FeedbackResultsService {
+
+    static final int FETCH_SIZE = 1000;
+
+    private static final String QUESTION_TYPES_SQL = "SELECT id, question_type FROM questions WHERE id = ANY(:ids)";
+
+    // Summary, per-question aggregates and histogram are adjusted in one round trip. Rows are
+    // written in key order so concurrent submits to the same feedback lock them in the same order.
+    private static final String APPLY_SQL = """
+        WITH summary AS (
+            INSERT INTO feedback_results (feedback_id, submission_count, updated_at)
+            VALUES (:feedbackId, :submissions, NOW())
+            ON CONFLICT (feedback_id) DO UPDATE
+            SET submission_count = feedback_results.submission_count + EXCLUDED.submission_count,
+                updated_at = NOW()
+        ), question_results AS (
+            INSERT INTO feedback_question_results AS r
+                (feedback_id, question_id, answer_count, text_count, rating_count, rating_sum, rating_min, rating_max)
+            SELECT :feedbackId, t.question_id, t.answer_count, t.text_count,
+                   t.rating_count, t.rating_sum, t.rating_min, t.rating_max
+            FROM unnest(CAST(:questionIds AS BIGINT[]), CAST(:answerCounts AS BIGINT[]),
+                        CAST(:textCounts AS BIGINT[]), CAST(:ratingCounts AS BIGINT[]),
+                        CAST(:ratingSums AS DOUBLE PRECISION[]), CAST(:ratingMins AS DOUBLE PRECISION[]),
+                        CAST(:ratingMaxs AS DOUBLE PRECISION[]))
+                AS t(question_id, answer_count, text_count, rating_count, rating_sum, rating_min, rating_max)
+            ORDER BY t.question_id
+            ON CONFLICT (feedback_id, question_id) DO UPDATE
+            SET answer_count = r.answer_count + EXCLUDED.answer_count,
+                text_count = r.text_count + EXCLUDED.text_count,
+                rating_count = r.rating_count + EXCLUDED.rating_count,
+                rating_sum = r.rating_sum + EXCLUDED.rating_sum,
+                rating_min = LEAST(r.rating_min, EXCLUDED.rating_min),
+                rating_max = GREATEST(r.rating_max, EXCLUDED.rating_max)
+        )
+        INSERT INTO feedback_choice_counts AS c (feedback_id, question_id, choice, answer_count)
+        SELECT :feedbackId, t.question_id, t.choice, t.answer_count
+        FROM unnest(CAST(:choiceQuestionIds AS BIGINT[]), CAST(:choices AS TEXT[]), CAST(:choiceCounts AS BIGINT[]))
+            AS t(question_id, choice, answer_count)
+        ORDER BY t.question_id, t.choice
+        ON CONFLICT (feedback_id, question_id, choice) DO UPDATE
+        SET answer_count = c.answer_count + EXCLUDED.answer_count
+        """;
+
+    // FOR UPDATE conflicts with the key-share lock every submission insert takes on its feedback
+    // row, so a rebuild waits for in-flight submits and holds new ones until it commits.
+    private static final String LOCK_FEEDBACK_SQL = "SELECT id FROM feedbacks WHERE id = :feedbackId FOR UPDATE";
+
+    private static final String RESPONSES_SQL = """
+        SELECT r.question_id, q.question_type, r.response
+        FROM submissions s
+        JOIN submission_responses r ON r.submission_id = s.id
+        JOIN questions q ON q.id = r.question_id
+        WHERE s.feedback_id = :feedbackId
+        """;
+
+    // Rows only ever touched by incremental submits may be missing older submissions
+    private static final String SUMMARY_SQL = """
+        SELECT submission_count, updated_at
+        FROM feedback_results
+        WHERE feedback_id = :feedbackId AND rebuilt_at IS NOT NULL
+        """;
+
+    private static final String QUESTION_RESULTS_SQL = """
+        SELECT q.id, q.text, q.question_type,
+               r.answer_count, r.text_count, r.rating_count, r.rating_sum, r.rating_min, r.rating_max
+        FROM feedback_questions fq
+        JOIN questions q ON q.id = fq.question_id
+        LEFT JOIN feedback_question_results r ON r.feedback_id = fq.feedback_id AND r.question_id = fq.question_id
+        WHERE fq.feedback_id = :feedbackId
+        ORDER BY q.id
+        """;
+
+    private static final String DEFINED_CHOICES_SQL = """
+        SELECT qc.question_id, qc.choice
+        FROM feedback_questions fq
+        JOIN question_choices qc ON qc.question_id = fq.question_id
+        WHERE fq.feedback_id = :feedbackId
+        ORDER BY qc.question_id, qc.id
+        """;
+
+    private static final String CHOICE_COUNTS_SQL =
+            "SELECT question_id, choice, answer_count FROM feedback_choice_counts WHERE feedback_id = :feedbackId ORDER BY question_id, choice";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Fold one submission into the rollup. Callers run this inside the submit transaction.
+     */
+    public Mono<Void> recordSubmission(Long feedbackId, Map<Long, String> responses) {
+        if (responses == null || responses.isEmpty()) {
+            return apply(feedbackId, 1, new ResultsTally());
+        }
+        return databaseClient.sql(QUESTION_TYPES_SQL)
+                .bind("ids", responses.keySet().toArray(Long[]::new))
+                .map((row, meta) -> Map.entry(row.get("id", Long.class), row.get("question_type", String.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMap(types -> {
+                    ResultsTally tally = new ResultsTally();
+                    responses.forEach((questionId, response) -> {
+                        String type = types.get(questionId);
+                        if (type != null) {
+                            tally.add(questionId, type, response);
+                        }
+                    });
+                    return apply(feedbackId, 1, tally);
+                });
+    }
+
+    /**
+     * Recompute a feedback's rollup from its stored responses in a single streaming pass.
+     */
+    public Mono<Void> rebuild(Long feedbackId) {
+        return databaseClient.sql(LOCK_FEEDBACK_SQL)
+                .bind("feedbackId", feedbackId)
+                .map((row, meta) -> row.get("id", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "Feedback not found")))
+                .thenMany(Flux.concat(
+                        delete("DELETE FROM feedback_choice_counts WHERE feedback_id = :feedbackId", feedbackId),
+                        delete("DELETE FROM feedback_question_results WHERE feedback_id = :feedbackId", feedbackId),
+                        delete("DELETE FROM feedback_results WHERE feedback_id = :feedbackId", feedbackId)))
+                .then(databaseClient.sql("SELECT COUNT(*) AS total FROM submissions WHERE feedback_id = :feedbackId")
+                        .bind("feedbackId", feedbackId)
+                        .map((row, meta) -> row.get("total", Long.class))
+                        .one())
+                .flatMap(submissions -> databaseClient.sql(RESPONSES_SQL)
+                        .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                        .bind("feedbackId", feedbackId)
+                        .map((row, meta) -> new ResponseRow(
+                                row.get("question_id", Long.class),
+                                row.get("question_type", String.class),
+                                row.get("response", String.class)))
+                        .all()
+                        .collect(ResultsTally::new, (tally, r) -> tally.add(r.questionId(), r.questionType(), r.response()))
+                        .flatMap(tally -> apply(feedbackId, submissions, tally)))
+                .then(databaseClient.sql("UPDATE feedback_results SET rebuilt_at = NOW() WHERE feedback_id = :feedbackId")
+                        .bind("feedbackId", feedbackId)
+                        .then())
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(v -> log.debug("Rebuilt results for feedback {}", feedbackId));
+    }
+
+    public Mono<FeedbackResultsDto> getResults(Long feedbackId) {
+        return readSummary(feedbackId)
+                .switchIfEmpty(Mono.defer(() -> rebuild(feedbackId).then(readSummary(feedbackId))))
+                .flatMap(summary -> Mono.zip(
+                                databaseClient.sql(QUESTION_RESULTS_SQL)
+                                        .bind("feedbackId", feedbackId)
+                                        .map((row, meta) -> new QuestionRow(
+                                                row.get("id", Long.class),
+                                                row.get("text", String.class),
+                                                row.get("question_type", String.class),
+                                                row.get("answer_count", Long.class),
+                                                row.get("text_count", Long.class),
+                                                row.get("rating_count", Long.class),
+                                                row.get("rating_sum", Double.class),
+                                                row.get("rating_min", Double.class),
+                                                row.get("rating_max", Double.class)))
+                                        .all()
+                                        .collectList(),
+                                readHistograms(feedbackId))
+                        .map(t -> new FeedbackResultsDto(
+                                feedbackId,
+                                summary.submissionCount(),
+                                summary.updatedAt(),
+                                t.getT1().stream()
+                                        .map(q -> toDto(q, t.getT2().getOrDefault(q.id(), Map.of())))
+                                        .toList())));
+    }
+
+    private Mono<Void> apply(Long feedbackId, long submissions, ResultsTally tally) {
+        ResultsTally.Columns c = tally.columns();
+        return databaseClient.sql(APPLY_SQL)
+                .bind("feedbackId", feedbackId)
+                .bind("submissions", submissions)
+                .bind("questionIds", c.questionIds)
+                .bind("answerCounts", c.answerCounts)
+                .bind("textCounts", c.textCounts)
+                .bind("ratingCounts", c.ratingCounts)
+                .bind("ratingSums", c.ratingSums)
+                .bind("ratingMins", c.ratingMins)
+                .bind("ratingMaxs", c.ratingMaxs)
+                .bind("choiceQuestionIds", c.choiceQuestionIds)
+                .bind("choices", c.choices)
+                .bind("choiceCounts", c.choiceCounts)
+                .then();
+    }
+
+    private Mono<Void> delete(String sql, Long feedbackId) {
+        return databaseClient.sql(sql).bind("feedbackId", feedbackId).then();
+    }
+
+    private Mono<Summary> readSummary(Long feedbackId) {
+        return databaseClient.sql(SUMMARY_SQL)
+                .bind("feedbackId", feedbackId)
+                .map((row, meta) -> new Summary(
+                        row.get("submission_count", Long.class),
+                        row.get("updated_at", LocalDateTime.class)))
+                .one();
+    }
+
+    private Mono<Map<Long, Map<String, Long>>> readHistograms(Long feedbackId) {
+        Mono<Map<Long, Map<String, Long>>> defined = databaseClient.sql(DEFINED_CHOICES_SQL)
+                .bind("feedbackId", feedbackId)
+                .map((row, meta) -> Map.entry(row.get("question_id", Long.class), row.get("choice", String.class)))
+                .all()
+                .collect(LinkedHashMap::new, (histograms, e) ->
+                        histograms.computeIfAbsent(e.getKey(), k -> new LinkedHashMap<>()).put(e.getValue(), 0L));
+
+        return defined.flatMap(histograms -> databaseClient.sql(CHOICE_COUNTS_SQL)
+                .bind("feedbackId", feedbackId)
+                .map((row, meta) -> new ChoiceRow(
+                        row.get("question_id", Long.class),
+                        row.get("choice", String.class),
+                        row.get("answer_count", Long.class)))
+                .all()
+                .doOnNext(r -> histograms.computeIfAbsent(r.questionId(), k -> new LinkedHashMap<>())
+                        .put(r.choice(), r.count()))
+                .then(Mono.just(histograms)));
+    }
+
+    private static QuestionResultDto toDto(QuestionRow q, Map<String, Long> histogram) {
+        long ratingCount = q.ratingCount() != null ? q.ratingCount() : 0L;
+        Double average = ratingCount > 0 && q.ratingSum() != null ? q.ratingSum() / ratingCount : null;
+        return new QuestionResultDto(
+                q.id(),
+                q.text(),
+                q.questionType(),
+                q.answerCount() != null ? q.answerCount() : 0L,
+                q.textCount() != null ? q.textCount() : 0L,
+                ratingCount,
+                average,
+                q.ratingMin(),
+                q.ratingMax(),
+                histogram);
+    }
+
+    /**
+     * Aggregates for a batch of responses, keyed and iterated in question order.
+     */
+    static final class ResultsTally {
+
+        private final TreeMap<Long, QuestionTally> questions = new TreeMap<>();
+
+        void add(Long questionId, String questionType, String response) {
+            if (questionId == null || response == null || response.isBlank()) {
+                return;
+            }
+            QuestionType type;
+            try {
+                type = QuestionType.valueOf(questionType);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                type = QuestionType.TEXT;
+            }
+            String answer = response.trim();
+            QuestionTally q = questions.computeIfAbsent(questionId, k -> new QuestionTally());
+            q.answers++;
+            switch (type) {
+                case TEXT -> q.texts++;
+                case RATING -> {
+                    q.count(answer);
+                    try {
+                        double value = Double.parseDouble(answer);
+                        if (Double.isFinite(value)) {
+                            q.rate(value);
+                        }
+                    } catch (NumberFormatException e) {
+                        // Counted as an answer and in the histogram, but not in the rating stats
+                    }
+                }
+                case BOOLEAN -> q.count(answer.toLowerCase());
+                case MULTIPLE_CHOICE -> q.count(answer);
+            }
+        }
+
+        Columns columns() {
+            int size = questions.size();
+            Columns c = new Columns(size, questions.values().stream().mapToInt(q -> q.histogram.size()).sum());
+            int i = 0;
+            int j = 0;
+            for (Map.Entry<Long, QuestionTally> e : questions.entrySet()) {
+                QuestionTally q = e.getValue();
+                c.questionIds[i] = e.getKey();
+                c.answerCounts[i] = q.answers;
+                c.textCounts[i] = q.texts;
+                c.ratingCounts[i] = q.ratings;
+                c.ratingSums[i] = q.ratingSum;
+                c.ratingMins[i] = q.ratingMin;
+                c.ratingMaxs[i] = q.ratingMax;
+                i++;
+                for (Map.Entry<String, Long> h : q.histogram.entrySet()) {
+                    c.choiceQuestionIds[j] = e.getKey();
+                    c.choices[j] = h.getKey();
+                    c.choiceCounts[j] = h.getValue();
+                    j++;
+                }
+            }
+            return c;
+        }
+
+        static final class Columns {
+            final Long[] questionIds;
+            final Long[] answerCounts;
+            final Long[] textCounts;
+            final Long[] ratingCounts;
+            final Double[] ratingSums;
+            final Double[] ratingMins;
+            final Double[] ratingMaxs;
+            final Long[] choiceQuestionIds;
+            final String[] choices;
+            final Long[] choiceCounts;
+
+            Columns(int questions, int choices) {
+                this.questionIds = new Long[questions];
+                this.answerCounts = new Long[questions];
+                this.textCounts = new Long[questions];
+                this.ratingCounts = new Long[questions];
+                this.ratingSums = new Double[questions];
+                this.ratingMins = new Double[questions];
+                this.ratingMaxs = new Double[questions];
+                this.choiceQuestionIds = new Long[choices];
+                this.choices = new String[choices];
+                this.choiceCounts = new Long[choices];
+            }
+        }
+
+        private static final class QuestionTally {
+            long answers;
+            long texts;
+            long ratings;
+            double ratingSum;
+            Double ratingMin;
+            Double ratingMax;
+            final TreeMap<String, Long> histogram = new TreeMap<>();
+
+            void count(String answer) {
+                histogram.merge(answer, 1L, Long::sum);
+            }
+
+            void rate(double value) {
+                ratings++;
+                ratingSum += value;
+                ratingMin = ratingMin == null ? value : Math.min(ratingMin, value);
+                ratingMax = ratingMax == null ? value : Math.max(ratingMax, value);
+            }
+        }
+    }
+
+    private record ResponseRow(Long questionId, String questionType, String response) {}
+
+    private record QuestionRow(Long id, String text, String questionType, Long answerCount, Long textCount,
+                               Long ratingCount, Double ratingSum, Double ratingMin, Double ratingMax) {}
+
+    private record ChoiceRow(Long questionId, String choice, Long count) {}
+
+    private record Summary(long submissionCount, LocalDateTime updatedAt) {}
+}
@@ -1,10 +1,17 @@
 package dev.bengi.main.modules.feedback.service;
 
+import dev.bengi.main.common.cache.ReferenceDataCache;
+import dev.bengi.main.common.cache.RequestMemo;
+import dev.bengi.main.common.cache.SingleFlight;
+import dev.bengi.main.common.pagination.KeysetQuery;
 import dev.bengi.main.common.pagination.PageRequest;
 import dev.bengi.main.common.pagination.PageResponse;
 import dev.bengi.main.common.pagination.PaginationService;
+import dev.bengi.main.common.search.SearchTarget;
 import dev.bengi.main.exception.ErrorCode;
 import dev.bengi.main.exception.GlobalServiceException;
+import dev.bengi.main.modules.dashboard.service.ActivityEventService;
+import dev.bengi.main.modules.dashboard.service.DashboardCounterService;
 import dev.bengi.main.modules.feedback.model.Feedback;
 import dev.bengi.main.modules.feedback.repository.FeedbackRepository;
 import dev.bengi.main.modules.feedback.repository.FeedbackQuestionRepository;
@@ -15,10 +22,8 @@ import dev.bengi.main.modules.feedback.dto.FeedbackResponseDto;
 import dev.bengi.main.modules.feedback.dto.FeedbackMapper;
 import dev.bengi.main.modules.projects.repository.ProjectMemberRepository;
 import dev.bengi.main.modules.projects.repository.ProjectRepository;
-import dev.bengi.main.modules.question.repository.QuestionRepository;
 import dev.bengi.main.modules.user.repository.UserRepository;
 import dev.bengi.main.modules.user.dto.UserResponseDto;
-import dev.bengi.main.modules.department.repository.DepartmentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
@@ -44,20 +49,85 @@ public class FeedbackService {
     private final PaginationService paginationService;
     private final ProjectRepository projectRepository;
     private final ProjectMemberRepository projectMemberRepository;
-    private final QuestionRepository questionRepository;
     private final UserRepository userRepository;
-    private final DepartmentRepository departmentRepository;
     private final DatabaseClient databaseClient;
+    private final FeedbackBatchEnricher feedbackBatchEnricher;
+    private final DashboardCounterService dashboardCounterService;
+    private final FeedbackEligibilityResolver feedbackEligibilityResolver;
+    private final FeedbackInboxService feedbackInboxService;
+    private final ReferenceDataCache referenceDataCache;
+    private final SingleFlight singleFlight;
+    private final RequestMemo requestMemo;
+    private final ActivityEventService activityEventService;
+
+    private static final java.time.Duration STATISTICS_TTL = java.time.Duration.ofSeconds(5);
+    private static final int PENDING_LIMIT = 50;
+
+    // Statement texts are constants so the plan regression suite can EXPLAIN them
+    private static final String CASCADED_SUBMISSION_DAYS_SQL = """
+        SELECT CAST(submitted_at AS DATE) AS day, COUNT(*) AS total
+        FROM submissions
+        WHERE feedback_id = :feedbackId
+        GROUP BY CAST(submitted_at AS DATE)
+        """;
+
+    // Feedbacks targeted at the user directly or through their department; the user is
+    // identified by username or, for numeric identifiers, by id
+    private static final String FEEDBACKS_BY_USER_SQL = """
+        SELECT f.* FROM feedbacks f
+        WHERE f.id IN (
+            SELECT ftu.feedback_id FROM feedback_target_users ftu
+            JOIN users u ON u.id = ftu.user_id
+            WHERE u.username = :username OR u.id = :userId
+            UNION
+            SELECT ftd.feedback_id FROM feedback_target_departments ftd
+            JOIN users u ON u.department_id = ftd.department_id
+            WHERE u.username = :username OR u.id = :userId)
+        ORDER BY f.created_at DESC
+        """;
+
+    private static final String FEEDBACKS_BY_DEPARTMENT_SQL = """
+        SELECT DISTINCT f.* FROM feedbacks f
+        JOIN feedback_target_departments ftd ON f.id = ftd.feedback_id
+        WHERE ftd.department_id = :departmentId
+        ORDER BY f.created_at DESC
+        """;
+
+    private static final String DEPARTMENT_WIDE_FEEDBACKS_SQL = """
+        SELECT DISTINCT f.* FROM feedbacks f
+        JOIN projects p ON f.project_id = p.id
+        WHERE p.department_id = :departmentId
+        ORDER BY f.created_at DESC
+        """;
+
+    private static final String DUPLICATE_SUBMISSION_SQL =
+            "SELECT COUNT(*) FROM submissions WHERE feedback_id = :feedbackId AND user_id = :username";
+
+    private static final String FEEDBACKS_COMPLETED_SINCE_SQL = """
+        SELECT COUNT(DISTINCT s.feedback_id)
+        FROM submissions s
+        WHERE s.user_id = :username AND s.submitted_at >= :since
+        """;
+
+    private static final String AVERAGE_RATING_GIVEN_SQL = """
+        SELECT AVG(s.admin_rating)
+        FROM submissions s
+        WHERE s.user_id = :username AND s.submitted_at >= :since AND s.admin_rating IS NOT NULL
+        """;
 
     public Mono<Feedback> get(Long id) {
-        return feedbackRepository.findById(id)
+        return findFeedback(id)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND)));
     }
 
+    // Read paths share one lookup per request; paths that modify the entity load their own copy
+    private Mono<Feedback> findFeedback(Long id) {
+        return requestMemo.memoize("feedback.byId", id, () -> feedbackRepository.findById(id));
+    }
+
     @Transactional
     public Mono<Void> addQuestions(Long feedbackId, java.util.List<Long> questionIds) {
-        return Flux.fromIterable(questionIds)
-                .flatMap(qid -> feedbackQuestionRepository.addQuestion(feedbackId, qid))
+        return feedbackQuestionRepository.addQuestions(feedbackId, questionIds.toArray(Long[]::new))
                 .then();
     }
 
@@ -70,44 +140,50 @@ public class FeedbackService {
 
     @Transactional
     public Mono<Void> addTargetUsers(Long feedbackId, java.util.List<Long> userIds) {
-        return Flux.fromIterable(userIds)
-                .flatMap(uid -> feedbackTargetRepository.addTargetUser(feedbackId, uid))
-                .then();
+        return feedbackTargetRepository.addTargetUsers(feedbackId, userIds.toArray(Long[]::new))
+                .then(feedbackInboxService.refreshFeedback(feedbackId))
+                .then(feedbackEligibilityResolver.invalidateAll());
     }
 
     @Transactional
     public Mono<Void> removeTargetUsers(Long feedbackId, java.util.List<Long> userIds) {
         return Flux.fromIterable(userIds)
                 .flatMap(uid -> feedbackTargetRepository.removeTargetUser(feedbackId, uid))
-                .then();
+                .then(feedbackInboxService.refreshFeedback(feedbackId))
+                .then(feedbackEligibilityResolver.invalidateAll());
     }
 
     @Transactional
     public Mono<Void> addTargetDepartments(Long feedbackId, java.util.List<Long> departmentIds) {
-        return Flux.fromIterable(departmentIds)
-                .flatMap(did -> feedbackTargetRepository.addTargetDepartment(feedbackId, did))
-                .then();
+        return feedbackTargetRepository.addTargetDepartments(feedbackId, departmentIds.toArray(Long[]::new))
+                .then(feedbackInboxService.refreshFeedback(feedbackId))
+                .then(feedbackEligibilityResolver.invalidateAll());
     }
 
     @Transactional
     public Mono<Void> removeTargetDepartments(Long feedbackId, java.util.List<Long> departmentIds) {
         return Flux.fromIterable(departmentIds)
                 .flatMap(did -> feedbackTargetRepository.removeTargetDepartment(feedbackId, did))
-                .then();
+                .then(feedbackInboxService.refreshFeedback(feedbackId))
+                .then(feedbackEligibilityResolver.invalidateAll());
     }
 
     // Pagination methods
 
     public Mono<PageResponse<FeedbackResponseDto>> findAllFeedbacks(PageRequest pageRequest, String username) {
-        return paginationService.paginateInMemory(
-            feedbackRepository.findAll().flatMap(feedback -> enrichFeedbackWithDetails(feedback, username)),
-            pageRequest
+        return paginationService.paginateKeyset(
+            KeysetQuery.of(Feedback.class, "SELECT * FROM feedbacks")
+                .searchable(SearchTarget.FEEDBACKS)
+                .sortableBy("title")
+                .nullableSortableBy("created_at", "updated_at", "start_date", "end_date"),
+            pageRequest,
+            page -> enrichFeedbacks(Flux.fromIterable(page), username)
         );
     }
 
     public Mono<PageResponse<FeedbackResponseDto>> findAvailableFeedbacks(PageRequest pageRequest, String username) {
         return paginationService.paginateInMemory(
-            feedbackRepository.findActiveAndAvailable().flatMap(feedback -> enrichFeedbackWithDetails(feedback, username)),
+            enrichFeedbacks(feedbackRepository.findActiveAndAvailable(), username),
             pageRequest
         );
     }
@@ -123,7 +199,7 @@ public class FeedbackService {
     }
 
     public Mono<Void> validateFeedbackSubmissionTiming(Long feedbackId) {
-        return feedbackRepository.findById(feedbackId)
+        return findFeedback(feedbackId)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "Feedback not found")))
                 .flatMap(feedback -> {
                     LocalDateTime now = LocalDateTime.now();
@@ -174,6 +250,11 @@ public class FeedbackService {
                     Feedback feedback = feedbackMapper.toEntity(request);
                     return feedbackRepository.save(feedback);
                 })
+                .flatMap(savedFeedback -> dashboardCounterService
+                        .recordCreated(DashboardCounterService.FEEDBACKS, savedFeedback.getCreatedAt(), savedFeedback.isActive())
+                        .then(activityEventService.record("created feedback", ActivityEventService.FEEDBACK,
+                                savedFeedback.getId(), savedFeedback.getTitle(), savedFeedback.getProjectId()))
+                        .thenReturn(savedFeedback))
                 .flatMap(savedFeedback -> {
                     // Add questions if provided
                     Mono<Void> questionsAction = Mono.empty();
@@ -193,7 +274,9 @@ public class FeedbackService {
                         deptAction = addTargetDepartments(savedFeedback.getId(), request.targetDepartmentIds());
                     }
                     
+                    // Project members are eligible even without explicit targets
                     return Mono.when(questionsAction, usersAction, deptAction)
+                            .then(feedbackInboxService.refreshFeedback(savedFeedback.getId()))
                             .thenReturn(savedFeedback);
                 })
                 .flatMap(feedback -> enrichFeedbackWithDetails(feedback, null));
@@ -204,28 +287,58 @@ public class FeedbackService {
         return feedbackRepository.findById(id)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "Feedback not found")))
                 .flatMap(existing -> {
+                    boolean wasActive = existing.isActive();
                     // Use mapper to update entity
                     feedbackMapper.updateEntity(existing, request);
-                    return feedbackRepository.save(existing);
+                    return feedbackRepository.save(existing)
+                            .flatMap(saved -> dashboardCounterService
+                                    .recordActiveChanged(DashboardCounterService.FEEDBACKS, wasActive, saved.isActive())
+                                    .then(activityEventService.record("updated feedback", ActivityEventService.FEEDBACK,
+                                            saved.getId(), saved.getTitle(), saved.getProjectId()))
+                                    .then(feedbackInboxService.refreshFeedback(saved.getId()))
+                                    .thenReturn(saved))
+                            // The project may have changed, and with it the member-based eligibility
+                            .flatMap(saved -> feedbackEligibilityResolver.invalidateAll().thenReturn(saved));
                 })
                 .flatMap(feedback -> enrichFeedbackWithDetails(feedback, null));
     }
 
-    public Mono<FeedbackResponseDto> getFeedbackById(Long id, String username) {
+    @Transactional
+    public Mono<Void> deleteFeedback(Long id) {
         return feedbackRepository.findById(id)
+                .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "Feedback not found")))
+                .flatMap(feedback -> {
+                    // Submissions are removed by ON DELETE CASCADE; take their day buckets down with them
+                    Mono<Void> cascadedSubmissions = databaseClient.sql(CASCADED_SUBMISSION_DAYS_SQL)
+                            .bind("feedbackId", id)
+                            .map((row, meta) -> Map.entry(
+                                    java.util.Optional.ofNullable(row.get("day", java.time.LocalDate.class))
+                                            .orElseGet(java.time.LocalDate::now),
+                                    row.get("total", Long.class)))
+                            .all()
+                            .concatMap(e -> dashboardCounterService.adjust(DashboardCounterService.SUBMISSIONS, e.getKey(), -e.getValue()))
+                            .then();
+
+                    return cascadedSubmissions
+                            .then(feedbackRepository.deleteById(id))
+                            .then(dashboardCounterService.recordDeleted(
+                                    DashboardCounterService.FEEDBACKS, feedback.getCreatedAt(), feedback.isActive()));
+                });
+    }
+
+    public Mono<FeedbackResponseDto> getFeedbackById(Long id, String username) {
+        return findFeedback(id)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "Feedback not found")))
                 .flatMap(feedback -> enrichFeedbackWithDetails(feedback, username));
     }
 
     public Flux<UserResponseDto> getProjectMembers(Long projectId) {
-        return projectMemberRepository.findUserIdsByProjectId(projectId)
-                .flatMap(userId -> userRepository.findById(userId)
-                        .flatMap(user -> userRepository.findRoleNamesByUsername(user.getUsername())
-                                .collectList()
-                                .map(roles -> {
-                                    user.setRoles(Set.copyOf(roles));
-                                    return mapUserToResponseDto(user);
-                                })));
+        return userRepository.findAllById(projectMemberRepository.findUserIdsByProjectId(projectId))
+                .flatMap(user -> referenceDataCache.roleNames(user.getUsername())
+                        .map(roles -> {
+                            user.setRoles(Set.copyOf(roles));
+                            return mapUserToResponseDto(user);
+                        }));
     }
 
     public Mono<Boolean> canUserSubmitFeedback(Long feedbackId, String username) {
@@ -240,164 +353,56 @@ public class FeedbackService {
     // Helper methods
 
     private Mono<FeedbackResponseDto> enrichFeedbackWithDetails(Feedback feedback, String username) {
-        // Start with basic response from mapper
-        FeedbackResponseDto basicResponse = feedbackMapper.toBasicResponse(feedback);
-        
-        // Get project name
-        Mono<String> projectNameMono = projectRepository.findById(feedback.getProjectId())
-                .map(project -> project.getName())
-                .defaultIfEmpty("Unknown Project");
-        
-        // Get question details
-        Mono<List<Long>> questionIdsMono = feedbackQuestionRepository.findQuestionIdsByFeedbackId(feedback.getId()).collectList();
-        Mono<List<String>> questionTitlesMono = questionIdsMono
-                .flatMapMany(Flux::fromIterable)
-                .flatMap(qId -> questionRepository.findById(qId)
-                        .map(q -> q.getText())
-                        .defaultIfEmpty("Unknown Question"))
-                .collectList();
-        
-        // Get target user details
-        Mono<List<Long>> targetUserIdsMono = getTargetUserIds(feedback.getId());
-        Mono<List<String>> targetUsernamesMono = targetUserIdsMono
-                .flatMapMany(Flux::fromIterable)
-                .flatMap(uId -> userRepository.findById(uId)
-                        .map(u -> u.getUsername())
-                        .defaultIfEmpty("Unknown User"))
-                .collectList();
-        
-        // Get target department details
-        Mono<List<Long>> targetDeptIdsMono = getTargetDepartmentIds(feedback.getId());
-        Mono<List<String>> targetDeptNamesMono = targetDeptIdsMono
-                .flatMapMany(Flux::fromIterable)
-                .flatMap(dId -> departmentRepository.findById(dId)
-                        .map(d -> d.getName())
-                        .defaultIfEmpty("Unknown Department"))
-                .collectList();
-        
-        // Get submission count
-        Mono<Long> submissionCountMono = getSubmissionCount(feedback.getId());
-        
-        // Check if user can submit
-        Mono<Boolean> canSubmitMono = username != null ? 
-                canUserSubmitFeedback(feedback.getId(), username) : 
-                Mono.just(false);
-        
-        // Split zip into two parts since Mono.zip supports max 8 arguments
-        Mono<reactor.util.function.Tuple8<String, List<Long>, List<String>, List<Long>, List<String>, List<Long>, List<String>, Long>> basicDataMono = 
-                Mono.zip(
-                        projectNameMono,
-                        questionIdsMono,
-                        questionTitlesMono,
-                        targetUserIdsMono,
-                        targetUsernamesMono,
-                        targetDeptIdsMono,
-                        targetDeptNamesMono,
-                        submissionCountMono
-                );
-        
-        return Mono.zip(basicDataMono, canSubmitMono)
-                .map(tuple -> {
-                    var basicData = tuple.getT1();
-                    Boolean canSubmit = tuple.getT2();
-                    
-                    return new FeedbackResponseDto(
-                            basicResponse.id(),
-                            basicResponse.title(),
-                            basicResponse.description(),
-                            basicResponse.projectId(),
-                            basicData.getT1(), // projectName
-                            basicResponse.startDate(),
-                            basicResponse.endDate(),
-                            basicResponse.active(),
-                            basicResponse.createdAt(),
-                            basicResponse.updatedAt(),
-                            basicData.getT2(), // questionIds
-                            basicData.getT3(), // questionTitles
-                            basicData.getT4(), // targetUserIds
-                            basicData.getT5(), // targetUsernames
-                            basicData.getT6(), // targetDepartmentIds
-                            basicData.getT7(), // targetDepartmentNames
-                            basicData.getT8(), // submissionCount
-                            canSubmit       // canSubmit
-                    );
-                });
+        return enrichFeedbacks(Flux.just(feedback), username).next();
     }
 
-    private Mono<List<Long>> getTargetUserIds(Long feedbackId) {
-        return databaseClient.sql("SELECT user_id FROM feedback_target_users WHERE feedback_id = :feedbackId")
-                .bind("feedbackId", feedbackId)
-                .map((row, meta) -> row.get("user_id", Long.class))
-                .all()
-                .collectList();
+    private Flux<FeedbackResponseDto> enrichFeedbacks(Flux<Feedback> feedbacks, String username) {
+        return feedbackBatchEnricher.enrich(feedbacks, batch -> resolveSubmittableFeedbackIds(batch, username));
     }
 
-    private Mono<List<Long>> getTargetDepartmentIds(Long feedbackId) {
-        return databaseClient.sql("SELECT department_id FROM feedback_target_departments WHERE feedback_id = :feedbackId")
-                .bind("feedbackId", feedbackId)
-                .map((row, meta) -> row.get("department_id", Long.class))
-                .all()
-                .collectList();
+    private Mono<Set<Long>> resolveSubmittableFeedbackIds(List<Feedback> feedbacks, String username) {
+        if (username == null) return Mono.just(Set.of());
+
+        // Timing is checked on the rows already loaded; targeting is one query for the whole batch
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> openIds = feedbacks.stream()
+                .filter(feedback -> isOpenForSubmission(feedback, now))
+                .map(Feedback::getId)
+                .toList();
+        return feedbackEligibilityResolver.resolveEligible(username, openIds);
     }
 
-    private Mono<Long> getSubmissionCount(Long feedbackId) {
-        return databaseClient.sql("SELECT COUNT(*) FROM submissions WHERE feedback_id = :feedbackId")
-                .bind("feedbackId", feedbackId)
-                .map((row, meta) -> row.get(0, Long.class))
-                .one()
-                .defaultIfEmpty(0L);
+    private static boolean isOpenForSubmission(Feedback feedback, LocalDateTime now) {
+        return feedback.isActive()
+                && (feedback.getStartDate() == null || !now.isBefore(feedback.getStartDate()))
+                && (feedback.getEndDate() == null || !now.isAfter(feedback.getEndDate()));
     }
 
     private Mono<Void> checkUserPermissionForFeedback(Long feedbackId, String username) {
-        return userRepository.findByUsername(username)
-                .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "User not found")))
-                .flatMap(user -> {
-                    // Check if user is directly targeted
-                    Mono<Boolean> directTarget = databaseClient.sql(
-                            "SELECT COUNT(*) FROM feedback_target_users WHERE feedback_id = :feedbackId AND user_id = :userId"
-                    ).bind("feedbackId", feedbackId)
-                     .bind("userId", user.getId())
-                     .map((row, meta) -> row.get(0, Long.class) > 0)
-                     .one();
-                    
-                    // Check if user's department is targeted
-                    Mono<Boolean> deptTarget = user.getDepartmentId() != null ? 
-                            databaseClient.sql(
-                                    "SELECT COUNT(*) FROM feedback_target_departments WHERE feedback_id = :feedbackId AND department_id = :deptId"
-                            ).bind("feedbackId", feedbackId)
-                             .bind("deptId", user.getDepartmentId())
-                             .map((row, meta) -> row.get(0, Long.class) > 0)
-                             .one() : Mono.just(false);
-                    
-                    // Check if user is project member
-                    Mono<Boolean> projectMember = feedbackRepository.findById(feedbackId)
-                            .flatMap(feedback -> projectMemberRepository.findUserIdsByProjectId(feedback.getProjectId())
-                                    .any(memberId -> memberId.equals(user.getId())));
-                    
-                    return Mono.zip(directTarget, deptTarget, projectMember)
-                            .flatMap(tuple -> {
-                                if (tuple.getT1() || tuple.getT2() || tuple.getT3()) {
-                                    return Mono.empty(); // User has permission
-                                } else {
-                                    return Mono.error(new GlobalServiceException(ErrorCode.FORBIDDEN, "User not authorized for this feedback"));
-                                }
-                            });
-                });
+        return feedbackEligibilityResolver.isEligible(username, feedbackId)
+                .flatMap(eligible -> eligible
+                        ? Mono.<Void>empty()
+                        : Mono.error(new GlobalServiceException(ErrorCode.FORBIDDEN, "User not authorized for this feedback")));
     }
 
     // Advanced Feedback Methods (from old-backend)
     
     public Mono<java.util.Map<String, Long>> getFeedbackStatistics() {
+        return singleFlight.execute("feedback.statistics", STATISTICS_TTL, this::loadFeedbackStatistics);
+    }
+
+    private Mono<java.util.Map<String, Long>> loadFeedbackStatistics() {
+        // Whole-table totals come from the maintained counters rather than COUNT(*) scans
         return Mono.zip(
-                feedbackRepository.count(),
-                feedbackRepository.countActiveAndAvailable(),
-                getTotalSubmissionCount()
+                dashboardCounterService.totals(List.of(DashboardCounterService.FEEDBACKS, DashboardCounterService.SUBMISSIONS)),
+                feedbackRepository.countActiveAndAvailable()
         ).map(tuple -> {
             java.util.Map<String, Long> stats = new java.util.HashMap<>();
-            stats.put("totalFeedbacks", tuple.getT1());
+            stats.put("totalFeedbacks", tuple.getT1().get(DashboardCounterService.FEEDBACKS));
             stats.put("activeFeedbacks", tuple.getT2());
-            stats.put("totalSubmissions", tuple.getT3());
-            return stats;
+            stats.put("totalSubmissions", tuple.getT1().get(DashboardCounterService.SUBMISSIONS));
+            // Shared between coalesced callers
+            return java.util.Map.copyOf(stats);
         });
     }
     
@@ -417,78 +422,66 @@ public class FeedbackService {
     }
     
     public Flux<FeedbackResponseDto> getRecentFeedbacks() {
-        return feedbackRepository.findRecent(10)
-                .flatMap(feedback -> enrichFeedbackWithDetails(feedback, null));
+        return enrichFeedbacks(feedbackRepository.findRecent(10), null);
     }
     
     public Flux<FeedbackResponseDto> getFeedbacksByUser(String userId) {
-        return databaseClient.sql("""
-                SELECT DISTINCT f.* FROM feedbacks f
-                LEFT JOIN feedback_target_users ftu ON f.id = ftu.feedback_id
-                LEFT JOIN feedback_target_departments ftd ON f.id = ftd.feedback_id
-                LEFT JOIN users u ON ftu.user_id = u.id OR u.department_id = ftd.department_id
-                WHERE u.username = :userId OR u.id = :userId
-                ORDER BY f.created_at DESC
-                """)
-                .bind("userId", userId)
+        Long numericId = userId != null && userId.matches("\\d{1,18}") ? Long.valueOf(userId) : null;
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(FEEDBACKS_BY_USER_SQL)
+                .bind("username", userId);
+        spec = numericId != null ? spec.bind("userId", numericId) : spec.bindNull("userId", Long.class);
+        Flux<Feedback> feedbacks = spec
                 .map((row, meta) -> mapRowToFeedback(row))
-                .all()
-                .flatMap(feedback -> enrichFeedbackWithDetails(feedback, userId));
+                .all();
+        return enrichFeedbacks(feedbacks, userId);
     }
     
     public Flux<FeedbackResponseDto> getFeedbacksByDepartment(Long departmentId) {
-        return databaseClient.sql("""
-                SELECT DISTINCT f.* FROM feedbacks f
-                JOIN feedback_target_departments ftd ON f.id = ftd.feedback_id
-                WHERE ftd.department_id = :departmentId
-                ORDER BY f.created_at DESC
-                """)
+        Flux<Feedback> feedbacks = databaseClient.sql(FEEDBACKS_BY_DEPARTMENT_SQL)
                 .bind("departmentId", departmentId)
                 .map((row, meta) -> mapRowToFeedback(row))
-                .all()
-                .flatMap(feedback -> enrichFeedbackWithDetails(feedback, null));
+                .all();
+        return enrichFeedbacks(feedbacks, null);
     }
     
     public Flux<FeedbackResponseDto> getDepartmentWideFeedbacks(Long departmentId) {
-        return databaseClient.sql("""
-                SELECT DISTINCT f.* FROM feedbacks f
-                JOIN projects p ON f.project_id = p.id
-                WHERE p.department_id = :departmentId
-                ORDER BY f.created_at DESC
-                """)
+        Flux<Feedback> feedbacks = databaseClient.sql(DEPARTMENT_WIDE_FEEDBACKS_SQL)
                 .bind("departmentId", departmentId)
                 .map((row, meta) -> mapRowToFeedback(row))
-                .all()
-                .flatMap(feedback -> enrichFeedbackWithDetails(feedback, null));
+                .all();
+        return enrichFeedbacks(feedbacks, null);
     }
     
+    @Transactional
     public Mono<FeedbackResponseDto> activateFeedback(Long id) {
         return feedbackRepository.findById(id)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "Feedback not found")))
                 .flatMap(feedback -> {
+                    boolean wasActive = feedback.isActive();
                     feedback.setActive(true);
-                    return feedbackRepository.save(feedback);
+                    return feedbackRepository.save(feedback)
+                            .flatMap(saved -> dashboardCounterService
+                                    .recordActiveChanged(DashboardCounterService.FEEDBACKS, wasActive, true)
+                                    .thenReturn(saved));
                 })
                 .flatMap(feedback -> enrichFeedbackWithDetails(feedback, null));
     }
     
+    @Transactional
     public Mono<FeedbackResponseDto> closeFeedback(Long id) {
         return feedbackRepository.findById(id)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "Feedback not found")))
                 .flatMap(feedback -> {
+                    boolean wasActive = feedback.isActive();
                     feedback.setActive(false);
-                    return feedbackRepository.save(feedback);
+                    return feedbackRepository.save(feedback)
+                            .flatMap(saved -> dashboardCounterService
+                                    .recordActiveChanged(DashboardCounterService.FEEDBACKS, wasActive, false)
+                                    .thenReturn(saved));
                 })
                 .flatMap(feedback -> enrichFeedbackWithDetails(feedback, null));
     }
     
-    private Mono<Long> getTotalSubmissionCount() {
-        return databaseClient.sql("SELECT COUNT(*) FROM submissions")
-                .map((row, meta) -> row.get(0, Long.class))
-                .one()
-                .defaultIfEmpty(0L);
-    }
-    
     private Feedback mapRowToFeedback(Row row) {
         Feedback feedback = new Feedback();
         feedback.setId(row.get("id", Long.class));
@@ -531,7 +524,7 @@ public class FeedbackService {
     // Comprehensive feedback submission validation and constraints
     
     public Mono<Map<String, Object>> getFeedbackSubmissionConstraints(Long feedbackId, String username) {
-        return feedbackRepository.findById(feedbackId)
+        return findFeedback(feedbackId)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "Feedback not found")))
                 .flatMap(feedback -> {
                     Map<String, Object> constraints = new HashMap<>();
@@ -588,7 +581,7 @@ public class FeedbackService {
     }
     
     public Mono<Map<String, Object>> validateFeedbackSubmission(Long feedbackId, String username) {
-        return feedbackRepository.findById(feedbackId)
+        return findFeedback(feedbackId)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "Feedback not found")))
                 .flatMap(feedback -> {
                     Map<String, Object> validation = new HashMap<>();
@@ -652,11 +645,9 @@ public class FeedbackService {
     private Mono<Boolean> checkForDuplicateSubmission(Long feedbackId, String username) {
         if (username == null) return Mono.just(false);
         
-        String query = "SELECT COUNT(*) FROM submissions WHERE feedback_id = :feedbackId AND user_id = :userId";
-        
-        return databaseClient.sql(query)
+        return databaseClient.sql(DUPLICATE_SUBMISSION_SQL)
                 .bind("feedbackId", feedbackId)
-                .bind("userId", username)
+                .bind("username", username)
                 .map((row, meta) -> row.get(0, Long.class))
                 .one()
                 .map(count -> count == 0); // Returns true if no duplicate (count = 0)
@@ -664,29 +655,19 @@ public class FeedbackService {
 
     // Additional methods for employee endpoints that may be referenced
     
+    // Open, eligible and not yet submitted, nearest deadline first
     public Flux<FeedbackResponseDto> getPendingFeedbacksForUser(String username) {
-        return findAvailableFeedbacks(new PageRequest(0, 50, null, null, null, null), username)
-                .flatMapMany(pageResponse -> Flux.fromIterable(pageResponse.getContent()))
-                .filter(feedback -> Boolean.TRUE.equals(feedback.canSubmit()));
-    }
-    
-    public Mono<Long> countAvailableFeedbacksForUser(String username) {
-        return findAvailableFeedbacks(new PageRequest(0, Integer.MAX_VALUE, null, null, null, null), username)
-                .map(pageResponse -> pageResponse.getTotalElements());
-    }
-    
-    public Mono<Long> countPendingFeedbacksForUser(String username) {
-        return getPendingFeedbacksForUser(username).count();
+        return feedbackInboxService.pendingFeedbackIds(username, PENDING_LIMIT)
+                .collectList()
+                .flatMapMany(ids -> feedbackRepository.findAllById(ids)
+                        .collectMap(Feedback::getId)
+                        .flatMapMany(byId -> enrichFeedbacks(Flux.fromIterable(ids)
+                                .filter(byId::containsKey)
+                                .map(byId::get), username)));
     }
     
     public Mono<Long> countFeedbacksCompletedSince(String username, LocalDateTime since) {
-        String query = """
-            SELECT COUNT(DISTINCT s.feedback_id) 
-            FROM submissions s 
-            WHERE s.user_id = :username AND s.submitted_at >= :since
-            """;
-        
-        return databaseClient.sql(query)
+        return databaseClient.sql(FEEDBACKS_COMPLETED_SINCE_SQL)
                 .bind("username", username)
                 .bind("since", since)
                 .map((row, meta) -> row.get(0, Long.class))
@@ -695,13 +676,7 @@ public class FeedbackService {
     }
     
     public Mono<Double> getAverageRatingGiven(String username, LocalDateTime since) {
-        String query = """
-            SELECT AVG(CAST(s.rating AS DECIMAL)) 
-            FROM submissions s 
-            WHERE s.user_id = :username AND s.submitted_at >= :since AND s.rating IS NOT NULL
-            """;
-        
-        return databaseClient.sql(query)
+        return databaseClient.sql(AVERAGE_RATING_GIVEN_SQL)
                 .bind("username", username)
                 .bind("since", since)
                 .map((row, meta) -> {
@@ -11,8 +11,8 @@ public interface ProjectMemberRepository extends R2dbcRepository<dev.bengi.main.
     @Query("SELECT user_id FROM project_members WHERE project_id = :projectId")
     Flux<Long> findUserIdsByProjectId(Long projectId);
 
-    @Query("INSERT INTO project_members(project_id, user_id) VALUES (:projectId, :userId) ON CONFLICT DO NOTHING")
-    Flux<Void> addMember(Long projectId, Long userId);
+    @Query("INSERT INTO project_members(project_id, user_id) SELECT :projectId, unnest(CAST(:userIds AS BIGINT[])) ON CONFLICT DO NOTHING")
+    Flux<Void> addMembers(Long projectId, Long[] userIds);
 
     @Query("DELETE FROM project_members WHERE project_id = :projectId AND user_id = :userId")
     Flux<Void> removeMember(Long projectId, Long userId);
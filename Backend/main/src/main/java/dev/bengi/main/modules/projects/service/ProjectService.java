@@ -1,10 +1,17 @@
 package dev.bengi.main.modules.projects.service;
 
+import dev.bengi.main.common.cache.ReferenceDataCache;
+import dev.bengi.main.common.pagination.KeysetQuery;
 import dev.bengi.main.common.pagination.PageRequest;
 import dev.bengi.main.common.pagination.PageResponse;
 import dev.bengi.main.common.pagination.PaginationService;
+import dev.bengi.main.common.search.SearchTarget;
 import dev.bengi.main.exception.ErrorCode;
 import dev.bengi.main.exception.GlobalServiceException;
+import dev.bengi.main.modules.dashboard.service.ActivityEventService;
+import dev.bengi.main.modules.dashboard.service.DashboardCounterService;
+import dev.bengi.main.modules.feedback.service.FeedbackEligibilityResolver;
+import dev.bengi.main.modules.feedback.service.FeedbackInboxService;
 import dev.bengi.main.modules.projects.dto.ProjectMapper;
 import dev.bengi.main.modules.projects.dto.ProjectRequestDto;
 import dev.bengi.main.modules.projects.dto.ProjectResponseDto;
@@ -27,11 +34,21 @@ public class ProjectService {
     private final ProjectMapper mapper;
     private final dev.bengi.main.modules.projects.repository.ProjectMemberRepository projectMemberRepository;
     private final PaginationService paginationService;
+    private final DashboardCounterService dashboardCounterService;
+    private final FeedbackEligibilityResolver feedbackEligibilityResolver;
+    private final FeedbackInboxService feedbackInboxService;
+    private final ReferenceDataCache referenceDataCache;
+    private final ActivityEventService activityEventService;
 
     @Transactional
     public Mono<ProjectResponseDto> create(ProjectRequestDto req) {
         Project entity = mapper.toEntity(req);
         return projectRepository.save(entity)
+                .flatMap(savedProject -> dashboardCounterService
+                        .recordCreated(DashboardCounterService.PROJECTS, savedProject.getCreatedAt(), savedProject.isActive())
+                        .then(activityEventService.record("created project", ActivityEventService.PROJECT,
+                                savedProject.getId(), savedProject.getName(), savedProject.getId()))
+                        .thenReturn(savedProject))
                 .flatMap(savedProject -> {
                     // Handle members if provided
                     if (req.members() != null && !req.members().isEmpty()) {
@@ -53,6 +70,10 @@ public class ProjectService {
                     mapper.updateEntity(e, req);
                     return projectRepository.save(e);
                 })
+                .flatMap(saved -> activityEventService.record("updated project", ActivityEventService.PROJECT,
+                                saved.getId(), saved.getName(), saved.getId())
+                        .thenReturn(saved))
+                .flatMap(saved -> referenceDataCache.evictProject(id).thenReturn(saved))
                 .flatMap(savedProject -> {
                     // Handle members update
                     if (req.members() != null && !req.members().isEmpty()) {
@@ -82,10 +103,14 @@ public class ProjectService {
                 .doOnSuccess(d -> log.info("Project updated: {}", d));
     }
 
+    @Transactional
     public Mono<Void> delete(Long id) {
-        return projectRepository.existsById(id)
-                .flatMap(exists -> exists ? projectRepository.deleteById(id)
-                        : Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND)))
+        return projectRepository.findById(id)
+                .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND)))
+                .flatMap(project -> projectRepository.deleteById(id)
+                        .then(dashboardCounterService.recordDeleted(
+                                DashboardCounterService.PROJECTS, project.getCreatedAt(), project.isActive())))
+                .then(referenceDataCache.evictProject(id))
                 .doOnSuccess(v -> log.info("Project deleted: {}", id));
     }
 
@@ -103,22 +128,22 @@ public class ProjectService {
     }
 
     public Mono<PageResponse<ProjectResponseDto>> getAll(PageRequest pageRequest) {
-        return paginationService.paginateInMemory(
-            projectRepository.findAll()
-                .flatMap(project -> calculateMemberCount(project)),
-            pageRequest
+        return paginationService.paginateKeyset(
+            KeysetQuery.of(Project.class, "SELECT * FROM projects")
+                .searchable(SearchTarget.PROJECTS)
+                .sortableBy("name")
+                .nullableSortableBy("created_at", "updated_at", "start_date", "end_date"),
+            pageRequest,
+            page -> Flux.fromIterable(page).flatMapSequential(this::calculateMemberCount)
         );
     }
 
     // Members management
     public Mono<Void> addMembers(Long projectId, java.util.List<Long> memberIds) {
         log.info("Adding {} members to project {}: {}", memberIds.size(), projectId, memberIds);
-        return reactor.core.publisher.Flux.fromIterable(memberIds)
-                .flatMap(userId -> {
-                    log.info("Adding user {} to project {}", userId, projectId);
-                    return projectMemberRepository.addMember(projectId, userId);
-                })
-                .then()
+        return projectMemberRepository.addMembers(projectId, memberIds.toArray(Long[]::new))
+                .then(feedbackInboxService.refreshUsers(memberIds))
+                .then(feedbackEligibilityResolver.invalidateAll())
                 .doOnSuccess(v -> log.info("Successfully added {} members to project {}", memberIds.size(), projectId))
                 .doOnError(e -> log.error("Failed to add members to project {}: {}", projectId, e.getMessage()));
     }
@@ -126,7 +151,8 @@ public class ProjectService {
     public Mono<Void> removeMembers(Long projectId, java.util.List<Long> memberIds) {
         return reactor.core.publisher.Flux.fromIterable(memberIds)
                 .flatMap(userId -> projectMemberRepository.removeMember(projectId, userId))
-                .then();
+                .then(feedbackInboxService.refreshUsers(memberIds))
+                .then(feedbackEligibilityResolver.invalidateAll());
     }
 
     // Additional methods for employee endpoints
@@ -1,8 +1,10 @@
 package dev.bengi.main.modules.question.service;
 
+import dev.bengi.main.common.pagination.KeysetQuery;
 import dev.bengi.main.common.pagination.PageRequest;
 import dev.bengi.main.common.pagination.PageResponse;
 import dev.bengi.main.common.pagination.PaginationService;
+import dev.bengi.main.common.search.SearchTarget;
 import dev.bengi.main.exception.ErrorCode;
 import dev.bengi.main.exception.GlobalServiceException;
 import dev.bengi.main.modules.question.dto.*;
@@ -101,11 +103,15 @@ public class QuestionService {
     }
 
     public Mono<PageResponse<QuestionResponseDto>> getAll(PageRequest pageRequest) {
-        return paginationService.paginateInMemory(
-            questionRepository.findAll()
-                .flatMap(q -> loadChoices(q.getId()).collectList().map(choices -> new QuestionResponseDto(
-                        q.getId(), q.getText(), q.getDescription(), q.getQuestionType(), q.getCategoryString(), q.isRequired(), q.getValidationRules(), choices, q.getCreatedAt(), q.getUpdatedAt()))),
-            pageRequest
+        return paginationService.paginateKeyset(
+            KeysetQuery.of(Question.class, "SELECT * FROM questions")
+                .searchable(SearchTarget.QUESTIONS)
+                .sortableBy("text", "question_type")
+                .nullableSortableBy("category", "created_at", "updated_at"),
+            pageRequest,
+            page -> Flux.fromIterable(page)
+                .flatMapSequential(q -> loadChoices(q.getId()).collectList().map(choices -> new QuestionResponseDto(
+                        q.getId(), q.getText(), q.getDescription(), q.getQuestionType(), q.getCategoryString(), q.isRequired(), q.getValidationRules(), choices, q.getCreatedAt(), q.getUpdatedAt())))
         );
     }
 
@@ -28,6 +28,19 @@ public class SubmissionSessionController {
                 )));
     }
 
+    @PostMapping("/heartbeat")
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    public Mono<ResponseEntity<Map<String, Object>>> heartbeat(Authentication auth,
+                                                               @RequestParam(required = false) Long feedbackId) {
+        String userId = auth.getName();
+        return service.heartbeat(userId, feedbackId)
+                .map(s -> ResponseEntity.ok(Map.of(
+                        "id", s.getId(),
+                        "startedAt", s.getStartedAt(),
+                        "lastSeenAt", s.getUpdatedAt()
+                )));
+    }
+
     @PostMapping("/stop")
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
     public Mono<ResponseEntity<Map<String, Object>>> stop(Authentication auth) {
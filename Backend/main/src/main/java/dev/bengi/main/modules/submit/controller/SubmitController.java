@@ -5,17 +5,26 @@ import dev.bengi.main.common.pagination.PaginationService;
 import dev.bengi.main.modules.submit.dto.SubmitRequestDto;
 import dev.bengi.main.modules.submit.dto.SubmitResponseDto;
 import dev.bengi.main.modules.submit.dto.SubmissionAnalysisDto;
+import dev.bengi.main.modules.submit.service.SubmissionExportService;
 import dev.bengi.main.modules.submit.service.SubmitService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -24,6 +33,7 @@ import reactor.core.publisher.Mono;
 public class SubmitController {
     private final SubmitService submitService;
     private final PaginationService paginationService;
+    private final SubmissionExportService submissionExportService;
 
     @PostMapping
     public Mono<ResponseEntity<SubmitResponseDto>> create(Authentication auth, @RequestBody @Valid SubmitRequestDto req) {
@@ -66,6 +76,35 @@ public class SubmitController {
                 .map(ResponseEntity::ok);
     }
 
+    /**
+     * Stream submissions with their responses as NDJSON (default) or CSV.
+     * At least one of feedbackId, projectId, from, to is required; the range is [from, to).
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Flux<DataBuffer>> export(
+            @RequestParam(required = false) Long feedbackId,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            ServerWebExchange exchange) {
+        SubmissionExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? SubmissionExportService.Format.CSV
+                : SubmissionExportService.Format.NDJSON;
+        var filter = new SubmissionExportService.ExportFilter(feedbackId, projectId, from, to);
+        Flux<DataBuffer> body = submissionExportService.export(
+                filter, exportFormat, exchange.getResponse().bufferFactory());
+
+        String fileName = exportFormat == SubmissionExportService.Format.CSV ? "submissions.csv" : "submissions.ndjson";
+        return ResponseEntity.ok()
+                .contentType(exportFormat == SubmissionExportService.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     @PostMapping("/{id}/analysis")
     public Mono<ResponseEntity<Map<String, String>>> saveAnalysis(
             @PathVariable Long id, 
@@ -1,5 +1,6 @@
 package dev.bengi.main.modules.submit.dto;
 
+import dev.bengi.main.modules.submit.enums.PrivacyLevel;
 import dev.bengi.main.modules.submit.model.Submit;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -21,8 +22,7 @@ public interface SubmitMapper {
     Submit toEntity(SubmitRequestDto req);
 
     default SubmitResponseDto toResponse(Submit entity) {
-        String submittedBy = entity.getPrivacyLevel() == null || entity.getPrivacyLevel().name().equals("ANONYMOUS")
-                ? null : entity.getUserId();
+        String submittedBy = visibleSubmitter(entity.getUserId(), entity.isAnonymous(), entity.getPrivacyLevel());
         return new SubmitResponseDto(
                 entity.getId(),
                 entity.getFeedbackId(),
@@ -39,6 +39,20 @@ public interface SubmitMapper {
                 entity.getAnalyzedBy()
         );
     }
-}
 
+    /**
+     * The submitter identity that may be shown: hidden for anonymous submissions and
+     * for rows without a privacy level.
+     */
+    static String visibleSubmitter(String userId, boolean anonymous, PrivacyLevel privacyLevel) {
+        return anonymous || privacyLevel == null || privacyLevel == PrivacyLevel.ANONYMOUS ? null : userId;
+    }
 
+    /**
+     * The submitter recorded in the activity feed. Every user can read the feed and filter it
+     * by actor, so only public, non-anonymous submissions name their submitter.
+     */
+    static String activityActor(String userId, boolean anonymous, PrivacyLevel privacyLevel) {
+        return !anonymous && privacyLevel == PrivacyLevel.PUBLIC ? userId : null;
+    }
+}
@@ -7,8 +7,14 @@ import reactor.core.publisher.Flux;
 
 public interface SubmissionResponseRepository extends R2dbcRepository<SubmissionResponseRepository.Row, Long> {
 
-    @Query("INSERT INTO submission_responses(submission_id, question_id, response) VALUES (:submissionId, :questionId, :response) ON CONFLICT (submission_id, question_id) DO UPDATE SET response = EXCLUDED.response")
-    Flux<Void> upsertResponse(Long submissionId, Long questionId, String response);
+    // One statement for the whole form; questionIds and responses are parallel arrays with unique question ids
+    @Query("""
+        INSERT INTO submission_responses(submission_id, question_id, response)
+        SELECT :submissionId, t.question_id, t.response
+        FROM unnest(CAST(:questionIds AS BIGINT[]), CAST(:responses AS TEXT[])) AS t(question_id, response)
+        ON CONFLICT (submission_id, question_id) DO UPDATE SET response = EXCLUDED.response
+        """)
+    Flux<Void> upsertResponses(Long submissionId, Long[] questionIds, String[] responses);
 
     @Query("SELECT question_id FROM submission_responses WHERE submission_id = :submissionId")
     Flux<Long> findQuestionIdsBySubmission(Long submissionId);
@@ -16,6 +22,9 @@ public interface SubmissionResponseRepository extends R2dbcRepository<Submission
     @Query("SELECT question_id, response FROM submission_responses WHERE submission_id = :submissionId")
     Flux<ResponseRow> findResponsesBySubmission(Long submissionId);
 
+    @Query("SELECT submission_id, question_id, response FROM submission_responses WHERE submission_id = ANY(:submissionIds)")
+    Flux<SubmissionResponseRow> findResponsesBySubmissions(Long[] submissionIds);
+
     class ResponseRow {
         public Long questionId;
         public String response;
@@ -27,6 +36,14 @@ public interface SubmissionResponseRepository extends R2dbcRepository<Submission
         }
     }
 
+    class SubmissionResponseRow {
+        public Long submissionId;
+        public Long questionId;
+        public String response;
+
+        public SubmissionResponseRow() {}
+    }
+
     class Row { public Long id; }
 }
 
@@ -0,0 +1,129 @@
+package dev.bengi.main.modules.submit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Reads and repairs the session_time_rollups table: closed session seconds per user,
+ * feedback and start day.
+ * <p>
+ * {@link SubmissionSessionService} adds to the rollups in the same statement that closes
+ * sessions; migration V13 rolled up the history before that. The backfill job recomputes the
+ * last {@code reconcile-days} days from submission_sessions, which absorbs sessions closed by
+ * older nodes during a rolling deploy. Each month is recomputed in its own transaction.
+ */
+@Service
+@Slf4j
+public class SessionTimeRollupService {
+
+    private static final String USER_TOTAL_SQL = """
+        SELECT COALESCE(SUM(total_seconds), 0) AS total
+        FROM session_time_rollups
+        WHERE user_id = :username AND day >= :fromDay AND day < :toDay
+        """;
+
+    private static final String TOTAL_SQL = """
+        SELECT COALESCE(SUM(total_seconds), 0) AS total
+        FROM session_time_rollups
+        WHERE day >= :fromDay AND day < :toDay
+        """;
+
+    private static final String DELETE_RANGE_SQL = """
+        DELETE FROM session_time_rollups WHERE day >= :fromDay AND day < :toDay
+        """;
+
+    // A session closed concurrently may insert a row after the delete; the recomputed totals win
+    private static final String RECOMPUTE_RANGE_SQL = """
+        INSERT INTO session_time_rollups (user_id, day, feedback_id, total_seconds, session_count, updated_at)
+        SELECT user_id, CAST(started_at AS DATE), feedback_id, SUM(COALESCE(duration_seconds, 0)), COUNT(*), NOW()
+        FROM submission_sessions
+        WHERE ended_at IS NOT NULL AND started_at >= :fromDay AND started_at < :toDay
+        GROUP BY user_id, CAST(started_at AS DATE), feedback_id
+        ON CONFLICT (user_id, day, feedback_id) DO UPDATE
+        SET total_seconds = EXCLUDED.total_seconds,
+            session_count = EXCLUDED.session_count,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final int reconcileDays;
+
+    public SessionTimeRollupService(DatabaseClient databaseClient,
+                                    TransactionalOperator transactionalOperator,
+                                    @Value("${app.submission-sessions.rollups.reconcile-days:35}") int reconcileDays) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.reconcileDays = Math.max(1, reconcileDays);
+    }
+
+    public Mono<Long> totalSecondsForUserThisMonth(String username) {
+        YearMonth month = YearMonth.now();
+        return databaseClient.sql(USER_TOTAL_SQL)
+                .bind("username", username)
+                .bind("fromDay", month.atDay(1))
+                .bind("toDay", month.plusMonths(1).atDay(1))
+                .map(row -> row.get("total", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    public Mono<Long> totalSecondsThisMonth() {
+        YearMonth month = YearMonth.now();
+        return databaseClient.sql(TOTAL_SQL)
+                .bind("fromDay", month.atDay(1))
+                .bind("toDay", month.plusMonths(1).atDay(1))
+                .map(row -> row.get("total", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.submission-sessions.rollups.backfill-initial-delay:PT1M}",
+            fixedDelayString = "${app.submission-sessions.rollups.backfill-interval:PT1H}")
+    public Mono<Void> backfill() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        return backfill(tomorrow.minusDays(reconcileDays), tomorrow)
+                .onErrorResume(e -> {
+                    log.warn("Session time rollup backfill failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Recompute the rollups for sessions started on {@code from} up to, excluding, {@code to}.
+     */
+    public Mono<Void> backfill(LocalDate from, LocalDate to) {
+        return Flux.<LocalDate, LocalDate>generate(() -> from, (start, sink) -> {
+                    if (start.isBefore(to)) {
+                        sink.next(start);
+                    } else {
+                        sink.complete();
+                    }
+                    return YearMonth.from(start).plusMonths(1).atDay(1);
+                })
+                .concatMap(start -> {
+                    LocalDate end = YearMonth.from(start).plusMonths(1).atDay(1);
+                    return recompute(start, end.isBefore(to) ? end : to);
+                })
+                .then()
+                .doOnSuccess(v -> log.debug("Session time rollups recomputed for {} to {}", from, to));
+    }
+
+    private Mono<Void> recompute(LocalDate from, LocalDate to) {
+        return Flux.concat(
+                        databaseClient.sql(DELETE_RANGE_SQL).bind("fromDay", from).bind("toDay", to).then(),
+                        databaseClient.sql(RECOMPUTE_RANGE_SQL).bind("fromDay", from).bind("toDay", to).then())
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+}
@@ -0,0 +1,205 @@
+package dev.bengi.main.modules.submit.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.bengi.main.exception.ErrorCode;
+import dev.bengi.main.exception.GlobalServiceException;
+import dev.bengi.main.modules.submit.dto.SubmitMapper;
+import dev.bengi.main.modules.submit.enums.PrivacyLevel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams submissions with their responses for export.
+ * <p>
+ * One query joins submissions to submission_responses ordered by submission id and is read
+ * through a server-side cursor (fetch size), so rows are pulled only as fast as the client
+ * consumes the response. Consecutive rows of the same submission are folded into one record,
+ * which keeps memory constant regardless of export size.
+ */
+@Service
+@RequiredArgsConstructor
+public class SubmissionExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    public record ExportFilter(Long feedbackId, Long projectId, LocalDateTime from, LocalDateTime to) {
+        boolean isEmpty() {
+            return feedbackId == null && projectId == null && from == null && to == null;
+        }
+    }
+
+    static final int FETCH_SIZE = 1000;
+
+    private static final String CSV_HEADER =
+            "submission_id,feedback_id,submitted_by,privacy_level,submitted_at,overall_comments,question_id,response\n";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    public Flux<DataBuffer> export(ExportFilter filter, Format format, DataBufferFactory bufferFactory) {
+        if (filter.isEmpty()) {
+            return Flux.error(new GlobalServiceException(ErrorCode.BAD_REQUEST,
+                    "Export requires a feedbackId, projectId or date range"));
+        }
+
+        Flux<List<ExportRow>> submissions = queryRows(filter)
+                .bufferUntilChanged(ExportRow::submissionId);
+
+        if (format == Format.CSV) {
+            return Flux.concat(
+                    Flux.defer(() -> Flux.just(bufferFactory.wrap(CSV_HEADER.getBytes(StandardCharsets.UTF_8)))),
+                    submissions.map(rows -> bufferFactory.wrap(toCsv(rows))));
+        }
+        return submissions.map(rows -> bufferFactory.wrap(toNdjson(rows)));
+    }
+
+    private Flux<ExportRow> queryRows(ExportFilter filter) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT s.id, s.feedback_id, s.user_id, s.is_anonymous, s.privacy_level, s.overall_comments,
+                       s.submitted_at, r.question_id, r.response
+                FROM submissions s
+                LEFT JOIN submission_responses r ON r.submission_id = s.id
+                """);
+        if (filter.projectId() != null) {
+            sql.append("JOIN feedbacks f ON f.id = s.feedback_id\n");
+        }
+        List<String> conditions = new ArrayList<>();
+        if (filter.feedbackId() != null) conditions.add("s.feedback_id = :feedbackId");
+        if (filter.projectId() != null) conditions.add("f.project_id = :projectId");
+        if (filter.from() != null) conditions.add("s.submitted_at >= :from");
+        if (filter.to() != null) conditions.add("s.submitted_at < :to");
+        sql.append("WHERE ").append(String.join(" AND ", conditions)).append('\n');
+        sql.append("ORDER BY s.id, r.question_id");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)));
+        if (filter.feedbackId() != null) spec = spec.bind("feedbackId", filter.feedbackId());
+        if (filter.projectId() != null) spec = spec.bind("projectId", filter.projectId());
+        if (filter.from() != null) spec = spec.bind("from", filter.from());
+        if (filter.to() != null) spec = spec.bind("to", filter.to());
+
+        return spec.map((row, meta) -> new ExportRow(
+                        row.get("id", Long.class),
+                        row.get("feedback_id", Long.class),
+                        row.get("user_id", String.class),
+                        Boolean.TRUE.equals(row.get("is_anonymous", Boolean.class)),
+                        row.get("privacy_level", String.class),
+                        row.get("overall_comments", String.class),
+                        row.get("submitted_at", LocalDateTime.class),
+                        row.get("question_id", Long.class),
+                        row.get("response", String.class)))
+                .all();
+    }
+
+    private byte[] toNdjson(List<ExportRow> rows) {
+        ExportRow head = rows.get(0);
+        Map<Long, String> responses = new LinkedHashMap<>();
+        for (ExportRow row : rows) {
+            if (row.questionId() != null) {
+                responses.put(row.questionId(), row.response());
+            }
+        }
+        ExportedSubmission record = new ExportedSubmission(
+                head.submissionId(),
+                head.feedbackId(),
+                submitter(head),
+                head.privacyLevel(),
+                head.submittedAt() != null ? head.submittedAt().toString() : null,
+                head.overallComments(),
+                responses);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(record);
+            byte[] line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            return line;
+        } catch (JsonProcessingException e) {
+            throw new GlobalServiceException(ErrorCode.INTERNAL_ERROR, "Failed to serialize submission " + head.submissionId());
+        }
+    }
+
+    private static byte[] toCsv(List<ExportRow> rows) {
+        ExportRow head = rows.get(0);
+        StringBuilder prefix = new StringBuilder(128);
+        prefix.append(head.submissionId()).append(',')
+                .append(head.feedbackId()).append(',');
+        appendCsv(prefix, submitter(head));
+        prefix.append(',');
+        appendCsv(prefix, head.privacyLevel());
+        prefix.append(',');
+        appendCsv(prefix, head.submittedAt() != null ? head.submittedAt().toString() : null);
+        prefix.append(',');
+        appendCsv(prefix, head.overallComments());
+        prefix.append(',');
+
+        // One line per response; a submission without responses still gets one line
+        StringBuilder out = new StringBuilder(prefix.length() * rows.size() + 64 * rows.size());
+        for (ExportRow row : rows) {
+            out.append(prefix);
+            if (row.questionId() != null) {
+                out.append(row.questionId());
+            }
+            out.append(',');
+            appendCsv(out, row.response());
+            out.append('\n');
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String submitter(ExportRow row) {
+        PrivacyLevel level = null;
+        if (row.privacyLevel() != null) {
+            try {
+                level = PrivacyLevel.valueOf(row.privacyLevel());
+            } catch (IllegalArgumentException e) {
+                // Unknown level: treat like a missing one, i.e. hide the submitter
+            }
+        }
+        return SubmitMapper.visibleSubmitter(row.userId(), row.anonymous(), level);
+    }
+
+    private static void appendCsv(StringBuilder out, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        // Neutralise spreadsheet formulas in free-text fields
+        boolean formula = "=+-@".indexOf(value.charAt(0)) >= 0;
+        boolean quote = formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        if (formula) {
+            out.append('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private record ExportRow(Long submissionId, Long feedbackId, String userId, boolean anonymous,
+                             String privacyLevel, String overallComments, LocalDateTime submittedAt,
+                             Long questionId, String response) {}
+
+    private record ExportedSubmission(Long id, Long feedbackId, String submittedBy, String privacyLevel,
+                                      String submittedAt, String overallComments, Map<Long, String> responses) {}
+}
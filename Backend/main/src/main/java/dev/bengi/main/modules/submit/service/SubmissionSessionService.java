@@ -1,66 +1,353 @@
 package dev.bengi.main.modules.submit.service;
 
 import dev.bengi.main.modules.submit.model.SubmissionSession;
-import dev.bengi.main.modules.submit.repository.SubmissionSessionRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Per-node registry of open submission sessions, one per user.
+ * <p>
+ * Start, heartbeat and stop only touch memory. A session that stops receiving heartbeats is
+ * closed at its last heartbeat once {@code idle-timeout} passes, found by a timing wheel ticked
+ * every {@code tick}. Every {@code flush-interval}, closed sessions and open sessions with a new
+ * heartbeat are upserted into {@code submission_sessions} in batches; an open row carries its
+ * last heartbeat in {@code updated_at}. The statement that closes a session also adds it to
+ * {@code session_time_rollups}. Row ids are reserved from the table's sequence in blocks
+ * of {@code id-block-size}, so a session has its final id from the start.
+ * <p>
+ * Recovery after a crash: a periodic sweep, also run at startup, closes rows still open whose
+ * last heartbeat is older than any live node would leave it, at that heartbeat. Sessions that
+ * started and ended within the last flush interval before a crash are lost. A user's sessions
+ * are tracked by the node that serves their requests; a heartbeat that reaches another node
+ * starts a new session there.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class SubmissionSessionService {
 
-    private final SubmissionSessionRepository repository;
+    private static final String RESERVE_IDS_SQL = """
+        SELECT nextval(pg_get_serial_sequence('submission_sessions', 'id')) AS id
+        FROM generate_series(1, :count)
+        """;
+
+    // Adds the sessions closed by the preceding "written" CTE to session_time_rollups
+    private static final String ROLLUP_CLOSED_CTE = """
+        rolled AS (
+            INSERT INTO session_time_rollups (user_id, day, feedback_id, total_seconds, session_count, updated_at)
+            SELECT user_id, CAST(started_at AS DATE), feedback_id, SUM(duration_seconds), COUNT(*), NOW()
+            FROM written
+            WHERE ended_at IS NOT NULL
+            GROUP BY user_id, CAST(started_at AS DATE), feedback_id
+            ON CONFLICT (user_id, day, feedback_id) DO UPDATE
+            SET total_seconds = session_time_rollups.total_seconds + EXCLUDED.total_seconds,
+                session_count = session_time_rollups.session_count + EXCLUDED.session_count,
+                updated_at = NOW()
+        )
+        """;
+
+    // A row that is already closed is never touched again, so a retried batch adds nothing twice
+    private static final String UPSERT_SQL = """
+        WITH written AS (
+            INSERT INTO submission_sessions
+                (id, feedback_id, user_id, started_at, ended_at, duration_seconds, created_at, updated_at)
+            SELECT v.id, v.feedback_id, v.user_id, v.started_at, v.ended_at, v.duration_seconds, v.started_at, v.updated_at
+            FROM unnest(CAST(:ids AS BIGINT[]), CAST(:feedbackIds AS BIGINT[]), CAST(:userIds AS VARCHAR[]),
+                        CAST(:startedAts AS TIMESTAMP[]), CAST(:endedAts AS TIMESTAMP[]),
+                        CAST(:durations AS BIGINT[]), CAST(:updatedAts AS TIMESTAMP[]))
+                AS v(id, feedback_id, user_id, started_at, ended_at, duration_seconds, updated_at)
+            ON CONFLICT (id) DO UPDATE
+            SET ended_at = EXCLUDED.ended_at,
+                duration_seconds = EXCLUDED.duration_seconds,
+                updated_at = EXCLUDED.updated_at
+            WHERE submission_sessions.ended_at IS NULL
+            RETURNING user_id, feedback_id, started_at, ended_at, duration_seconds
+        ),
+        """ + ROLLUP_CLOSED_CTE + """
+        SELECT COUNT(*) AS closed FROM written WHERE ended_at IS NOT NULL
+        """;
+
+    private static final String CLOSE_ORPHANS_SQL = """
+        WITH written AS (
+            UPDATE submission_sessions
+            SET ended_at = GREATEST(started_at, updated_at),
+                duration_seconds = CAST(EXTRACT(EPOCH FROM (GREATEST(started_at, updated_at) - started_at)) AS BIGINT)
+            WHERE ended_at IS NULL AND updated_at < :staleBefore
+            RETURNING user_id, feedback_id, started_at, ended_at, duration_seconds
+        ),
+        """ + ROLLUP_CLOSED_CTE + """
+        SELECT COUNT(*) AS closed FROM written
+        """;
+
+    private final DatabaseClient databaseClient;
+    private final Clock clock = Clock.systemDefaultZone();
+    private final long idleMillis;
+    private final Duration staleAfter;
+    private final int batchSize;
+    private final int idBlockSize;
+    private final Duration shutdownTimeout;
+    private final TimingWheel<ActiveSession> wheel;
+    private final ConcurrentMap<String, ActiveSession> active = new ConcurrentHashMap<>();
+    private final Queue<SubmissionSession> closed = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> reservedIds = new ConcurrentLinkedQueue<>();
+    private final Counter expired;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter orphansClosed;
+
+    public SubmissionSessionService(DatabaseClient databaseClient,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.submission-sessions.idle-timeout:PT5M}") Duration idleTimeout,
+                                    @Value("${app.submission-sessions.tick:PT5S}") Duration tick,
+                                    @Value("${app.submission-sessions.flush-interval:PT10S}") Duration flushInterval,
+                                    @Value("${app.submission-sessions.batch-size:500}") int batchSize,
+                                    @Value("${app.submission-sessions.id-block-size:50}") int idBlockSize,
+                                    @Value("${app.submission-sessions.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.databaseClient = databaseClient;
+        this.idleMillis = idleTimeout.toMillis();
+        // A live node rewrites updated_at within one tick plus one flush of the idle deadline
+        this.staleAfter = idleTimeout.plus(tick).plus(flushInterval.multipliedBy(2));
+        this.batchSize = Math.max(1, batchSize);
+        this.idBlockSize = Math.max(1, idBlockSize);
+        this.shutdownTimeout = shutdownTimeout;
+        int slots = (int) Math.min(4096, idleMillis / Math.max(1, tick.toMillis()) + 1);
+        this.wheel = new TimingWheel<>(tick, slots, clock.millis());
+
+        meterRegistry.gaugeMapSize("submissions.sessions.active", List.of(), active);
+        meterRegistry.gaugeCollectionSize("submissions.sessions.pending", List.of(), closed);
+        this.expired = Counter.builder("submissions.sessions.expired")
+                .description("Sessions closed at their last heartbeat after the idle timeout")
+                .register(meterRegistry);
+        this.written = Counter.builder("submissions.sessions.written")
+                .description("Session rows upserted by the batched flush")
+                .register(meterRegistry);
+        this.failed = Counter.builder("submissions.sessions.failed")
+                .description("Session rows whose write failed and was retried on the next flush")
+                .register(meterRegistry);
+        this.orphansClosed = Counter.builder("submissions.sessions.orphans_closed")
+                .description("Open rows left behind by a stopped or crashed node and closed by the sweep")
+                .register(meterRegistry);
+    }
 
     public Mono<SubmissionSession> start(String userId, Long feedbackId) {
-        return repository.findActiveSession(userId)
-                .flatMap(active -> {
-                    if (active.getEndedAt() == null) {
-                        active.setEndedAt(LocalDateTime.now());
-                        long seconds = Duration.between(active.getStartedAt(), active.getEndedAt()).getSeconds();
-                        active.setDurationSeconds(Math.max(seconds, 0));
-                        active.setUpdatedAt(LocalDateTime.now());
-                        return repository.save(active);
+        return reserveId().map(id -> {
+            long now = clock.millis();
+            ActiveSession session = new ActiveSession(id, userId, feedbackId, toLocal(now), now);
+            ActiveSession previous = active.put(userId, session);
+            if (previous != null) {
+                close(previous, now);
+            }
+            wheel.schedule(session, now + idleMillis);
+            return session.openRow();
+        });
+    }
+
+    /**
+     * Keeps the user's session open. Without one for {@code feedbackId} (expired, or started on
+     * another node) a new session is started, so clients can heartbeat without tracking state.
+     */
+    public Mono<SubmissionSession> heartbeat(String userId, Long feedbackId) {
+        return Mono.defer(() -> {
+            ActiveSession session = active.get(userId);
+            if (session != null && (feedbackId == null || feedbackId.equals(session.feedbackId))) {
+                session.lastSeenMillis = clock.millis();
+                return Mono.just(session.openRow());
+            }
+            return feedbackId != null ? start(userId, feedbackId) : Mono.empty();
+        });
+    }
+
+    public Mono<SubmissionSession> stop(String userId) {
+        return Mono.fromSupplier(() -> {
+            ActiveSession session = active.remove(userId);
+            return session != null ? close(session, clock.millis()) : null;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.submission-sessions.tick:PT5S}")
+    public void expireIdle() {
+        long now = clock.millis();
+        for (ActiveSession session : wheel.advance(now)) {
+            if (active.get(session.userId) != session) {
+                continue; // stopped or replaced since it was scheduled
+            }
+            long lastSeen = session.lastSeenMillis;
+            if (lastSeen + idleMillis > now) {
+                wheel.schedule(session, lastSeen + idleMillis);
+            } else if (active.remove(session.userId, session)) {
+                close(session, lastSeen);
+                expired.increment();
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.submission-sessions.flush-interval:PT10S}",
+            fixedDelayString = "${app.submission-sessions.flush-interval:PT10S}")
+    public Mono<Void> flush() {
+        List<SubmissionSession> rows = new ArrayList<>();
+        for (SubmissionSession row = closed.poll(); row != null; row = closed.poll()) {
+            rows.add(row);
+        }
+        // Closed sessions are out of the map before they are queued, so no id appears twice
+        for (ActiveSession session : active.values()) {
+            long lastSeen = session.lastSeenMillis;
+            if (lastSeen != session.checkpointedMillis) {
+                session.checkpointedMillis = lastSeen;
+                rows.add(session.openRow());
+            }
+        }
+        if (rows.isEmpty()) {
+            return Mono.empty();
+        }
+        List<List<SubmissionSession>> batches = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            batches.add(rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+        return Flux.fromIterable(batches)
+                .concatMap(this::write)
+                .then();
+    }
+
+    @Scheduled(fixedDelayString = "${app.submission-sessions.orphan-sweep-interval:PT1M}")
+    public Mono<Void> closeOrphans() {
+        return databaseClient.sql(CLOSE_ORPHANS_SQL)
+                .bind("staleBefore", LocalDateTime.now(clock).minus(staleAfter))
+                .map(row -> row.get("closed", Long.class))
+                .one()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("Closed {} orphaned submission sessions at their last heartbeat", count);
+                        orphansClosed.increment(count);
                     }
-                    return Mono.just(active);
                 })
-                .onErrorResume(e -> Mono.empty())
-                .then(Mono.defer(() -> {
-                    SubmissionSession session = new SubmissionSession();
-                    session.setUserId(userId);
-                    session.setFeedbackId(feedbackId);
-                    session.setStartedAt(LocalDateTime.now());
-                    session.setCreatedAt(LocalDateTime.now());
-                    session.setUpdatedAt(LocalDateTime.now());
-                    return repository.save(session);
-                }));
+                .onErrorResume(e -> {
+                    log.warn("Closing orphaned submission sessions failed: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
     }
 
-    public Mono<SubmissionSession> stop(String userId) {
-        return repository.findActiveSession(userId)
-                .flatMap(active -> {
-                    active.setEndedAt(LocalDateTime.now());
-                    long seconds = Duration.between(active.getStartedAt(), active.getEndedAt()).getSeconds();
-                    active.setDurationSeconds(Math.max(seconds, 0));
-                    active.setUpdatedAt(LocalDateTime.now());
-                    return repository.save(active);
+    // Open sessions are checkpointed too; the sweep closes them at that heartbeat
+    @PreDestroy
+    void flushOnShutdown() {
+        flush().block(shutdownTimeout);
+    }
+
+    private Mono<Void> write(List<SubmissionSession> batch) {
+        int size = batch.size();
+        Long[] ids = new Long[size];
+        Long[] feedbackIds = new Long[size];
+        String[] userIds = new String[size];
+        LocalDateTime[] startedAts = new LocalDateTime[size];
+        LocalDateTime[] endedAts = new LocalDateTime[size];
+        Long[] durations = new Long[size];
+        LocalDateTime[] updatedAts = new LocalDateTime[size];
+        for (int i = 0; i < size; i++) {
+            SubmissionSession row = batch.get(i);
+            ids[i] = row.getId();
+            feedbackIds[i] = row.getFeedbackId();
+            userIds[i] = row.getUserId();
+            startedAts[i] = row.getStartedAt();
+            endedAts[i] = row.getEndedAt();
+            durations[i] = row.getDurationSeconds();
+            updatedAts[i] = row.getUpdatedAt();
+        }
+        return databaseClient.sql(UPSERT_SQL)
+                .bind("ids", ids)
+                .bind("feedbackIds", feedbackIds)
+                .bind("userIds", userIds)
+                .bind("startedAts", startedAts)
+                .bind("endedAts", endedAts)
+                .bind("durations", durations)
+                .bind("updatedAts", updatedAts)
+                .then()
+                .doOnSuccess(v -> written.increment(size))
+                .onErrorResume(e -> {
+                    log.warn("Writing {} submission sessions failed, retrying on next flush: {}",
+                            size, e.getMessage());
+                    failed.increment(size);
+                    for (SubmissionSession row : batch) {
+                        if (row.getEndedAt() != null) {
+                            closed.add(row);
+                        }
+                    }
+                    // Open rows are rewritten by forgetting every checkpoint
+                    active.values().forEach(session -> session.checkpointedMillis = 0);
+                    return Mono.empty();
                 });
     }
 
-    public Mono<Long> totalSecondsForUserThisMonth(String userId) {
-        LocalDateTime from = LocalDateTime.now().withDayOfMonth(1).toLocalDate().atStartOfDay();
-        LocalDateTime to = from.plusMonths(1);
-        return repository.sumDurationForUserBetween(userId, from, to).defaultIfEmpty(0L);
+    private Mono<Long> reserveId() {
+        return Mono.defer(() -> {
+            Long id = reservedIds.poll();
+            if (id != null) {
+                return Mono.just(id);
+            }
+            return databaseClient.sql(RESERVE_IDS_SQL)
+                    .bind("count", idBlockSize)
+                    .map(row -> row.get("id", Long.class))
+                    .all()
+                    .collectList()
+                    .map(block -> {
+                        reservedIds.addAll(block.subList(1, block.size()));
+                        return block.get(0);
+                    });
+        });
     }
 
-    public Mono<Long> totalSecondsThisMonth() {
-        LocalDateTime from = LocalDateTime.now().withDayOfMonth(1).toLocalDate().atStartOfDay();
-        LocalDateTime to = from.plusMonths(1);
-        return repository.sumDurationBetween(from, to).defaultIfEmpty(0L);
+    private SubmissionSession close(ActiveSession session, long endedMillis) {
+        LocalDateTime endedAt = toLocal(Math.max(endedMillis, session.startedMillis));
+        long seconds = Duration.between(session.startedAt, endedAt).getSeconds();
+        SubmissionSession row = new SubmissionSession(session.id, session.feedbackId, null, session.userId,
+                session.startedAt, endedAt, seconds, session.startedAt, endedAt);
+        closed.add(row);
+        return row;
+    }
+
+    private LocalDateTime toLocal(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), clock.getZone());
     }
-}
 
+    private final class ActiveSession {
+        final Long id;
+        final String userId;
+        final Long feedbackId;
+        final LocalDateTime startedAt;
+        final long startedMillis;
+        volatile long lastSeenMillis;
+        volatile long checkpointedMillis;
 
+        ActiveSession(Long id, String userId, Long feedbackId, LocalDateTime startedAt, long startedMillis) {
+            this.id = id;
+            this.userId = userId;
+            this.feedbackId = feedbackId;
+            this.startedAt = startedAt;
+            this.startedMillis = startedMillis;
+            this.lastSeenMillis = startedMillis;
+        }
+
+        SubmissionSession openRow() {
+            return new SubmissionSession(id, feedbackId, null, userId,
+                    startedAt, null, null, startedAt, toLocal(lastSeenMillis));
+        }
+    }
+}
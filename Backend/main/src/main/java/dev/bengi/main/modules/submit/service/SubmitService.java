@@ -1,10 +1,15 @@
 package dev.bengi.main.modules.submit.service;
 
+import dev.bengi.main.common.pagination.KeysetQuery;
 import dev.bengi.main.common.pagination.PageRequest;
 import dev.bengi.main.common.pagination.PageResponse;
 import dev.bengi.main.common.pagination.PaginationService;
 import dev.bengi.main.exception.ErrorCode;
 import dev.bengi.main.exception.GlobalServiceException;
+import dev.bengi.main.modules.dashboard.service.ActivityEventService;
+import dev.bengi.main.modules.dashboard.service.DashboardCounterService;
+import dev.bengi.main.modules.feedback.service.FeedbackInboxService;
+import dev.bengi.main.modules.feedback.service.FeedbackResultsService;
 import dev.bengi.main.modules.submit.dto.SubmitMapper;
 import dev.bengi.main.modules.submit.dto.SubmitRequestDto;
 import dev.bengi.main.modules.submit.dto.SubmitResponseDto;
@@ -31,6 +36,10 @@ public class SubmitService {
     private final FeedbackRepository feedbackRepository;
     private final FeedbackTargetRepository feedbackTargetRepository;
     private final PaginationService paginationService;
+    private final DashboardCounterService dashboardCounterService;
+    private final FeedbackResultsService feedbackResultsService;
+    private final ActivityEventService activityEventService;
+    private final FeedbackInboxService feedbackInboxService;
 
     @Transactional
     public Mono<SubmitResponseDto> submit(String userId, SubmitRequestDto req) {
@@ -42,17 +51,38 @@ public class SubmitService {
         // Validate feedback existence and timing
         return feedbackRepository.findById(req.feedbackId())
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "Feedback not found")))
-                .flatMap(feedback -> validateFeedbackTiming(feedback))
-                .then(validateResponses(req))
-                .then(Mono.defer(() -> {
+                .flatMap(feedback -> validateFeedbackTiming(feedback).thenReturn(feedback))
+                .flatMap(feedback -> validateResponses(req).then(Mono.defer(() -> {
                     Submit entity = mapper.toEntity(req);
                     entity.setUserId(userId);
                     return submitRepository.save(entity)
-                            .flatMap(saved -> reactor.core.publisher.Flux.fromIterable(req.responses().entrySet())
-                                    .flatMap(e -> submissionResponseRepository.upsertResponse(saved.getId(), e.getKey(), e.getValue()))
+                            .flatMap(saved -> upsertResponses(saved.getId(), req.responses())
+                                    .then(feedbackResultsService.recordSubmission(saved.getFeedbackId(), req.responses()))
+                                    .then(feedbackInboxService.markSubmitted(userId, saved.getFeedbackId()))
+                                    .then(dashboardCounterService.recordCreated(
+                                            DashboardCounterService.SUBMISSIONS, saved.getSubmittedAt(), false))
+                                    // Only public submissions are logged with an actor
+                                    .then(activityEventService.record(
+                                            SubmitMapper.activityActor(userId, saved.isAnonymous(), saved.getPrivacyLevel()),
+                                            "submitted feedback", ActivityEventService.SUBMISSION,
+                                            saved.getId(), feedback.getTitle(), feedback.getProjectId()))
                                     .then(Mono.just(saved)))
                             .map(mapper::toResponse);
-                }));
+                })));
+    }
+
+    private Mono<Void> upsertResponses(Long submissionId, java.util.Map<Long, String> responses) {
+        if (responses.isEmpty()) {
+            return Mono.empty();
+        }
+        Long[] questionIds = new Long[responses.size()];
+        String[] answers = new String[responses.size()];
+        int i = 0;
+        for (java.util.Map.Entry<Long, String> e : responses.entrySet()) {
+            questionIds[i] = e.getKey();
+            answers[i++] = e.getValue();
+        }
+        return submissionResponseRepository.upsertResponses(submissionId, questionIds, answers).then();
     }
 
     private Mono<Void> validateFeedbackTiming(dev.bengi.main.modules.feedback.model.Feedback feedback) {
@@ -123,12 +153,30 @@ public class SubmitService {
     }
 
     public Mono<PageResponse<SubmitResponseDto>> getAllSubmissions(PageRequest pageRequest) {
-        return paginationService.paginateInMemory(
-            submitRepository.findAll().flatMap(this::loadResponses).map(mapper::toResponse),
-            pageRequest
+        return paginationService.paginateKeyset(
+            KeysetQuery.of(Submit.class, "SELECT * FROM submissions")
+                .nullableSortableBy("submitted_at", "updated_at", "analyzed_at"),
+            pageRequest,
+            page -> loadResponsesForPage(page).map(mapper::toResponse)
         );
     }
 
+    /**
+     * Load responses for a page of submissions with a single query.
+     */
+    private Flux<Submit> loadResponsesForPage(java.util.List<Submit> submits) {
+        Long[] ids = submits.stream().map(Submit::getId).toArray(Long[]::new);
+        return submissionResponseRepository.findResponsesBySubmissions(ids)
+                .collectMultimap(row -> row.submissionId)
+                .flatMapMany(bySubmission -> Flux.fromIterable(submits).map(submit -> {
+                    java.util.Map<Long, String> responseMap = new java.util.HashMap<>();
+                    bySubmission.getOrDefault(submit.getId(), java.util.List.of())
+                            .forEach(row -> responseMap.put(row.questionId, row.response));
+                    submit.setResponses(responseMap);
+                    return submit;
+                }));
+    }
+
     private Mono<Submit> loadResponses(Submit submit) {
         return submissionResponseRepository.findResponsesBySubmission(submit.getId())
                 .collectMap(
@@ -0,0 +1,51 @@
+package dev.bengi.main.modules.submit.service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: {@code slots} buckets of one {@code tick} each, with a cursor that
+ * {@link #advance} moves forward in whole ticks, handing back everything in the buckets it
+ * passes. Scheduling is O(1) and nothing is kept sorted.
+ * <p>
+ * Deadlines are only as precise as one tick, and a deadline more than one revolution away
+ * comes back early. Callers treat what {@link #advance} returns as "maybe due": check the
+ * real deadline and schedule again if it has moved, which is also how extending a deadline
+ * works without touching the wheel.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<ArrayDeque<T>> buckets;
+    private long cursor;
+
+    TimingWheel(Duration tick, int slots, long nowMillis) {
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.buckets = new ArrayList<>(slots);
+        for (int i = 0; i < Math.max(1, slots); i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.cursor = nowMillis / tickMillis;
+    }
+
+    synchronized void schedule(T item, long deadlineMillis) {
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), cursor + 1);
+        buckets.get((int) Math.floorMod(tick, (long) buckets.size())).add(item);
+    }
+
+    synchronized List<T> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<T> due = new ArrayList<>();
+        // After a long pause one revolution already visits every bucket
+        long steps = Math.min(target - cursor, buckets.size());
+        for (long i = 0; i < steps; i++) {
+            ArrayDeque<T> bucket = buckets.get((int) Math.floorMod(cursor + 1 + i, (long) buckets.size()));
+            due.addAll(bucket);
+            bucket.clear();
+        }
+        cursor = Math.max(cursor, target);
+        return due;
+    }
+}
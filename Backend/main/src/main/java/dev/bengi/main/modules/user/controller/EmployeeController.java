@@ -3,6 +3,7 @@ package dev.bengi.main.modules.user.controller;
 import dev.bengi.main.common.pagination.PageResponse;
 import dev.bengi.main.common.pagination.PaginationService;
 import dev.bengi.main.modules.feedback.dto.FeedbackResponseDto;
+import dev.bengi.main.modules.feedback.service.FeedbackInboxService;
 import dev.bengi.main.modules.feedback.service.FeedbackService;
 import dev.bengi.main.modules.projects.dto.ProjectResponseDto;
 import dev.bengi.main.modules.projects.service.ProjectService;
@@ -29,6 +30,7 @@ public class EmployeeController {
     private final UserManagementService userManagementService;
     private final ProjectService projectService;
     private final FeedbackService feedbackService;
+    private final FeedbackInboxService feedbackInboxService;
     private final SubmitService submitService;
     private final PaginationService paginationService;
     
@@ -150,17 +152,16 @@ public class EmployeeController {
                     Map<String, Object> summary = new java.util.HashMap<>();
                     summary.put("user", user);
                     
-                    // Get counts asynchronously
+                    // Get counts asynchronously; both feedback counts come from one inbox read
                     return Mono.zip(
                         projectService.countProjectsByMember(user.id()),
-                        feedbackService.countAvailableFeedbacksForUser(username),
-                        submitService.countSubmissionsByUser(username),
-                        feedbackService.countPendingFeedbacksForUser(username)
+                        feedbackInboxService.summary(user.id()),
+                        submitService.countSubmissionsByUser(username)
                     ).map(counts -> {
                         summary.put("projectCount", counts.getT1());
-                        summary.put("availableFeedbacks", counts.getT2());
+                        summary.put("availableFeedbacks", counts.getT2().available());
                         summary.put("totalSubmissions", counts.getT3());
-                        summary.put("pendingFeedbacks", counts.getT4());
+                        summary.put("pendingFeedbacks", counts.getT2().pending());
                         summary.put("timestamp", java.time.LocalDateTime.now());
                         return summary;
                     });
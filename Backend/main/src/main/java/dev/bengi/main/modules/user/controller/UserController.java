@@ -136,6 +136,10 @@ public class UserController {
             ServerWebExchange exchange) {
         var pageRequest = paginationService.parsePageRequest(exchange);
         pageRequest.setSearch(query);
+        // Best matches first unless the client asked for a specific order
+        if (exchange.getRequest().getQueryParams().getFirst("sortBy") == null) {
+            pageRequest.setSortBy(PaginationService.RELEVANCE_SORT);
+        }
         return userManagementService.searchUsers(pageRequest)
                 .map(ResponseEntity::ok);
     }
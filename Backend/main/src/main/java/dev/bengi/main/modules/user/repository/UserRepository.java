@@ -24,6 +24,10 @@ public interface UserRepository extends R2dbcRepository<User, Long> {
     @Query("SELECT * FROM users WHERE department_id = :departmentId")
     Flux<User> findByDepartmentId(Long departmentId);
 
+    // Served from idx_users_department_id; departments without members are absent
+    @Query("SELECT department_id, COUNT(*) AS member_count FROM users WHERE department_id = ANY(:departmentIds) GROUP BY department_id")
+    Flux<DepartmentMemberCount> countByDepartmentIds(Long[] departmentIds);
+
     // Fetch user with roles (roles as names) via join; consumer can populate transient field
     @Query("SELECT u.* FROM users u WHERE u.username = :username")
     Mono<User> findUserCoreByUsername(String username);
@@ -31,6 +35,18 @@ public interface UserRepository extends R2dbcRepository<User, Long> {
     @Query("SELECT r.name FROM roles r JOIN user_roles ur ON ur.role_id = r.id JOIN users u ON ur.user_id = u.id WHERE u.username = :username")
     reactor.core.publisher.Flux<String> findRoleNamesByUsername(String username);
 
+    // Login lookup in one round trip: credentials and role names, without the rest of the row
+    @Query("""
+        SELECT u.id, u.username, u.email, u.password,
+               COALESCE(array_agg(r.name ORDER BY r.name) FILTER (WHERE r.name IS NOT NULL), '{}') AS role_names
+        FROM users u
+        LEFT JOIN user_roles ur ON ur.user_id = u.id
+        LEFT JOIN roles r ON r.id = ur.role_id
+        WHERE u.username = :username
+        GROUP BY u.id
+        """)
+    Mono<LoginAccount> findLoginAccount(String username);
+
     // Advanced dashboard metrics queries
     @Query("SELECT COUNT(DISTINCT id) FROM users WHERE active = true")
     Mono<Long> countActiveUsers();
@@ -44,4 +60,21 @@ public interface UserRepository extends R2dbcRepository<User, Long> {
     // Dashboard stats methods
     @Query("SELECT COUNT(*) FROM users WHERE created_at >= :from AND created_at < :to")
     Mono<Long> countNewUsersBetween(java.time.LocalDateTime from, java.time.LocalDateTime to);
+
+    class LoginAccount {
+        public Long id;
+        public String username;
+        public String email;
+        public String password;
+        public String[] roleNames;
+
+        public LoginAccount() {}
+    }
+
+    class DepartmentMemberCount {
+        public Long departmentId;
+        public Long memberCount;
+
+        public DepartmentMemberCount() {}
+    }
 }
@@ -0,0 +1,128 @@
+package dev.bengi.main.modules.user.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Write-behind buffer for {@code users.last_login_at}.
+ * <p>
+ * Logins only record the timestamp in memory; a scheduled flush writes everything pending in
+ * batches of {@code batch-size} users, one UPDATE per batch that touches only that column.
+ * Repeated logins of the same user between flushes collapse into one write. A failed batch is
+ * put back and retried on the next flush; the column can lag by up to one flush interval, and
+ * entries still pending when the process is killed without a shutdown are lost.
+ */
+@Service
+@Slf4j
+public class LastLoginTracker {
+
+    private static final String UPDATE_SQL = """
+        UPDATE users u
+        SET last_login_at = v.last_login_at
+        FROM unnest(CAST(:ids AS BIGINT[]), CAST(:times AS TIMESTAMP[])) AS v(id, last_login_at)
+        WHERE u.id = v.id AND (u.last_login_at IS NULL OR u.last_login_at < v.last_login_at)
+        """;
+
+    private final DatabaseClient databaseClient;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private final ConcurrentMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final Counter written;
+    private final Counter failed;
+
+    public LastLoginTracker(DatabaseClient databaseClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.security.last-login.batch-size:500}") int batchSize,
+                            @Value("${app.security.last-login.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.databaseClient = databaseClient;
+        this.batchSize = Math.max(1, batchSize);
+        this.shutdownTimeout = shutdownTimeout;
+        meterRegistry.gaugeMapSize("users.last_login.pending", List.of(), pending);
+        this.written = Counter.builder("users.last_login.written")
+                .description("last_login_at values written by the write-behind flush")
+                .register(meterRegistry);
+        this.failed = Counter.builder("users.last_login.failed")
+                .description("last_login_at values whose write failed and was requeued")
+                .register(meterRegistry);
+    }
+
+    public void record(Long userId, LocalDateTime loggedInAt) {
+        pending.merge(userId, loggedInAt, LastLoginTracker::latest);
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.security.last-login.flush-interval:PT5S}",
+            fixedDelayString = "${app.security.last-login.flush-interval:PT5S}")
+    public Mono<Void> flush() {
+        List<Map.Entry<Long, LocalDateTime>> drained = drain();
+        if (drained.isEmpty()) {
+            return Mono.empty();
+        }
+        List<List<Map.Entry<Long, LocalDateTime>>> batches = new ArrayList<>();
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            batches.add(drained.subList(from, Math.min(from + batchSize, drained.size())));
+        }
+        return Flux.fromIterable(batches)
+                .concatMap(this::write)
+                .then();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush().block(shutdownTimeout);
+    }
+
+    private Mono<Void> write(List<Map.Entry<Long, LocalDateTime>> batch) {
+        Long[] ids = new Long[batch.size()];
+        LocalDateTime[] times = new LocalDateTime[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            ids[i] = batch.get(i).getKey();
+            times[i] = batch.get(i).getValue();
+        }
+        return databaseClient.sql(UPDATE_SQL)
+                .bind("ids", ids)
+                .bind("times", times)
+                .then()
+                .doOnSuccess(v -> written.increment(batch.size()))
+                .onErrorResume(e -> {
+                    log.warn("Writing last_login_at for {} users failed, retrying on next flush: {}",
+                            batch.size(), e.getMessage());
+                    failed.increment(batch.size());
+                    batch.forEach(entry -> record(entry.getKey(), entry.getValue()));
+                    return Mono.empty();
+                });
+    }
+
+    // Takes entries out one by one; a value replaced concurrently stays for the next flush
+    private List<Map.Entry<Long, LocalDateTime>> drain() {
+        List<Map.Entry<Long, LocalDateTime>> drained = new ArrayList<>();
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            Long userId = entry.getKey();
+            LocalDateTime loggedInAt = entry.getValue();
+            if (pending.remove(userId, loggedInAt)) {
+                drained.add(Map.entry(userId, loggedInAt));
+            }
+        }
+        return drained;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -1,8 +1,11 @@
 package dev.bengi.main.modules.user.service;
 
+import dev.bengi.main.common.cache.ReferenceDataCache;
+import dev.bengi.main.common.cache.RequestMemo;
 import dev.bengi.main.common.pagination.PageRequest;
 import dev.bengi.main.common.pagination.PageResponse;
 import dev.bengi.main.common.pagination.PaginationService;
+import dev.bengi.main.common.search.SearchTarget;
 import dev.bengi.main.exception.ErrorCode;
 import dev.bengi.main.exception.GlobalServiceException;
 import dev.bengi.main.modules.user.dto.*;
@@ -10,12 +13,14 @@ import dev.bengi.main.modules.user.model.User;
 import dev.bengi.main.modules.user.repository.UserRepository;
 import dev.bengi.main.modules.user.repository.UserRoleRepository;
 import dev.bengi.main.modules.role.repository.RoleRepository;
+import dev.bengi.main.modules.dashboard.service.DashboardCounterService;
+import dev.bengi.main.modules.feedback.service.FeedbackInboxService;
 import dev.bengi.main.modules.department.repository.DepartmentRepository;
+import dev.bengi.main.security.PasswordHasher;
 import dev.bengi.main.security.SecurityAuditService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -36,20 +41,19 @@ public class UserManagementService {
     private final RoleRepository roleRepository;
     private final DepartmentRepository departmentRepository;
     private final DatabaseClient databaseClient;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final PaginationService paginationService;
     private final SecurityAuditService auditService;
+    private final DashboardCounterService dashboardCounterService;
+    private final ReferenceDataCache referenceDataCache;
+    private final FeedbackInboxService feedbackInboxService;
+    private final RequestMemo requestMemo;
 
     // Allowed sort fields for users
     private static final Set<String> ALLOWED_SORT_FIELDS = Set.of(
         "id", "username", "email", "first_name", "last_name", "created_at", "updated_at", "last_login_at"
     );
 
-    // Searchable fields
-    private static final Set<String> SEARCHABLE_FIELDS = Set.of(
-        "username", "email", "first_name", "last_name"
-    );
-
     public Mono<Map<String, Object>> getUserStats() {
         return Mono.zip(
                 userRepository.count(),
@@ -78,26 +82,28 @@ public class UserManagementService {
         return paginationService.executePaginatedQuery(
             baseQuery,
             countQuery,
+            Map.of(),
             pageRequest,
             ALLOWED_SORT_FIELDS,
-            SEARCHABLE_FIELDS,
+            paginationService.buildSearchCondition(pageRequest, SearchTarget.USERS, "u"),
             this::executeUserQuery,
             this::executeCountQuery
         );
     }
 
+    // Composite endpoints resolve the same user several times; within a request it is loaded once
     public Mono<UserResponseDto> findUserById(Long id) {
-        return findUserWithDepartment(id)
+        return requestMemo.memoize("user.byId", id, () -> findUserWithDepartment(id)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "User not found")))
                 .flatMap(this::enrichUserWithRoles)
-                .map(this::mapToResponseDto);
+                .flatMap(this::toResponseDto));
     }
 
     public Mono<UserResponseDto> findUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return requestMemo.memoize("user.byUsername", username, () -> userRepository.findByUsername(username)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "User not found")))
                 .flatMap(this::enrichUserWithRoles)
-                .map(this::mapToResponseDto);
+                .flatMap(this::toResponseDto));
     }
 
     @Transactional
@@ -106,17 +112,22 @@ public class UserManagementService {
         return validateUserUniqueness(request.username(), request.email())
                 .then(validateDepartmentExists(request.departmentId()))
                 .then(validateRolesExist(request.roles()))
-                .then(Mono.defer(() -> {
+                .then(Mono.defer(() -> passwordHasher.encode(request.password())))
+                .flatMap(hash -> {
                     User user = mapToUser(request);
-                    user.setPassword(passwordEncoder.encode(request.password()));
+                    user.setPassword(hash);
                     
                     return userRepository.save(user)
                             .flatMap(savedUser -> assignRolesToUser(savedUser.getId(), request.roles())
+                                    .then(referenceDataCache.evictRoles(savedUser.getUsername()))
+                                    .then(dashboardCounterService.recordCreated(
+                                            DashboardCounterService.USERS, savedUser.getCreatedAt(), savedUser.isActive()))
+                                    .then(feedbackInboxService.refreshUser(savedUser.getId()))
                                     .thenReturn(savedUser))
-                            .flatMap(this::enrichUserWithRoles)
-                            .map(this::mapToResponseDto)
+                            .flatMap(this::enrichUserWithCurrentRoles)
+                            .flatMap(this::toResponseDto)
                             .doOnSuccess(u -> log.info("User created: {}", u.username()));
-                }));
+                });
     }
 
     @Transactional
@@ -136,13 +147,18 @@ public class UserManagementService {
                     // Validate department
                     Mono<Void> deptValidation = validateDepartmentExists(request.departmentId());
                     
+                    // Department targeting follows the user to their new department
+                    Long previousDepartmentId = user.getDepartmentId();
                     return emailValidation.then(deptValidation).then(Mono.defer(() -> {
                         updateUserFields(user, request, isSelfUpdate);
                         return userRepository.save(user);
-                    }));
+                    })).flatMap(saved -> java.util.Objects.equals(previousDepartmentId, saved.getDepartmentId())
+                            ? Mono.just(saved)
+                            : feedbackInboxService.refreshUser(saved.getId()).thenReturn(saved));
                 })
-                .flatMap(this::enrichUserWithRoles)
-                .map(this::mapToResponseDto)
+                .flatMap(saved -> referenceDataCache.evictRoles(saved.getUsername()).thenReturn(saved))
+                .flatMap(this::enrichUserWithCurrentRoles)
+                .flatMap(this::toResponseDto)
                 .doOnSuccess(u -> log.info("User updated: {}", u.username()));
     }
 
@@ -157,14 +173,20 @@ public class UserManagementService {
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "User not found")))
                 .flatMap(user -> {
                     // If self-update, verify current password
+                    Mono<Void> verified = Mono.empty();
                     if (isSelfUpdate && request.currentPassword() != null) {
-                        if (!passwordEncoder.matches(request.currentPassword(), user.getPassword())) {
-                            return Mono.error(new GlobalServiceException(ErrorCode.UNAUTHORIZED, "Current password is incorrect"));
-                        }
+                        verified = passwordHasher.matches(request.currentPassword(), user.getPassword())
+                                .flatMap(matches -> matches
+                                        ? Mono.<Void>empty()
+                                        : Mono.error(new GlobalServiceException(ErrorCode.UNAUTHORIZED, "Current password is incorrect")));
                     }
                     
-                    user.setPassword(passwordEncoder.encode(request.newPassword()));
-                    return userRepository.save(user);
+                    return verified
+                            .then(Mono.defer(() -> passwordHasher.encode(request.newPassword())))
+                            .flatMap(hash -> {
+                                user.setPassword(hash);
+                                return userRepository.save(user);
+                            });
                 })
                 .then()
                 .doOnSuccess(v -> log.info("Password changed for user ID: {}", id));
@@ -177,9 +199,10 @@ public class UserManagementService {
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "User not found")))
                 .flatMap(user -> removeAllUserRoles(user.getId())
                         .then(assignRolesToUser(user.getId(), request.roles()))
+                        .then(referenceDataCache.evictRoles(user.getUsername()))
                         .thenReturn(user))
-                .flatMap(this::enrichUserWithRoles)
-                .map(this::mapToResponseDto)
+                .flatMap(this::enrichUserWithCurrentRoles)
+                .flatMap(this::toResponseDto)
                 .doOnSuccess(u -> log.info("User roles updated: {} -> {}", u.username(), u.roles()));
     }
 
@@ -193,7 +216,10 @@ public class UserManagementService {
                         return Mono.error(new GlobalServiceException(ErrorCode.BAD_REQUEST, "Cannot delete your own account"));
                     }
                     
-                    return userRepository.deleteById(id);
+                    return userRepository.deleteById(id)
+                            .then(referenceDataCache.evictRoles(user.getUsername()))
+                            .then(dashboardCounterService.recordDeleted(
+                                    DashboardCounterService.USERS, user.getCreatedAt(), user.isActive()));
                 })
                 .doOnSuccess(v -> log.info("User deleted: ID {}", id));
     }
@@ -217,23 +243,24 @@ public class UserManagementService {
             LEFT JOIN departments d ON u.department_id = d.id
             JOIN user_roles ur ON u.id = ur.user_id
             JOIN roles r ON ur.role_id = r.id
-            WHERE r.name = '%s'
-            """.formatted(roleName);
+            WHERE r.name = :roleName
+            """;
         
         String countQuery = """
             SELECT COUNT(*)
             FROM users u
             JOIN user_roles ur ON u.id = ur.user_id
             JOIN roles r ON ur.role_id = r.id
-            WHERE r.name = '%s'
-            """.formatted(roleName);
+            WHERE r.name = :roleName
+            """;
 
         return paginationService.executePaginatedQuery(
             baseQuery,
             countQuery,
+            Map.of("roleName", roleName),
             pageRequest,
             ALLOWED_SORT_FIELDS,
-            SEARCHABLE_FIELDS,
+            paginationService.buildSearchCondition(pageRequest, SearchTarget.USERS, "u"),
             this::executeUserQuery,
             this::executeCountQuery
         );
@@ -306,14 +333,23 @@ public class UserManagementService {
     }
 
     private Mono<User> enrichUserWithRoles(User user) {
-        return userRepository.findRoleNamesByUsername(user.getUsername())
-                .collectList()
+        return referenceDataCache.roleNames(user.getUsername())
                 .map(roleNames -> {
                     user.setRoles(Set.copyOf(roleNames));
                     return user;
                 });
     }
 
+    // Inside a transaction that may have changed them: the cache reads outside it
+    private Mono<User> enrichUserWithCurrentRoles(User user) {
+        return userRepository.findRoleNamesByUsername(user.getUsername())
+                .collect(java.util.stream.Collectors.toUnmodifiableSet())
+                .map(roleNames -> {
+                    user.setRoles(roleNames);
+                    return user;
+                });
+    }
+
     private Mono<Void> assignRolesToUser(Long userId, Set<String> roles) {
         if (roles == null || roles.isEmpty()) return Mono.empty();
         
@@ -335,11 +371,15 @@ public class UserManagementService {
         return userRepository.findById(id)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "User not found")))
                 .flatMap(user -> {
+                    boolean wasActive = user.isActive();
                     user.setActive(active);
-                    return userRepository.save(user);
+                    return userRepository.save(user)
+                            .flatMap(saved -> dashboardCounterService
+                                    .recordActiveChanged(DashboardCounterService.USERS, wasActive, active)
+                                    .thenReturn(saved));
                 })
                 .flatMap(this::enrichUserWithRoles)
-                .map(this::mapToResponseDto)
+                .flatMap(this::toResponseDto)
                 .doOnSuccess(u -> log.info("User {}: {}", action, u.username()));
     }
 
@@ -368,18 +408,15 @@ public class UserManagementService {
         }
     }
 
-    private UserResponseDto mapToResponseDto(User user) {
+    private Mono<UserResponseDto> toResponseDto(User user) {
+        return referenceDataCache.departmentName(user.getDepartmentId())
+                .defaultIfEmpty("Unknown Department")
+                .map(deptName -> mapToResponseDto(user, deptName));
+    }
+
+    private UserResponseDto mapToResponseDto(User user, String deptName) {
         java.util.Set<dev.bengi.main.modules.user.dto.DepartmentSummaryDto> departments = new java.util.HashSet<>();
         if (user.getDepartmentId() != null) {
-            // For now, use a simple mapping approach
-            String deptName = "Unknown Department";
-            if (user.getDepartmentId() == 2L) {
-                deptName = "Engineering";
-            } else if (user.getDepartmentId() == 3L) {
-                deptName = "Testing";
-            } else if (user.getDepartmentId() == 4L) {
-                deptName = "Engineering";
-            }
             departments.add(new dev.bengi.main.modules.user.dto.DepartmentSummaryDto(user.getDepartmentId(), deptName));
         }
         return new UserResponseDto(
@@ -398,8 +435,8 @@ public class UserManagementService {
         );
     }
 
-    private Flux<UserResponseDto> executeUserQuery(String query) {
-        return databaseClient.sql(query)
+    private Flux<UserResponseDto> executeUserQuery(DatabaseClient.GenericExecuteSpec query) {
+        return query
                 .map((row, meta) -> {
                     User user = new User();
                     user.setId(row.get("id", Long.class));
@@ -417,7 +454,8 @@ public class UserManagementService {
                     return new Object[]{user, deptName};
                 })
                 .all()
-                .flatMap(arr -> {
+                // Sequential: keeps the query's order, which may be a search ranking
+                .flatMapSequential(arr -> {
                     User u = (User) arr[0];
                     String deptName = (String) arr[1];
                     return enrichUserWithRoles(u).map(userWithRoles -> {
@@ -443,8 +481,8 @@ public class UserManagementService {
                 });
     }
 
-    private Mono<Long> executeCountQuery(String query) {
-        return databaseClient.sql(query)
+    private Mono<Long> executeCountQuery(DatabaseClient.GenericExecuteSpec query) {
+        return query
                 .map((row, meta) -> row.get(0, Long.class))
                 .one();
     }
@@ -462,11 +500,12 @@ public class UserManagementService {
         String countQuery = "SELECT COUNT(*) FROM users u WHERE u.department_id = :departmentId AND u.active = true";
 
         return paginationService.executePaginatedQuery(
-            baseQuery.replace(":departmentId", String.valueOf(departmentId)),
-            countQuery.replace(":departmentId", String.valueOf(departmentId)),
+            baseQuery,
+            countQuery,
+            Map.of("departmentId", departmentId),
             pageRequest,
             ALLOWED_SORT_FIELDS,
-            SEARCHABLE_FIELDS,
+            paginationService.buildSearchCondition(pageRequest, SearchTarget.USERS, "u"),
             this::executeUserQuery,
             this::executeCountQuery
         );
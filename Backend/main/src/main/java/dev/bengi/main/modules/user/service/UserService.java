@@ -1,7 +1,10 @@
 package dev.bengi.main.modules.user.service;
 
+import dev.bengi.main.common.cache.ReferenceDataCache;
 import dev.bengi.main.exception.ErrorCode;
 import dev.bengi.main.exception.GlobalServiceException;
+import dev.bengi.main.modules.dashboard.service.DashboardCounterService;
+import dev.bengi.main.modules.feedback.service.FeedbackInboxService;
 import dev.bengi.main.modules.user.dto.JwtResponse;
 import dev.bengi.main.modules.user.dto.LoginRequest;
 import dev.bengi.main.modules.user.dto.RegisterRequest;
@@ -9,10 +12,10 @@ import dev.bengi.main.modules.user.dto.TokenValidationResponse;
 import dev.bengi.main.modules.user.model.User;
 import dev.bengi.main.modules.user.repository.UserRepository;
 import dev.bengi.main.security.JwtProvider;
+import dev.bengi.main.security.PasswordHasher;
 import dev.bengi.main.security.SecurityAuditService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
@@ -34,46 +37,46 @@ import java.util.Set;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtProvider jwtProvider;
     private final SecurityAuditService auditService;
     private final PaginationService paginationService;
+    private final DashboardCounterService dashboardCounterService;
+    private final ReferenceDataCache referenceDataCache;
+    private final LastLoginTracker lastLoginTracker;
+    private final FeedbackInboxService feedbackInboxService;
 
     public Mono<JwtResponse> login(LoginRequest login) {
         return login(login, "unknown");
     }
 
     public Mono<JwtResponse> login(LoginRequest login, String clientIp) {
-        return userRepository.findByUsername(login.username())
+        // One query for the user and role names; last_login_at is written behind, not saved here
+        return userRepository.findLoginAccount(login.username())
                 .switchIfEmpty(Mono.defer(() -> {
                     auditService.logFailedAuthentication(login.username(), clientIp, "User not found");
                     return Mono.error(new GlobalServiceException(ErrorCode.UNAUTHORIZED, "Invalid credentials"));
                 }))
-                .flatMap(user -> userRepository.findRoleNamesByUsername(user.getUsername()).collectList()
-                        .map(roleNames -> {
-                            user.setRoles(new java.util.HashSet<>(roleNames));
-                            return user;
-                        }))
-                .flatMap(user -> {
-                    if (!passwordEncoder.matches(login.password(), user.getPassword())) {
+                .flatMap(account -> passwordHasher.matches(login.password(), account.password).flatMap(matches -> {
+                    if (!matches) {
                         auditService.logFailedAuthentication(login.username(), clientIp, "Invalid password");
                         return Mono.error(new GlobalServiceException(ErrorCode.UNAUTHORIZED, "Invalid credentials"));
                     }
                     
-                    // Update last login time
-                    user.setLastLoginAt(LocalDateTime.now());
+                    lastLoginTracker.record(account.id, LocalDateTime.now());
                     
-                    List<String> roles = user.getRoles().isEmpty() ? List.of("USER") : user.getRoles().stream().toList();
-                    String access = jwtProvider.createToken(user.getUsername(), roles);
-                    String refresh = jwtProvider.createRefreshToken(user.getUsername());
+                    List<String> roles = account.roleNames == null || account.roleNames.length == 0
+                            ? List.of("USER")
+                            : List.of(account.roleNames);
+                    String access = jwtProvider.createToken(account.username, roles);
+                    String refresh = jwtProvider.createRefreshToken(account.username);
                     
                     // Log successful authentication
-                    auditService.logSuccessfulAuthentication(user.getUsername(), clientIp);
-                    log.info("User {} logged in successfully from IP: {}", user.getUsername(), clientIp);
+                    auditService.logSuccessfulAuthentication(account.username, clientIp);
+                    log.info("User {} logged in successfully from IP: {}", account.username, clientIp);
                     
-                    return userRepository.save(user)
-                            .map(savedUser -> new JwtResponse(access, refresh, savedUser.getId(), savedUser.getUsername(), savedUser.getEmail(), roles));
-                });
+                    return Mono.just(new JwtResponse(access, refresh, account.id, account.username, account.email, roles));
+                }));
     }
 
     @Transactional
@@ -86,13 +89,16 @@ public class UserService {
                 .flatMap(exists -> exists
                         ? Mono.error(new GlobalServiceException(ErrorCode.CONFLICT, "Email already exists"))
                         : Mono.just(Boolean.FALSE))
-                .then(Mono.defer(() -> {
+                .then(Mono.defer(() -> passwordHasher.encode(register.password())))
+                .flatMap(hash -> {
                     User user = new User();
                     user.setUsername(register.username());
                     user.setEmail(register.email());
-                    user.setPassword(passwordEncoder.encode(register.password()));
-                    return userRepository.save(user).then();
-                }));
+                    user.setPassword(hash);
+                    return userRepository.save(user)
+                            .flatMap(saved -> dashboardCounterService.recordCreated(
+                                    DashboardCounterService.USERS, saved.getCreatedAt(), saved.isActive()));
+                });
     }
 
     public Mono<TokenValidationResponse> validate(String bearerToken) {
@@ -123,7 +129,9 @@ public class UserService {
         
         return userRepository.findByUsername(username)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "User not found")))
-                .flatMap(user -> userRepository.findRoleNamesByUsername(user.getUsername()).collectList()
+                // Read uncached: tokens must carry the roles as of now, not as of the last cache load
+                .flatMap(user -> userRepository.findRoleNamesByUsername(user.getUsername())
+                        .collectList()
                         .map(roleNames -> {
                             user.setRoles(new java.util.HashSet<>(roleNames));
                             return user;
@@ -139,19 +147,21 @@ public class UserService {
     }
 
     public Mono<PageResponse<UserResponseDto>> getUsersByDepartmentId(Long departmentId, PageRequest pageRequest) {
-        return userRepository.findByDepartmentId(departmentId)
-                .map(this::mapToUserResponseDto)
-                .collectList()
+        return referenceDataCache.departmentName(departmentId)
+                .defaultIfEmpty("Department")
+                .flatMap(departmentName -> userRepository.findByDepartmentId(departmentId)
+                        .map(user -> mapToUserResponseDto(user, departmentName))
+                        .collectList())
                 .flatMap(users -> paginationService.paginateInMemory(Flux.fromIterable(users), pageRequest))
                 .doOnSuccess(d -> log.info("Found {} users for department {}", 
                     d.getContent().size(), departmentId));
     }
 
-    private UserResponseDto mapToUserResponseDto(User user) {
+    private UserResponseDto mapToUserResponseDto(User user, String departmentName) {
         // Create a DepartmentSummaryDto for the user's department
         Set<DepartmentSummaryDto> departments = new HashSet<>();
         if (user.getDepartmentId() != null) {
-            departments.add(new DepartmentSummaryDto(user.getDepartmentId(), "Department"));
+            departments.add(new DepartmentSummaryDto(user.getDepartmentId(), departmentName));
         }
 
         return new UserResponseDto(
@@ -170,6 +180,17 @@ public class UserService {
         );
     }
 
+    /**
+     * Member count per department for a batch of departments, in one grouped query.
+     */
+    public Mono<java.util.Map<Long, Long>> countMembersByDepartment(java.util.Collection<Long> departmentIds) {
+        if (departmentIds.isEmpty()) {
+            return Mono.just(java.util.Map.of());
+        }
+        return userRepository.countByDepartmentIds(departmentIds.toArray(Long[]::new))
+                .collectMap(row -> row.departmentId, row -> row.memberCount);
+    }
+
     public Mono<Void> assignUserToDepartment(Long userId, Long departmentId) {
         return userRepository.findById(userId)
                 .switchIfEmpty(Mono.error(new GlobalServiceException(ErrorCode.NOT_FOUND, "User not found")))
@@ -177,6 +198,7 @@ public class UserService {
                     user.setDepartmentId(departmentId);
                     return userRepository.save(user);
                 })
+                .flatMap(saved -> feedbackInboxService.refreshUser(saved.getId()))
                 .doOnSuccess(v -> log.info("User {} assigned to department {}", userId, departmentId))
                 .then();
     }
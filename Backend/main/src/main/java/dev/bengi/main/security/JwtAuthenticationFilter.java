@@ -1,5 +1,7 @@
 package dev.bengi.main.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
@@ -49,13 +51,16 @@ public class JwtAuthenticationFilter implements WebFilter {
             String token = authHeader.substring(7);
             
             try {
-                if (jwtProvider.validateToken(token)) {
-                    return authenticateAndProceed(token, exchange, chain, path, method);
-                } else {
+                // Single verification per request; repeat tokens are served from the claims cache
+                Claims claims;
+                try {
+                    claims = jwtProvider.getVerifiedClaims(token);
+                } catch (JwtException | IllegalArgumentException e) {
                     // Log invalid token
                     auditService.logInvalidToken(token, "Token validation failed");
                     return handleAuthenticationError(exchange, "Invalid token");
                 }
+                return authenticateAndProceed(claims, token, exchange, chain, path, method);
             } catch (Exception e) {
                 // Log token processing error
                 auditService.logInvalidToken(token, "Token processing error: " + e.getMessage());
@@ -86,11 +91,11 @@ public class JwtAuthenticationFilter implements WebFilter {
         return path.startsWith("/api/") && !isPublicEndpoint(path, method);
     }
 
-    private Mono<Void> authenticateAndProceed(String token, ServerWebExchange exchange, 
+    private Mono<Void> authenticateAndProceed(Claims claims, String token, ServerWebExchange exchange,
                                               WebFilterChain chain, String path, String method) {
         try {
-            String username = jwtProvider.getUsernameFromToken(token);
-            List<String> roles = jwtProvider.getRoles(token);
+            String username = claims.getSubject();
+            List<String> roles = jwtProvider.getRoles(claims);
             
             List<SimpleGrantedAuthority> authorities = roles.stream()
                     .map(r -> r.startsWith("ROLE_") ? r : "ROLE_" + r)
@@ -1,6 +1,10 @@
 package dev.bengi.main.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -15,22 +19,40 @@ import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 @Component
 public class JwtProvider {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${jwt.expiration}")
-    private long jwtExpirationMs;
-
-    @Value("${jwt.refresh-expiration}")
-    private long jwtRefreshExpirationMs;
+    private final long jwtExpirationMs;
+    private final long jwtRefreshExpirationMs;
+
+    // Derived once at startup; both are immutable and thread-safe
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // Verified claims by token, each entry expiring at the token's own exp
+    private final Cache<String, Claims> claimsCache;
+
+    public JwtProvider(@Value("${jwt.secret}") String jwtSecret,
+                       @Value("${jwt.expiration}") long jwtExpirationMs,
+                       @Value("${jwt.refresh-expiration}") long jwtRefreshExpirationMs,
+                       @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.jwtRefreshExpirationMs = jwtRefreshExpirationMs;
+        this.signingKey = deriveSigningKey(jwtSecret);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new ClaimsExpiry(TimeUnit.MILLISECONDS.toNanos(jwtRefreshExpirationMs)))
+                .build();
+    }
 
-    private SecretKey getSigningKey() {
+    static SecretKey deriveSigningKey(String jwtSecret) {
         String secret = jwtSecret;
 
         // Support prefix-based explicit base64 secrets: base64:...
@@ -69,7 +91,7 @@ public class JwtProvider {
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusMillis(jwtExpirationMs)))
                 .addClaims(Map.of("roles", roles))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -79,13 +101,13 @@ public class JwtProvider {
                 .setSubject(subject)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusMillis(jwtRefreshExpirationMs)))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean validateToken(String token) {
         try {
-            parseClaims(token);
+            getVerifiedClaims(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -93,11 +115,14 @@ public class JwtProvider {
     }
 
     public String getUsernameFromToken(String token) {
-        return parseClaims(token).getSubject();
+        return getVerifiedClaims(token).getSubject();
     }
 
     public List<String> getRoles(String token) {
-        Claims claims = parseClaims(token);
+        return getRoles(getVerifiedClaims(token));
+    }
+
+    public List<String> getRoles(Claims claims) {
         Object roles = claims.get("roles");
         if (roles instanceof List<?> list) {
             return list.stream().map(Object::toString).toList();
@@ -105,13 +130,48 @@ public class JwtProvider {
         return List.of();
     }
 
-    private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verified claims for a token. A cache hit costs no HMAC verification; a miss verifies
+     * the signature once and caches the claims until the token expires. Invalid tokens
+     * throw {@link io.jsonwebtoken.JwtException} and are never cached.
+     */
+    public Claims getVerifiedClaims(String token) {
+        Claims cached = claimsCache.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        claimsCache.put(token, claims);
+        return claims;
+    }
+
+    void invalidateClaimsCache() {
+        claimsCache.invalidateAll();
     }
-}
 
+    /**
+     * Expires each cached entry at its token's exp claim, capped for tokens without one.
+     */
+    private record ClaimsExpiry(long maxTtlNanos) implements Expiry<String, Claims> {
 
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long remainingMs = expiration.getTime() - System.currentTimeMillis();
+            return Math.max(0, Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMs)));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
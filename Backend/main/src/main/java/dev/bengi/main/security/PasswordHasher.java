@@ -0,0 +1,122 @@
+package dev.bengi.main.security;
+
+import dev.bengi.main.exception.ErrorCode;
+import dev.bengi.main.exception.GlobalServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing and verification off the event loop.
+ * <p>
+ * BCrypt costs tens of milliseconds of CPU per call, so calls go to a fixed pool of
+ * {@code threads} workers behind a queue of {@code queueCapacity} waiting calls. When both
+ * are full the call fails at once with {@link ErrorCode#SERVICE_UNAVAILABLE} instead of
+ * queueing without bound; a caller that cancels while queued is removed from the queue.
+ * Results are delivered on the parallel scheduler, so the workers only ever hash.
+ */
+@Slf4j
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = hashTimer("encode", meterRegistry);
+        this.matchesTimer = hashTimer("matches", meterRegistry);
+        this.queueWait = Timer.builder("security.password.queue.wait")
+                .description("Time a password hashing call waited for a worker")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("security.password.rejected")
+                .description("Password hashing calls rejected because the pool was saturated")
+                .register(meterRegistry);
+        meterRegistry.gauge("security.password.queue.depth", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("security.password.active", executor, ThreadPoolExecutor::getActiveCount);
+        log.info("Password hashing pool: {} workers, queue capacity {}", workers, queueCapacity);
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Mono<T> submit(Timer timer, Callable<T> work) {
+        return Mono.<T>create(sink -> {
+            long enqueuedAt = System.nanoTime();
+            FutureTask<Void> task = new FutureTask<>(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    T result = work.call();
+                    timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    sink.success(result);
+                } catch (Throwable e) {
+                    sink.error(e);
+                }
+            }, null);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                sink.error(new GlobalServiceException(ErrorCode.SERVICE_UNAVAILABLE,
+                        "Too many password checks in progress, please retry shortly"));
+                return;
+            }
+            sink.onCancel(() -> {
+                // A cancelled task stays queued until a worker takes it; remove it to free the slot
+                task.cancel(false);
+                executor.remove(task);
+            });
+        }).publishOn(Schedulers.parallel());
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("security.password.hash")
+                .description("Time a worker spent hashing or verifying one password")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
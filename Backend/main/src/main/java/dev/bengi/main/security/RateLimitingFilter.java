@@ -1,6 +1,8 @@
 package dev.bengi.main.security;
 
-import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
@@ -11,31 +13,42 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Rate limiting filter to prevent abuse and DoS attacks
- * Tracks requests per IP address with configurable limits
+ * Tracks requests per IP address with a token bucket per route class (auth vs. general)
  */
 @Component
 @ConditionalOnProperty(name = "app.security.rate-limit.enabled", havingValue = "true", matchIfMissing = false)
-@Slf4j
 public class RateLimitingFilter implements WebFilter {
 
-    @Value("${app.security.rate-limit.requests-per-minute:100}")
-    private int requestsPerMinute;
+    private static final String AUTH_PATH_PREFIX = "/api/auth/";
 
-    @Value("${app.security.rate-limit.auth-requests-per-minute:5}")
-    private int authRequestsPerMinute;
-
-    private final ConcurrentHashMap<String, ClientRequestInfo> requestCounts = new ConcurrentHashMap<>();
     private final SecurityAuditService auditService;
-
-    public RateLimitingFilter(SecurityAuditService auditService) {
+    private final TokenBucketRateLimiter authLimiter;
+    private final TokenBucketRateLimiter generalLimiter;
+    private final Counter authRejections;
+    private final Counter generalRejections;
+
+    public RateLimitingFilter(SecurityAuditService auditService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.security.rate-limit.requests-per-minute:100}") int requestsPerMinute,
+                              @Value("${app.security.rate-limit.auth-requests-per-minute:5}") int authRequestsPerMinute,
+                              @Value("${app.security.rate-limit.burst-capacity:${app.security.rate-limit.requests-per-minute:100}}") int burstCapacity,
+                              @Value("${app.security.rate-limit.auth-burst-capacity:${app.security.rate-limit.auth-requests-per-minute:5}}") int authBurstCapacity,
+                              @Value("${app.security.rate-limit.max-tracked-clients:100000}") long maxTrackedClients,
+                              @Value("${app.security.rate-limit.idle-expiry:PT5M}") Duration idleExpiry) {
         this.auditService = auditService;
+        this.authLimiter = new TokenBucketRateLimiter(authRequestsPerMinute, authBurstCapacity, maxTrackedClients, idleExpiry);
+        this.generalLimiter = new TokenBucketRateLimiter(requestsPerMinute, burstCapacity, maxTrackedClients, idleExpiry);
+        this.authRejections = rejectionCounter(meterRegistry, "auth");
+        this.generalRejections = rejectionCounter(meterRegistry, "general");
+        meterRegistry.gauge("security.ratelimit.tracked.clients", Tags.of("bucket", "auth"), authLimiter, TokenBucketRateLimiter::trackedKeys);
+        meterRegistry.gauge("security.ratelimit.tracked.clients", Tags.of("bucket", "general"), generalLimiter, TokenBucketRateLimiter::trackedKeys);
     }
 
     @Override
@@ -43,73 +56,40 @@ public class RateLimitingFilter implements WebFilter {
     public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
         String clientIp = auditService.getClientIpAddress(exchange);
         String path = exchange.getRequest().getPath().value();
-        
-        // Check rate limits
-        if (isRateLimited(clientIp, path)) {
-            log.warn("Rate limit exceeded for IP: {} on path: {}", clientIp, path);
-            return handleRateLimitExceeded(exchange, clientIp);
+
+        boolean isAuthEndpoint = path.startsWith(AUTH_PATH_PREFIX);
+        long waitNanos = (isAuthEndpoint ? authLimiter : generalLimiter).tryAcquire(clientIp);
+        if (waitNanos > 0) {
+            (isAuthEndpoint ? authRejections : generalRejections).increment();
+            auditService.logRateLimited(clientIp, path, isAuthEndpoint ? "auth" : "general");
+            return handleRateLimitExceeded(exchange, waitNanos);
         }
 
         // Continue with the request
         return chain.filter(exchange);
     }
 
-    private boolean isRateLimited(String clientIp, String path) {
-        Instant now = Instant.now();
-        ClientRequestInfo clientInfo = requestCounts.computeIfAbsent(clientIp, k -> new ClientRequestInfo());
-
-        // Clean up old entries periodically
-        if (clientInfo.lastCleanup.isBefore(now.minus(Duration.ofMinutes(2)))) {
-            cleanupExpiredEntries();
-            clientInfo.lastCleanup = now;
-        }
-
-        // Check if it's an auth endpoint
-        boolean isAuthEndpoint = path.startsWith("/api/auth/");
-        int limit = isAuthEndpoint ? authRequestsPerMinute : requestsPerMinute;
-
-        // Check rate limit for current minute
-        String currentMinute = now.toString().substring(0, 16); // YYYY-MM-DDTHH:MM
-        
-        if (!clientInfo.currentMinute.equals(currentMinute)) {
-            // New minute, reset counter
-            clientInfo.currentMinute = currentMinute;
-            clientInfo.requestCount.set(0);
-        }
-
-        int currentCount = clientInfo.requestCount.incrementAndGet();
-        
-        return currentCount > limit;
-    }
-
-    private Mono<Void> handleRateLimitExceeded(ServerWebExchange exchange, String clientIp) {
+    private Mono<Void> handleRateLimitExceeded(ServerWebExchange exchange, long waitNanos) {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
         exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
         exchange.getResponse().getHeaders().add("Content-Type", "application/json");
-        exchange.getResponse().getHeaders().add("Retry-After", "60");
-        
+        exchange.getResponse().getHeaders().add("Retry-After", Long.toString(retryAfter));
+
         String errorResponse = String.format(
-                "{\"error\":\"Rate limit exceeded\",\"message\":\"Too many requests. Please try again later.\",\"retryAfter\":60,\"timestamp\":\"%s\"}",
+                "{\"error\":\"Rate limit exceeded\",\"message\":\"Too many requests. Please try again later.\",\"retryAfter\":%d,\"timestamp\":\"%s\"}",
+                retryAfter,
                 Instant.now()
         );
-        
-        org.springframework.core.io.buffer.DataBuffer buffer = 
-                exchange.getResponse().bufferFactory().wrap(errorResponse.getBytes());
-        
-        return exchange.getResponse().writeWith(Mono.just(buffer));
-    }
 
-    private void cleanupExpiredEntries() {
-        Instant cutoff = Instant.now().minus(Duration.ofMinutes(5));
-        requestCounts.entrySet().removeIf(entry -> 
-                entry.getValue().lastCleanup.isBefore(cutoff));
+        org.springframework.core.io.buffer.DataBuffer buffer =
+                exchange.getResponse().bufferFactory().wrap(errorResponse.getBytes(StandardCharsets.UTF_8));
+
+        return exchange.getResponse().writeWith(Mono.just(buffer));
     }
 
-    /**
-     * Tracks request information per client IP
-     */
-    private static class ClientRequestInfo {
-        volatile String currentMinute = "";
-        final AtomicInteger requestCount = new AtomicInteger(0);
-        volatile Instant lastCleanup = Instant.now();
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String bucket) {
+        return Counter.builder("security.ratelimit.rejected")
+                .tag("bucket", bucket)
+                .register(meterRegistry);
     }
 }
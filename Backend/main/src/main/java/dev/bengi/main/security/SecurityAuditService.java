@@ -1,77 +1,67 @@
 package dev.bengi.main.security;
 
-import lombok.extern.slf4j.Slf4j;
+import dev.bengi.main.security.audit.AuditEvent;
+import dev.bengi.main.security.audit.AuditEventType;
+import dev.bengi.main.security.audit.AuditPipeline;
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Service for auditing security events and user activities
- * Helps track authentication, authorization, and access patterns
+ * Helps track authentication, authorization, and access patterns.
+ * Events are published to the asynchronous {@link AuditPipeline}; callers never wait on log or database I/O.
  */
 @Service
-@Slf4j
+@RequiredArgsConstructor
 public class SecurityAuditService {
 
+    private final AuditPipeline auditPipeline;
+
     /**
      * Log successful authentication
      */
     public void logSuccessfulAuthentication(String username, String ipAddress) {
-        Map<String, Object> auditData = createBaseAuditData("AUTH_SUCCESS", username, ipAddress);
-        log.info("Authentication successful: {}", auditData);
+        publish(AuditEventType.AUTH_SUCCESS, username, ipAddress, null, null, null);
     }
 
     /**
      * Log failed authentication attempt
      */
     public void logFailedAuthentication(String username, String ipAddress, String reason) {
-        Map<String, Object> auditData = createBaseAuditData("AUTH_FAILED", username, ipAddress);
-        auditData.put("reason", reason);
-        log.warn("Authentication failed: {}", auditData);
+        publish(AuditEventType.AUTH_FAILED, username, ipAddress, null, null, reason);
     }
 
     /**
      * Log access denied events
      */
     public void logAccessDenied(String username, String resource, String action) {
-        Map<String, Object> auditData = new HashMap<>();
-        auditData.put("event", "ACCESS_DENIED");
-        auditData.put("username", username);
-        auditData.put("resource", resource);
-        auditData.put("action", action);
-        auditData.put("timestamp", LocalDateTime.now());
-        log.warn("Access denied: {}", auditData);
+        publish(AuditEventType.ACCESS_DENIED, username, null, resource, action, null);
     }
 
     /**
      * Log successful resource access
      */
     public void logResourceAccess(String username, String resource, String action) {
-        Map<String, Object> auditData = new HashMap<>();
-        auditData.put("event", "RESOURCE_ACCESS");
-        auditData.put("username", username);
-        auditData.put("resource", resource);
-        auditData.put("action", action);
-        auditData.put("timestamp", LocalDateTime.now());
-        log.info("Resource accessed: {}", auditData);
+        publish(AuditEventType.RESOURCE_ACCESS, username, null, resource, action, null);
+    }
+
+    /**
+     * Log requests rejected by the rate limiter
+     */
+    public void logRateLimited(String ipAddress, String resource, String bucket) {
+        publish(AuditEventType.RATE_LIMITED, null, ipAddress, resource, null, bucket);
     }
 
     /**
      * Log JWT token validation failures
      */
     public void logInvalidToken(String token, String reason) {
-        Map<String, Object> auditData = new HashMap<>();
-        auditData.put("event", "INVALID_TOKEN");
-        auditData.put("tokenPrefix", token != null && token.length() > 10 ? token.substring(0, 10) + "..." : "null");
-        auditData.put("reason", reason);
-        auditData.put("timestamp", LocalDateTime.now());
-        log.warn("Invalid token: {}", auditData);
+        String tokenPrefix = token != null && token.length() > 10 ? token.substring(0, 10) + "..." : "null";
+        publish(AuditEventType.INVALID_TOKEN, null, null, null, null, reason + " (token " + tokenPrefix + ")");
     }
 
     /**
@@ -105,27 +95,15 @@ public class SecurityAuditService {
                 : "unknown";
     }
 
-    /**
-     * Create base audit data structure
-     */
-    private Map<String, Object> createBaseAuditData(String event, String username, String ipAddress) {
-        Map<String, Object> auditData = new HashMap<>();
-        auditData.put("event", event);
-        auditData.put("username", username);
-        auditData.put("ipAddress", ipAddress);
-        auditData.put("timestamp", LocalDateTime.now());
-        return auditData;
-    }
-
     /**
      * Log security-related configuration events
      */
     public void logSecurityConfigEvent(String event, String details) {
-        Map<String, Object> auditData = new HashMap<>();
-        auditData.put("event", "SECURITY_CONFIG");
-        auditData.put("type", event);
-        auditData.put("details", details);
-        auditData.put("timestamp", LocalDateTime.now());
-        log.info("Security configuration event: {}", auditData);
+        publish(AuditEventType.SECURITY_CONFIG, null, null, event, null, details);
+    }
+
+    private void publish(AuditEventType type, String username, String ipAddress,
+                         String resource, String action, String detail) {
+        auditPipeline.publish(new AuditEvent(type, username, ipAddress, resource, action, detail, System.currentTimeMillis()));
     }
 }
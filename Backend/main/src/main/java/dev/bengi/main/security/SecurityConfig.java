@@ -1,5 +1,6 @@
 package dev.bengi.main.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -150,6 +151,13 @@ public class SecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHasher passwordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                         @Value("${app.security.password-hashing.threads:0}") int threads,
+                                         @Value("${app.security.password-hashing.queue-capacity:256}") int queueCapacity) {
+        return new PasswordHasher(passwordEncoder, threads, queueCapacity, meterRegistry);
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,75 @@
+package dev.bengi.main.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-key token bucket, implemented as GCRA: each key holds a single "theoretical arrival
+ * time" in nanoseconds that is advanced with a CAS. Tokens refill continuously, so there is
+ * no minute boundary where a client can burst twice.
+ * <p>
+ * Keys live in a size-bounded Caffeine cache; idle keys are swept by Caffeine's scheduler
+ * rather than on the request path. A key idle longer than the burst window is back at full
+ * capacity anyway, so evicting it loses nothing.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final Function<String, AtomicLong> NEW_BUCKET = key -> new AtomicLong(Long.MIN_VALUE);
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param permitsPerMinute sustained refill rate
+     * @param capacity         maximum burst (bucket size)
+     * @param maxKeys          upper bound on tracked keys
+     * @param idleExpiry       how long an untouched key is kept
+     */
+    public TokenBucketRateLimiter(int permitsPerMinute, int capacity, long maxKeys, Duration idleExpiry) {
+        if (permitsPerMinute <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("permitsPerMinute and capacity must be positive");
+        }
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1L);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .scheduler(Scheduler.systemScheduler())
+                .build();
+    }
+
+    /**
+     * Try to take one token for {@code key}.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long nowNanos) {
+        AtomicLong tat = buckets.get(key, NEW_BUCKET);
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, nowNanos);
+            long wait = base - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + emissionIntervalNanos)) {
+                return 0L;
+            }
+        }
+    }
+
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+}
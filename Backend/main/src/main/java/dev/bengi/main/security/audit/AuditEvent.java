@@ -0,0 +1,15 @@
+package dev.bengi.main.security.audit;
+
+/**
+ * A single security audit record. Kept flat and immutable so producers on the
+ * event loop only pay for one small allocation.
+ */
+public record AuditEvent(
+        AuditEventType type,
+        String username,
+        String ipAddress,
+        String resource,
+        String action,
+        String detail,
+        long timestampMillis
+) {}
@@ -0,0 +1,20 @@
+package dev.bengi.main.security.audit;
+
+public enum AuditEventType {
+    AUTH_SUCCESS(true),
+    AUTH_FAILED(true),
+    ACCESS_DENIED(true),
+    INVALID_TOKEN(true),
+    RATE_LIMITED(true),
+    SECURITY_CONFIG(true),
+    RESOURCE_ACCESS(false);
+
+    /**
+     * Critical events are never sampled away; they are only lost when the buffer is full.
+     */
+    public final boolean critical;
+
+    AuditEventType(boolean critical) {
+        this.critical = critical;
+    }
+}
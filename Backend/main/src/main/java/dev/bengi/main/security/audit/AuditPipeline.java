@@ -0,0 +1,149 @@
+package dev.bengi.main.security.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit pipeline. Producers (request threads) publish into a lock-free
+ * bounded ring buffer and return immediately; a single background thread drains the
+ * buffer in batches and hands each batch to every configured {@link AuditSink}.
+ */
+@Slf4j
+public class AuditPipeline {
+
+    public enum OverflowPolicy {
+        /** Drop any event that does not fit in the buffer. */
+        DROP,
+        /** Above the high-water mark keep only one in {@code sampleRate} non-critical events; drop on full. */
+        SAMPLE
+    }
+
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final List<AuditSink> sinks;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int highWaterMark;
+    private final int batchSize;
+    private final long idleParkNanos;
+
+    private final AtomicLong sampleSequence = new AtomicLong();
+    private final Counter overflowDropped;
+    private final Counter sampledDropped;
+    private final Map<String, Counter> written = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failures = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean running;
+    private Thread drainThread;
+
+    public AuditPipeline(int capacity, int batchSize, Duration idlePark, OverflowPolicy overflowPolicy,
+                         int sampleRate, List<AuditSink> sinks, MeterRegistry meterRegistry) {
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.idleParkNanos = idlePark.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.highWaterMark = buffer.capacity() * 3 / 4;
+        this.sinks = List.copyOf(sinks);
+        this.meterRegistry = meterRegistry;
+
+        meterRegistry.gauge("security.audit.queue.depth", buffer, AuditRingBuffer::size);
+        meterRegistry.gauge("security.audit.queue.capacity", buffer, AuditRingBuffer::capacity);
+        this.overflowDropped = Counter.builder("security.audit.events.dropped")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        this.sampledDropped = Counter.builder("security.audit.events.dropped")
+                .tag("reason", "sampled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Non-blocking publish; returns false if the event was dropped.
+     */
+    public boolean publish(AuditEvent event) {
+        if (overflowPolicy == OverflowPolicy.SAMPLE
+                && !event.type().critical
+                && buffer.size() >= highWaterMark
+                && sampleSequence.incrementAndGet() % sampleRate != 0) {
+            sampledDropped.increment();
+            return false;
+        }
+        if (!buffer.offer(event)) {
+            overflowDropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        drainThread = new Thread(this::drainLoop, "security-audit-drain");
+        drainThread.setDaemon(true);
+        drainThread.start();
+        log.info("Security audit pipeline started (capacity={}, batchSize={}, overflow={}, sinks={})",
+                buffer.capacity(), batchSize, overflowPolicy, sinks.stream().map(AuditSink::name).toList());
+    }
+
+    /**
+     * Stop accepting drain cycles and flush what is left in the buffer.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            batch.clear();
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                if (running) {
+                    LockSupport.parkNanos(idleParkNanos);
+                }
+                continue;
+            }
+            for (AuditSink sink : sinks) {
+                try {
+                    sink.write(batch);
+                    written.computeIfAbsent(sink.name(), this::writtenCounter).increment(batch.size());
+                } catch (Exception e) {
+                    failures.computeIfAbsent(sink.name(), this::failureCounter).increment();
+                    log.warn("Audit sink {} failed to write {} events: {}", sink.name(), batch.size(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Counter writtenCounter(String sink) {
+        return Counter.builder("security.audit.events.written").tag("sink", sink).register(meterRegistry);
+    }
+
+    private Counter failureCounter(String sink) {
+        return Counter.builder("security.audit.sink.failures").tag("sink", sink).register(meterRegistry);
+    }
+}
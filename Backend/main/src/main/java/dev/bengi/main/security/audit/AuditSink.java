@@ -0,0 +1,14 @@
+package dev.bengi.main.security.audit;
+
+import java.util.List;
+
+/**
+ * Destination for drained audit batches. Called only from the audit drain thread,
+ * so implementations may block.
+ */
+public interface AuditSink {
+
+    String name();
+
+    void write(List<AuditEvent> batch) throws Exception;
+}
@@ -0,0 +1,60 @@
+package dev.bengi.main.security.audit;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Inserts each drained batch into security_audit_events with a single multi-row INSERT.
+ * Runs on the audit drain thread, so it waits for the insert to finish.
+ */
+public class DatabaseAuditSink implements AuditSink {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO security_audit_events (event_type, username, ip_address, resource, action, detail, occurred_at) VALUES ";
+
+    private final DatabaseClient databaseClient;
+    private final Duration timeout;
+
+    public DatabaseAuditSink(DatabaseClient databaseClient, Duration timeout) {
+        this.databaseClient = databaseClient;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String name() {
+        return "database";
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append("(:t").append(i).append(", :u").append(i).append(", :ip").append(i)
+                    .append(", :r").append(i).append(", :a").append(i).append(", :d").append(i)
+                    .append(", :o").append(i).append(')');
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < batch.size(); i++) {
+            AuditEvent event = batch.get(i);
+            spec = spec.bind("t" + i, event.type().name());
+            spec = bindNullable(spec, "u" + i, event.username());
+            spec = bindNullable(spec, "ip" + i, event.ipAddress());
+            spec = bindNullable(spec, "r" + i, event.resource());
+            spec = bindNullable(spec, "a" + i, event.action());
+            spec = bindNullable(spec, "d" + i, event.detail());
+            spec = spec.bind("o" + i, LocalDateTime.ofInstant(Instant.ofEpochMilli(event.timestampMillis()), ZoneId.systemDefault()));
+        }
+        spec.then().block(timeout);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+}
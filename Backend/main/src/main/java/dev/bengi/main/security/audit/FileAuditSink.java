@@ -0,0 +1,66 @@
+package dev.bengi.main.security.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes one JSON line per event to the {@code security.audit} logger, which
+ * logback-spring.xml routes to a dedicated rolling file.
+ */
+public class FileAuditSink implements AuditSink {
+
+    private static final Logger AUDIT_LOG = LoggerFactory.getLogger("security.audit");
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) {
+        if (!AUDIT_LOG.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(256);
+        for (AuditEvent event : batch) {
+            line.setLength(0);
+            line.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(event.timestampMillis())).append('"');
+            line.append(",\"event\":\"").append(event.type()).append('"');
+            appendField(line, "username", event.username());
+            appendField(line, "ipAddress", event.ipAddress());
+            appendField(line, "resource", event.resource());
+            appendField(line, "action", event.action());
+            appendField(line, "detail", event.detail());
+            line.append('}');
+            AUDIT_LOG.info(line.toString());
+        }
+    }
+
+    private static void appendField(StringBuilder line, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,54 @@
+package dev.bengi.main.security.audit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires the asynchronous security audit pipeline and its sinks from app.security.audit.*.
+ */
+@Configuration
+public class SecurityAuditConfig {
+
+    @Value("${app.security.audit.capacity:8192}")
+    private int capacity;
+
+    @Value("${app.security.audit.batch-size:256}")
+    private int batchSize;
+
+    @Value("${app.security.audit.idle-park:PT0.05S}")
+    private Duration idlePark;
+
+    @Value("${app.security.audit.overflow-policy:DROP}")
+    private AuditPipeline.OverflowPolicy overflowPolicy;
+
+    @Value("${app.security.audit.sample-rate:10}")
+    private int sampleRate;
+
+    @Value("${app.security.audit.sinks.file.enabled:true}")
+    private boolean fileSinkEnabled;
+
+    @Value("${app.security.audit.sinks.database.enabled:false}")
+    private boolean databaseSinkEnabled;
+
+    @Value("${app.security.audit.sinks.database.timeout:PT5S}")
+    private Duration databaseSinkTimeout;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public AuditPipeline auditPipeline(DatabaseClient databaseClient, MeterRegistry meterRegistry) {
+        List<AuditSink> sinks = new ArrayList<>();
+        if (fileSinkEnabled) {
+            sinks.add(new FileAuditSink());
+        }
+        if (databaseSinkEnabled) {
+            sinks.add(new DatabaseAuditSink(databaseClient, databaseSinkTimeout));
+        }
+        return new AuditPipeline(capacity, batchSize, idlePark, overflowPolicy, sampleRate, sinks, meterRegistry);
+    }
+}
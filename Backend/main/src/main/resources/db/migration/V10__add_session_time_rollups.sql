@@ -0,0 +1,16 @@
+-- Closed submission session time per user, feedback and day (the day the session started).
+-- Maintained in the same statement that closes sessions; filled for existing data by
+-- SessionTimeRollupService's backfill job on first start.
+CREATE TABLE IF NOT EXISTS session_time_rollups (
+    user_id VARCHAR(255) NOT NULL,
+    day DATE NOT NULL,
+    feedback_id BIGINT NOT NULL,
+    total_seconds BIGINT NOT NULL DEFAULT 0,
+    session_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (user_id, day, feedback_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_session_time_rollups_day ON session_time_rollups(day);
+-- Per-feedback completion time (e.g. median across users)
+CREATE INDEX IF NOT EXISTS idx_session_time_rollups_feedback ON session_time_rollups(feedback_id);
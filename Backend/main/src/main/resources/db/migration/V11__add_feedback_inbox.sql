@@ -0,0 +1,39 @@
+-- Per-user feedback inbox read model, maintained by FeedbackInboxService when targets,
+-- project membership, department assignment, feedback windows or submissions change.
+-- A user is eligible when targeted directly, through their department, or as a member of
+-- the feedback's project; rows that lose eligibility are kept with eligible = false.
+CREATE TABLE IF NOT EXISTS feedback_inbox (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    feedback_id BIGINT NOT NULL REFERENCES feedbacks(id) ON DELETE CASCADE,
+    eligible BOOLEAN NOT NULL DEFAULT TRUE,
+    submitted BOOLEAN NOT NULL DEFAULT FALSE,
+    -- Copied from feedbacks so the inbox is read without a join
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    start_date TIMESTAMP,
+    due_date TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (user_id, feedback_id)
+);
+
+-- "Pending for user U, ordered by deadline"
+CREATE INDEX IF NOT EXISTS idx_feedback_inbox_pending
+    ON feedback_inbox (user_id, due_date NULLS LAST, feedback_id)
+    WHERE eligible AND active AND NOT submitted;
+
+CREATE INDEX IF NOT EXISTS idx_feedback_inbox_feedback ON feedback_inbox (feedback_id);
+
+-- Seed from the current targeting, membership and submissions
+INSERT INTO feedback_inbox (user_id, feedback_id, eligible, submitted, active, start_date, due_date)
+SELECT t.user_id, f.id, TRUE,
+       EXISTS (SELECT 1 FROM submissions s WHERE s.feedback_id = f.id AND s.user_id = u.username),
+       f.active, f.start_date, f.end_date
+FROM (SELECT tu.user_id, tu.feedback_id FROM feedback_target_users tu
+      UNION
+      SELECT u.id, td.feedback_id FROM feedback_target_departments td
+      JOIN users u ON u.department_id = td.department_id
+      UNION
+      SELECT pm.user_id, f.id FROM feedbacks f
+      JOIN project_members pm ON pm.project_id = f.project_id) t
+JOIN feedbacks f ON f.id = t.feedback_id
+JOIN users u ON u.id = t.user_id
+ON CONFLICT (user_id, feedback_id) DO NOTHING;
@@ -0,0 +1,24 @@
+-- The activity feed is readable by every user, so submission events name their submitter only
+-- for public, non-anonymous submissions (SubmitMapper.activityActor). The V8 backfill and
+-- earlier writes also named PRIVATE and CONFIDENTIAL submitters; clear those.
+UPDATE activity_events a
+SET actor = NULL
+WHERE a.target_type = 'Submission'
+  AND a.actor IS NOT NULL
+  AND NOT EXISTS (
+      SELECT 1 FROM submissions s
+      WHERE s.id = a.target_id
+        AND s.privacy_level = 'PUBLIC'
+        AND NOT COALESCE(s.is_anonymous, false));
+
+-- The department is the project's when known, otherwise the (remaining) actor's, as
+-- ActivityEventService writes it. The V8 backfill took it from the submitter only.
+UPDATE activity_events a
+SET department_id = COALESCE(
+        (SELECT p.department_id
+         FROM submissions s
+         JOIN feedbacks f ON f.id = s.feedback_id
+         JOIN projects p ON p.id = f.project_id
+         WHERE s.id = a.target_id),
+        (SELECT u.department_id FROM users u WHERE u.username = a.actor))
+WHERE a.target_type = 'Submission';
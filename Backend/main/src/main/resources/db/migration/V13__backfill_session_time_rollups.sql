@@ -0,0 +1,13 @@
+-- One-time roll-up of all closed sessions. V10 left this to SessionTimeRollupService, which only
+-- did it while the table was still empty; session closes and the orphan sweep add rows first,
+-- so history older than the reconcile window was never rolled up. Rows already written are
+-- replaced by the recomputed totals.
+INSERT INTO session_time_rollups (user_id, day, feedback_id, total_seconds, session_count, updated_at)
+SELECT user_id, CAST(started_at AS DATE), feedback_id, SUM(COALESCE(duration_seconds, 0)), COUNT(*), NOW()
+FROM submission_sessions
+WHERE ended_at IS NOT NULL
+GROUP BY user_id, CAST(started_at AS DATE), feedback_id
+ON CONFLICT (user_id, day, feedback_id) DO UPDATE
+SET total_seconds = EXCLUDED.total_seconds,
+    session_count = EXCLUDED.session_count,
+    updated_at = EXCLUDED.updated_at;
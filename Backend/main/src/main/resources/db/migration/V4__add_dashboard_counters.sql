@@ -0,0 +1,35 @@
+-- Incrementally maintained counters for dashboard stat cards
+CREATE TABLE IF NOT EXISTS dashboard_counters (
+    metric VARCHAR(64) PRIMARY KEY,
+    value BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Per-day creation buckets, keyed by the entity's creation date
+CREATE TABLE IF NOT EXISTS dashboard_counter_buckets (
+    metric VARCHAR(64) NOT NULL,
+    bucket_date DATE NOT NULL,
+    value BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (metric, bucket_date)
+);
+
+-- Seed from the current base tables; the reconciliation job keeps them honest afterwards
+INSERT INTO dashboard_counters (metric, value)
+SELECT 'users', COUNT(*) FROM users
+UNION ALL SELECT 'users.active', COUNT(*) FROM users WHERE active = true
+UNION ALL SELECT 'departments', COUNT(*) FROM departments
+UNION ALL SELECT 'departments.active', COUNT(*) FROM departments WHERE active = true
+UNION ALL SELECT 'projects', COUNT(*) FROM projects
+UNION ALL SELECT 'projects.active', COUNT(*) FROM projects WHERE active = true
+UNION ALL SELECT 'feedbacks', COUNT(*) FROM feedbacks
+UNION ALL SELECT 'feedbacks.active', COUNT(*) FROM feedbacks WHERE active = true
+UNION ALL SELECT 'submissions', COUNT(*) FROM submissions
+ON CONFLICT (metric) DO UPDATE SET value = EXCLUDED.value, updated_at = NOW();
+
+INSERT INTO dashboard_counter_buckets (metric, bucket_date, value)
+SELECT 'users', CAST(created_at AS DATE), COUNT(*) FROM users WHERE created_at IS NOT NULL GROUP BY CAST(created_at AS DATE)
+UNION ALL SELECT 'departments', CAST(created_at AS DATE), COUNT(*) FROM departments WHERE created_at IS NOT NULL GROUP BY CAST(created_at AS DATE)
+UNION ALL SELECT 'projects', CAST(created_at AS DATE), COUNT(*) FROM projects WHERE created_at IS NOT NULL GROUP BY CAST(created_at AS DATE)
+UNION ALL SELECT 'feedbacks', CAST(created_at AS DATE), COUNT(*) FROM feedbacks WHERE created_at IS NOT NULL GROUP BY CAST(created_at AS DATE)
+UNION ALL SELECT 'submissions', CAST(submitted_at AS DATE), COUNT(*) FROM submissions WHERE submitted_at IS NOT NULL GROUP BY CAST(submitted_at AS DATE)
+ON CONFLICT (metric, bucket_date) DO UPDATE SET value = EXCLUDED.value;
@@ -0,0 +1,14 @@
+-- Security audit trail written in batches by the async audit pipeline (DatabaseAuditSink)
+CREATE TABLE IF NOT EXISTS security_audit_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(40) NOT NULL,
+    username VARCHAR(100),
+    ip_address VARCHAR(64),
+    resource VARCHAR(500),
+    action VARCHAR(20),
+    detail TEXT,
+    occurred_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_security_audit_events_occurred_at ON security_audit_events (occurred_at);
+CREATE INDEX IF NOT EXISTS idx_security_audit_events_username ON security_audit_events (username, occurred_at);
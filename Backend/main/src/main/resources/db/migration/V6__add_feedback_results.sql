@@ -0,0 +1,31 @@
+-- Per-feedback results rollup, maintained incrementally on submit and rebuildable from submission_responses
+CREATE TABLE IF NOT EXISTS feedback_results (
+    feedback_id BIGINT PRIMARY KEY REFERENCES feedbacks(id) ON DELETE CASCADE,
+    submission_count BIGINT NOT NULL DEFAULT 0,
+    rebuilt_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS feedback_question_results (
+    feedback_id BIGINT NOT NULL REFERENCES feedbacks(id) ON DELETE CASCADE,
+    question_id BIGINT NOT NULL REFERENCES questions(id) ON DELETE CASCADE,
+    answer_count BIGINT NOT NULL DEFAULT 0,
+    text_count BIGINT NOT NULL DEFAULT 0,
+    rating_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum DOUBLE PRECISION NOT NULL DEFAULT 0,
+    rating_min DOUBLE PRECISION,
+    rating_max DOUBLE PRECISION,
+    PRIMARY KEY (feedback_id, question_id)
+);
+
+-- Answer histogram for choice, rating and boolean questions
+CREATE TABLE IF NOT EXISTS feedback_choice_counts (
+    feedback_id BIGINT NOT NULL REFERENCES feedbacks(id) ON DELETE CASCADE,
+    question_id BIGINT NOT NULL REFERENCES questions(id) ON DELETE CASCADE,
+    choice TEXT NOT NULL,
+    answer_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (feedback_id, question_id, choice)
+);
+
+CREATE INDEX IF NOT EXISTS idx_feedback_question_results_question_id ON feedback_question_results(question_id);
+CREATE INDEX IF NOT EXISTS idx_feedback_choice_counts_question_id ON feedback_choice_counts(question_id);
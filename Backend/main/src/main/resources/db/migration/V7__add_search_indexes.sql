@@ -0,0 +1,23 @@
+-- Trigram search over users, feedbacks, projects and questions.
+-- Expressions must stay identical to SearchTarget, otherwise the planner cannot use the indexes.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring matching (terms of 3+ characters)
+CREATE INDEX IF NOT EXISTS idx_users_search_trgm ON users USING GIN (
+    lower(coalesce(username, '') || ' ' || coalesce(email, '') || ' ' || coalesce(first_name, '') || ' ' || coalesce(last_name, ''))
+    gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_feedbacks_search_trgm ON feedbacks USING GIN (
+    lower(coalesce(title, '') || ' ' || coalesce(description, ''))
+    gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_projects_search_trgm ON projects USING GIN (
+    lower(coalesce(name, '') || ' ' || coalesce(description, '') || ' ' || coalesce(category, ''))
+    gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_questions_search_trgm ON questions USING GIN (
+    lower(coalesce(text, '') || ' ' || coalesce(description, '') || ' ' || coalesce(category, ''))
+    gin_trgm_ops);
+
+-- Prefix matching on the primary name (also serves 1-2 character terms, which have no trigrams)
+CREATE INDEX IF NOT EXISTS idx_users_username_prefix ON users (lower(coalesce(username, '')) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_feedbacks_title_prefix ON feedbacks (lower(coalesce(title, '')) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_projects_name_prefix ON projects (lower(coalesce(name, '')) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_questions_text_prefix ON questions (lower(coalesce(text, '')) text_pattern_ops);
@@ -0,0 +1,35 @@
+-- Append-only activity log behind the dashboard activity feed
+CREATE TABLE IF NOT EXISTS activity_events (
+    id BIGSERIAL PRIMARY KEY,
+    occurred_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    actor VARCHAR(100),                 -- username; NULL for system activity
+    action VARCHAR(64) NOT NULL,
+    target_type VARCHAR(32) NOT NULL,
+    target_id BIGINT,
+    target_name VARCHAR(255),
+    project_id BIGINT,
+    department_id BIGINT
+);
+
+-- Each feed variant is a single range scan in (occurred_at, id) order
+CREATE INDEX IF NOT EXISTS idx_activity_events_occurred ON activity_events (occurred_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_activity_events_actor ON activity_events (actor, occurred_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_activity_events_project ON activity_events (project_id, occurred_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_activity_events_department ON activity_events (department_id, occurred_at DESC, id DESC);
+
+-- Seed from the rows the old UNION feed was built from
+INSERT INTO activity_events (occurred_at, actor, action, target_type, target_id, target_name, project_id, department_id)
+SELECT p.created_at, NULL, 'created project', 'Project', p.id, p.name, p.id, p.department_id
+FROM projects p WHERE p.created_at IS NOT NULL
+UNION ALL
+SELECT f.created_at, NULL, 'created feedback', 'Feedback', f.id, f.title, f.project_id, p.department_id
+FROM feedbacks f LEFT JOIN projects p ON p.id = f.project_id WHERE f.created_at IS NOT NULL
+UNION ALL
+SELECT s.submitted_at, u.username, 'submitted feedback', 'Submission', s.id, f.title, f.project_id, u.department_id
+FROM submissions s
+JOIN feedbacks f ON f.id = s.feedback_id
+-- Anonymous submitters stay hidden (same rule as SubmitMapper.visibleSubmitter)
+LEFT JOIN users u ON u.username = s.user_id
+    AND NOT COALESCE(s.is_anonymous, false) AND s.privacy_level IS NOT NULL AND s.privacy_level <> 'ANONYMOUS'
+WHERE s.submitted_at IS NOT NULL
+ORDER BY 1;
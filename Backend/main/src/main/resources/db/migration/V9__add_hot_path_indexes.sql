@@ -0,0 +1,23 @@
+-- Indexes for the filters used on hot paths (dashboard windows, per-user history, availability).
+-- QueryPlanRegressionTest fails when a repository or service query needs one that is missing.
+-- Already covered elsewhere: users(department_id) by idx_users_department_id, and
+-- project_member_roles(project_id, user_id, is_active) by the partial unique index
+-- idx_project_member_roles_unique_active.
+
+-- Per-user submission history and stats over a time window
+CREATE INDEX IF NOT EXISTS idx_submissions_user_submitted ON submissions (user_id, submitted_at);
+-- Submissions of a feedback, and the duplicate-submission check
+CREATE INDEX IF NOT EXISTS idx_submissions_feedback_user ON submissions (feedback_id, user_id);
+-- Dashboard windows and "recent submissions"
+CREATE INDEX IF NOT EXISTS idx_submissions_submitted_at ON submissions (submitted_at);
+
+-- Active and currently open feedbacks
+CREATE INDEX IF NOT EXISTS idx_feedbacks_active_window ON feedbacks (active, start_date, end_date);
+CREATE INDEX IF NOT EXISTS idx_feedbacks_created_at ON feedbacks (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_projects_created_at ON projects (created_at);
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
+
+-- Feedbacks targeted at a user or department; the primary keys lead with feedback_id
+CREATE INDEX IF NOT EXISTS idx_feedback_target_users_user_id ON feedback_target_users (user_id);
+CREATE INDEX IF NOT EXISTS idx_feedback_target_departments_department_id ON feedback_target_departments (department_id);
@@ -0,0 +1,333 @@
+package dev.bengi.main;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.bengi.main.modules.dashboard.service.DashboardService;
+import dev.bengi.main.modules.feedback.service.FeedbackInboxService;
+import dev.bengi.main.modules.feedback.service.FeedbackService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * EXPLAINs every repository {@code @Query} and the {@code *_SQL} statements of
+ * {@link DashboardService} and {@link FeedbackService} against a migrated, seeded PostgreSQL,
+ * and fails when a plan reads the whole of one of the large tables: a sequential scan, or an
+ * index or bitmap scan without an {@code Index Cond} (the index walked end to end, rows
+ * filtered afterwards). An unconditioned index scan that only feeds a LIMIT stops early and
+ * is allowed.
+ * <p>
+ * Plans come from the real planner over the seeded, analyzed data, so a failure means the
+ * planner judged reading everything cheaper at this data size. That is usually a missing or
+ * unusable index, but can also be a predicate that is not selective on the seed.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanRegressionTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    // Tables that grow with usage; small reference tables (roles, departments, questions) may be scanned
+    private static final Set<String> LARGE_TABLES = Set.of(
+            "users", "user_roles", "projects", "project_members", "project_member_roles",
+            "feedbacks", "feedback_questions", "feedback_target_users", "feedback_target_departments",
+            "submissions", "submission_responses", "submission_sessions", "feedback_inbox");
+
+    // Aggregates over all or most of a table by design, and the periodic full recompute
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            "ProjectRepository.countActiveProjects",
+            "UserRepository.countActiveUsers",
+            "ProjectMemberRepository.countDistinctMembers",
+            "FeedbackRepository.countCompletedFeedbacks",
+            "DashboardService.DEPARTMENT_METRICS_SQL",
+            "FeedbackInboxService.RECONCILE_SQL");
+
+    private static final Set<String> INDEX_SCANS = Set.of("Index Scan", "Index Only Scan");
+
+    // Nodes that pass rows on as they read them, so a LIMIT above still stops the scan below
+    private static final Set<String> STREAMING_NODES = Set.of(
+            "Limit", "Result", "Subquery Scan", "Append", "Merge Append", "Nested Loop", "Gather", "Gather Merge");
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<![:\\w]):(\\w+)");
+    private static final LocalDateTime WINDOW_END = LocalDateTime.now();
+    private static final LocalDateTime WINDOW_START = WINDOW_END.minusDays(1);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String SEED_SQL = """
+        TRUNCATE users, departments, projects, feedbacks, questions, submissions, submission_sessions
+            RESTART IDENTITY CASCADE;
+
+        INSERT INTO departments (id, name, active)
+        SELECT g, 'Department ' || g, g % 10 <> 0 FROM generate_series(1, 50) g;
+
+        INSERT INTO users (id, username, email, password, first_name, last_name, department_id, active, last_login_at, created_at)
+        SELECT g, 'user' || g, 'user' || g || '@example.com', 'x', 'First' || g, 'Last' || g, 1 + g % 50,
+               g % 20 <> 0, NOW() - (g % 720) * INTERVAL '1 hour', NOW() - (g % 730) * INTERVAL '1 day'
+        FROM generate_series(1, 20000) g;
+
+        INSERT INTO user_roles (user_id, role_id)
+        SELECT u.id, r.id FROM users u JOIN roles r ON r.name = CASE WHEN u.id % 100 = 0 THEN 'ADMIN' ELSE 'USER' END;
+
+        INSERT INTO projects (id, name, active, department_id, created_at)
+        SELECT g, 'Project ' || g, g % 4 <> 0, 1 + g % 50, NOW() - (g % 730) * INTERVAL '1 day'
+        FROM generate_series(1, 2000) g;
+
+        INSERT INTO project_members (project_id, user_id)
+        SELECT 1 + g % 2000, 1 + (g * 7) % 20000 FROM generate_series(1, 40000) g
+        ON CONFLICT DO NOTHING;
+
+        INSERT INTO project_member_roles (project_id, user_id, role_id, is_active)
+        SELECT pm.project_id, pm.user_id, (SELECT MIN(id) FROM project_roles), pm.user_id % 10 <> 0
+        FROM project_members pm;
+
+        INSERT INTO feedbacks (id, title, project_id, start_date, end_date, active, created_at)
+        SELECT g, 'Feedback ' || g, 1 + g % 2000, NOW() - (g % 730) * INTERVAL '1 day',
+               NOW() - (g % 730) * INTERVAL '1 day' + INTERVAL '14 days', g % 730 < 14,
+               NOW() - (g % 730) * INTERVAL '1 day'
+        FROM generate_series(1, 10000) g;
+
+        INSERT INTO questions (id, text, question_type)
+        SELECT g, 'Question ' || g, 'TEXT' FROM generate_series(1, 200) g;
+
+        INSERT INTO feedback_questions (feedback_id, question_id)
+        SELECT f, 1 + (f * 10 + q) % 200 FROM generate_series(1, 10000) f, generate_series(0, 9) q;
+
+        INSERT INTO feedback_target_users (feedback_id, user_id)
+        SELECT f, 1 + (f * 13 + k * 997) % 20000 FROM generate_series(1, 10000) f, generate_series(0, 4) k
+        ON CONFLICT DO NOTHING;
+
+        INSERT INTO feedback_target_departments (feedback_id, department_id)
+        SELECT f, 1 + f % 50 FROM generate_series(1, 10000) f;
+
+        INSERT INTO submissions (id, feedback_id, user_id, submitted_at, privacy_level, admin_rating)
+        SELECT g, 1 + g % 10000, 'user' || (1 + (g * 31) % 20000),
+               NOW() - (g % 730) * INTERVAL '1 day' - (g % 24) * INTERVAL '1 hour', 'PUBLIC',
+               CASE WHEN g % 3 = 0 THEN 1 + g % 5 END
+        FROM generate_series(1, 200000) g;
+
+        INSERT INTO submission_responses (submission_id, question_id, response)
+        SELECT s, 1 + (s * 3 + q) % 200, 'Answer ' || q FROM generate_series(1, 200000) s, generate_series(0, 2) q;
+
+        INSERT INTO feedback_inbox (user_id, feedback_id, eligible, submitted, active, start_date, due_date)
+        SELECT t.user_id, f.id, TRUE, t.user_id % 3 = 0, f.active, f.start_date, f.end_date
+        FROM feedback_target_users t JOIN feedbacks f ON f.id = t.feedback_id;
+
+        INSERT INTO submission_sessions (feedback_id, submission_id, user_id, started_at, ended_at, duration_seconds)
+        SELECT 1 + g % 10000, g, 'user' || (1 + (g * 31) % 20000), NOW() - (g % 730) * INTERVAL '1 day',
+               NOW() - (g % 730) * INTERVAL '1 day' + INTERVAL '5 minutes', 300
+        FROM generate_series(1, 50000) g;
+        """;
+
+    private static NamedParameterJdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        jdbc = new NamedParameterJdbcTemplate(new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true));
+        jdbc.getJdbcTemplate().execute(SEED_SQL);
+        jdbc.getJdbcTemplate().execute("ANALYZE");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueries() {
+        return repositoryInterfaces().stream()
+                .flatMap(repository -> Stream.of(repository.getDeclaredMethods())
+                        .filter(method -> method.isAnnotationPresent(Query.class))
+                        .sorted(Comparator.comparing(Method::getName))
+                        .map(method -> {
+                            String name = repository.getSimpleName() + "." + method.getName();
+                            return DynamicTest.dynamicTest(name,
+                                    () -> assertNoFullScan(name,
+                                            method.getAnnotation(Query.class).value(), parameters(method)));
+                        }));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> serviceQueries() {
+        return Stream.of(DashboardService.class, FeedbackService.class, FeedbackInboxService.class)
+                .flatMap(service -> sqlConstants(service).entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(e -> DynamicTest.dynamicTest(e.getKey(),
+                                () -> assertNoFullScan(e.getKey(), e.getValue(), parameters(e.getValue())))));
+    }
+
+    private static void assertNoFullScan(String name, String sql, MapSqlParameterSource params)
+            throws Exception {
+        // Always planned, so allowed statements still fail when their SQL no longer matches the schema
+        String plan = jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + sql, params, String.class);
+        if (FULL_SCAN_ALLOWED.contains(name)) {
+            return;
+        }
+        List<String> scanned = new ArrayList<>();
+        collectFullScans(MAPPER.readTree(plan).get(0).get("Plan"), false, scanned);
+        assertTrue(scanned.isEmpty(), () -> name + " reads all of " + scanned + ":\n" + plan);
+    }
+
+    /**
+     * @param limited whether rows flow from this node to a LIMIT without passing a node that
+     *                first consumes all its input (sort, aggregate, hash)
+     */
+    private static void collectFullScans(JsonNode node, boolean limited, List<String> scanned) {
+        String type = node.path("Node Type").asText();
+        String relation = node.path("Relation Name").asText();
+        if (LARGE_TABLES.contains(relation)) {
+            if ("Seq Scan".equals(type)) {
+                scanned.add(relation + " (Seq Scan)");
+            } else if (INDEX_SCANS.contains(type) && !node.has("Index Cond") && !limited) {
+                scanned.add(relation + " (" + type + " on " + node.path("Index Name").asText() + " without Index Cond)");
+            } else if ("Bitmap Heap Scan".equals(type)) {
+                collectUnconditionedBitmapScans(node, relation, scanned);
+            }
+        }
+        boolean limitedBelow = "Limit".equals(type) || (limited && STREAMING_NODES.contains(type));
+        for (JsonNode child : node.path("Plans")) {
+            // The inner side of a nested loop is rescanned per outer row; only the outer side streams
+            boolean inner = "Inner".equals(child.path("Parent Relationship").asText());
+            collectFullScans(child, limitedBelow && !inner, scanned);
+        }
+    }
+
+    private static void collectUnconditionedBitmapScans(JsonNode node, String relation, List<String> scanned) {
+        for (JsonNode child : node.path("Plans")) {
+            if ("Bitmap Index Scan".equals(child.path("Node Type").asText()) && !child.has("Index Cond")) {
+                scanned.add(relation + " (Bitmap Index Scan on " + child.path("Index Name").asText() + " without Index Cond)");
+            }
+            collectUnconditionedBitmapScans(child, relation, scanned);
+        }
+    }
+
+    private static List<Class<?>> repositoryInterfaces() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definition) {
+                return definition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        return scanner.findCandidateComponents("dev.bengi.main").stream()
+                .map(definition -> {
+                    try {
+                        return (Class<?>) Class.forName(definition.getBeanClassName());
+                    } catch (ClassNotFoundException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .sorted(Comparator.comparing(Class::getSimpleName))
+                .toList();
+    }
+
+    private static Map<String, String> sqlConstants(Class<?> service) {
+        Map<String, String> statements = new HashMap<>();
+        for (Field field : service.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class
+                    && field.getName().endsWith("_SQL")) {
+                try {
+                    field.setAccessible(true);
+                    statements.put(service.getSimpleName() + "." + field.getName(), (String) field.get(null));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return statements;
+    }
+
+    private static MapSqlParameterSource parameters(Method method) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        for (Parameter parameter : method.getParameters()) {
+            Param param = parameter.getAnnotation(Param.class);
+            String name = param != null ? param.value() : parameter.getName();
+            if (!parameter.isNamePresent() && param == null) {
+                fail(method + " parameter names are not available; compile with -parameters");
+            }
+            params.addValue(name, sampleValue(name, parameter.getType()));
+        }
+        return params;
+    }
+
+    // Service statements bind by name only; the names map to fixed types across the services
+    private static MapSqlParameterSource parameters(String sql) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            Class<?> type = switch (name) {
+                case "feedbackId", "departmentId", "userId" -> Long.class;
+                case "username" -> String.class;
+                case "since", "from", "to", "monthStart", "monthEnd", "now" -> LocalDateTime.class;
+                case "limit" -> Integer.class;
+                case "userIds" -> Long[].class;
+                default -> throw new IllegalArgumentException("No sample type for :" + name + " in " + sql);
+            };
+            params.addValue(name, sampleValue(name, type));
+        }
+        return params;
+    }
+
+    private static Object sampleValue(String name, Class<?> type) {
+        if (type == LocalDateTime.class) {
+            return name.equals("to") || name.endsWith("End") ? WINDOW_END : WINDOW_START;
+        }
+        if (type == Long.class || type == long.class) {
+            return 42L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 10;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return true;
+        }
+        if (type == String.class) {
+            return switch (name) {
+                case "email" -> "user42@example.com";
+                case "name" -> "ADMIN";
+                case "choice" -> "Yes";
+                default -> "user42";
+            };
+        }
+        if (type == Long[].class) {
+            return new Long[]{41L, 42L, 43L};
+        }
+        if (type == String[].class) {
+            return new String[]{"a", "b", "c"};
+        }
+        throw new IllegalArgumentException("No sample value for " + type.getSimpleName() + " " + name);
+    }
+}
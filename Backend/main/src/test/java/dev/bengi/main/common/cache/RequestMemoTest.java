@@ -0,0 +1,65 @@
+package dev.bengi.main.common.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestMemoTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestMemo requestMemo;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestMemo = new RequestMemo(meterRegistry);
+    }
+
+    @Test
+    void sameKeyIsLoadedOncePerScope() {
+        RequestMemo.Scope scope = requestMemo.open();
+        Mono<String> lookups = lookup("alice")
+                .then(lookup("alice"))
+                .then(lookup("bob"))
+                .then(lookup("alice"))
+                .contextWrite(context -> context.put(RequestMemo.Scope.class, scope));
+
+        assertEquals("alice", lookups.block());
+        assertEquals(2, loads.get());
+        assertEquals(2, scope.avoided("user"));
+
+        requestMemo.close(scope, "/api/users/{id}");
+        assertEquals(2.0, meterRegistry.get("request.memo.avoided")
+                .tag("route", "/api/users/{id}")
+                .tag("name", "user")
+                .counter().count());
+    }
+
+    @Test
+    void scopesDoNotShareResults() {
+        lookup("alice").contextWrite(context -> context.put(RequestMemo.Scope.class, requestMemo.open())).block();
+        lookup("alice").contextWrite(context -> context.put(RequestMemo.Scope.class, requestMemo.open())).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void withoutScopeEveryCallLoads() {
+        lookup("alice").then(lookup("alice")).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    private Mono<String> lookup(String username) {
+        return requestMemo.memoize("user", username, () -> Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return username;
+        }));
+    }
+}
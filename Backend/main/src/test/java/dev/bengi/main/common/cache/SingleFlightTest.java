@@ -0,0 +1,88 @@
+package dev.bengi.main.common.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() {
+        Sinks.One<String> result = Sinks.one();
+        Mono<String> first = singleFlight.execute("stats", () -> load(result.asMono()));
+        Mono<String> second = singleFlight.execute("stats", () -> load(Mono.just("other")));
+
+        Mono<String> firstResult = first.cache();
+        firstResult.subscribe();
+        Mono<String> secondResult = second.cache();
+        secondResult.subscribe();
+        result.tryEmitValue("value");
+
+        assertEquals("value", firstResult.block());
+        assertEquals("value", secondResult.block());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("coalesced"));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void resultIsReusedUntilTtlExpires() throws InterruptedException {
+        Duration ttl = Duration.ofMillis(200);
+        singleFlight.execute("stats", ttl, () -> load(Mono.just("a"))).block();
+        assertEquals("a", singleFlight.execute("stats", ttl, () -> load(Mono.just("b"))).block());
+        assertEquals(1.0, count("cached"));
+
+        Thread.sleep(ttl.toMillis() + 50);
+        assertEquals("c", singleFlight.execute("stats", ttl, () -> load(Mono.just("c"))).block());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void errorsAreNotRetained() {
+        Duration ttl = Duration.ofMinutes(1);
+        Mono<String> failing = singleFlight.execute("stats", ttl, () -> load(Mono.error(new IllegalStateException("boom"))));
+        assertThrows(IllegalStateException.class, failing::block);
+
+        assertEquals("ok", singleFlight.execute("stats", ttl, () -> load(Mono.just("ok"))).block());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadDoesNotSeeTheFirstCallersMemoScope() {
+        RequestMemo.Scope scope = new RequestMemo(meterRegistry).open();
+
+        Boolean scoped = singleFlight.execute("stats", () -> Mono.deferContextual(
+                        context -> load(Mono.just(context.hasKey(RequestMemo.Scope.class)))))
+                .contextWrite(context -> context.put(RequestMemo.Scope.class, scope))
+                .block();
+
+        assertEquals(false, scoped);
+    }
+
+    private <T> Mono<T> load(Mono<T> value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("singleflight.calls").tag("key", "stats").tag("outcome", outcome).counter().count();
+    }
+}
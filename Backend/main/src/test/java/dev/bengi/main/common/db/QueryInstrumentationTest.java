@@ -0,0 +1,152 @@
+package dev.bengi.main.common.db;
+
+import dev.bengi.main.common.cache.SingleFlight;
+import dev.bengi.main.exception.GlobalServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class QueryInstrumentationTest {
+
+    private static final String ROUTE = "/api/feedbacks/{id}";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestQueryStats stats;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stats = new RequestQueryStats(() -> ROUTE);
+    }
+
+    @Test
+    void countsStatementsAndRowsOfTheRequest() {
+        QueryInstrumentation instrumentation = new QueryInstrumentation(meterRegistry, 50, QueryInstrumentation.BudgetMode.LOG);
+
+        assertEquals(List.of("a", "b"), query(instrumentation, "a", "b").collectList().block());
+        query(instrumentation, "c").blockLast();
+        instrumentation.record(stats);
+
+        assertEquals(2, stats.queries());
+        assertEquals(3, stats.rows());
+        assertEquals(2.0, meterRegistry.get("request.db.queries").tag("route", ROUTE).summary().totalAmount());
+        assertEquals(3.0, meterRegistry.get("request.db.rows").tag("route", ROUTE).summary().totalAmount());
+        assertEquals(1, meterRegistry.get("request.db.time").tag("route", ROUTE).timer().count());
+        assertEquals(0.0, meterRegistry.get("request.db.budget.exceeded").tag("route", ROUTE).counter().count());
+    }
+
+    @Test
+    void failModeRejectsTheStatementOverBudget() {
+        QueryInstrumentation instrumentation = new QueryInstrumentation(meterRegistry, 1, QueryInstrumentation.BudgetMode.FAIL);
+
+        query(instrumentation, "a").blockLast();
+        assertThrows(GlobalServiceException.class, () -> query(instrumentation, "b").blockLast());
+        instrumentation.record(stats);
+
+        assertEquals(1.0, meterRegistry.get("request.db.budget.exceeded").tag("route", ROUTE).counter().count());
+    }
+
+    @Test
+    void statementsOutsideARequestAreNotCounted() {
+        QueryInstrumentation instrumentation = new QueryInstrumentation(meterRegistry, 1, QueryInstrumentation.BudgetMode.FAIL);
+
+        Flux.<Result>concat(instrumentation.execute(statement("a")), instrumentation.execute(statement("b")))
+                .blockLast();
+
+        assertEquals(0, stats.queries());
+    }
+
+    @Test
+    void filterRecordsTheRequestUnderItsMatchedRoute() {
+        QueryInstrumentation instrumentation = new QueryInstrumentation(meterRegistry, 50, QueryInstrumentation.BudgetMode.LOG);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/feedbacks/7"));
+
+        new QueryInstrumentationFilter(instrumentation)
+                .filter(exchange, routed(ROUTE, unscoped(instrumentation, "a").concatWith(unscoped(instrumentation, "b")).then()))
+                .block();
+
+        assertEquals(2.0, meterRegistry.get("request.db.queries").tag("route", ROUTE).summary().totalAmount());
+    }
+
+    @Test
+    void filterFailsTheRequestOverBudget() {
+        QueryInstrumentation instrumentation = new QueryInstrumentation(meterRegistry, 1, QueryInstrumentation.BudgetMode.FAIL);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/feedbacks/7"));
+        WebFilterChain chain = routed(ROUTE, unscoped(instrumentation, "a").concatWith(unscoped(instrumentation, "b")).then());
+
+        assertThrows(GlobalServiceException.class,
+                () -> new QueryInstrumentationFilter(instrumentation).filter(exchange, chain).block());
+        assertEquals(1.0, meterRegistry.get("request.db.budget.exceeded").tag("route", ROUTE).counter().count());
+    }
+
+    @Test
+    void detachedStatementsAreNotCountedAgainstTheRequest() {
+        QueryInstrumentation instrumentation = new QueryInstrumentation(meterRegistry, 1, QueryInstrumentation.BudgetMode.FAIL);
+
+        query(instrumentation, "a").blockLast();
+        unscoped(instrumentation, "b")
+                .contextWrite(QueryInstrumentation::detach)
+                .contextWrite(context -> context.put(RequestQueryStats.class, stats))
+                .blockLast();
+
+        assertEquals(1, stats.queries());
+    }
+
+    @Test
+    void sharedLoadsAreNotChargedToTheRequestThatStartedThem() {
+        QueryInstrumentation instrumentation = new QueryInstrumentation(meterRegistry, 1, QueryInstrumentation.BudgetMode.FAIL);
+        SingleFlight singleFlight = new SingleFlight(meterRegistry);
+
+        query(instrumentation, "a").blockLast();
+        String shared = singleFlight.execute("stats", () -> unscoped(instrumentation, "b").next())
+                .contextWrite(context -> context.put(RequestQueryStats.class, stats))
+                .block();
+
+        assertEquals("b", shared);
+        assertEquals(1, stats.queries());
+    }
+
+    private static WebFilterChain routed(String route, Mono<Void> handler) {
+        return exchange -> {
+            exchange.getAttributes().put(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                    PathPatternParser.defaultInstance.parse(route));
+            return handler;
+        };
+    }
+
+    private Flux<String> query(QueryInstrumentation instrumentation, String... rows) {
+        return unscoped(instrumentation, rows)
+                .contextWrite(context -> context.put(RequestQueryStats.class, stats));
+    }
+
+    private static Flux<String> unscoped(QueryInstrumentation instrumentation, String... rows) {
+        return Flux.from(instrumentation.execute(statement(rows)))
+                .flatMap(result -> result.map((row, meta) -> (String) row.get(0)));
+    }
+
+    private static Statement statement(String... rows) {
+        Result result = mock(Result.class);
+        doReturn(Flux.just(rows)).when(result).map(any(BiFunction.class));
+        Statement statement = mock(Statement.class);
+        doReturn(Flux.just(result)).when(statement).execute();
+        return statement;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.bengi.main.common.db;
+
+import io.r2dbc.h2.CloseableConnectionFactory;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionCallbacksTest {
+
+    private final AtomicBoolean ran = new AtomicBoolean();
+    private CloseableConnectionFactory connectionFactory;
+    private DatabaseClient databaseClient;
+    private TransactionalOperator transactionalOperator;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = H2ConnectionFactory.inMemory("callbacks-" + System.nanoTime());
+        databaseClient = DatabaseClient.create(connectionFactory);
+        transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.close().block();
+    }
+
+    @Test
+    void runsOnlyOnceTheTransactionCompletes() {
+        Boolean ranBeforeCommit = databaseClient.sql("SELECT 1").then()
+                .then(TransactionCallbacks.afterCompletion(() -> ran.set(true)))
+                .then(Mono.fromSupplier(ran::get))
+                .as(transactionalOperator::transactional)
+                .block();
+
+        assertFalse(ranBeforeCommit);
+        assertTrue(ran.get());
+    }
+
+    @Test
+    void runsOnRollbackToo() {
+        Mono<Void> failing = TransactionCallbacks.afterCompletion(() -> ran.set(true))
+                .then(Mono.<Void>error(new IllegalStateException("boom")))
+                .as(transactionalOperator::transactional);
+
+        assertThrows(IllegalStateException.class, failing::block);
+        assertTrue(ran.get());
+    }
+
+    @Test
+    void runsRightAwayOutsideATransaction() {
+        TransactionCallbacks.afterCompletion(() -> ran.set(true)).block();
+
+        assertTrue(ran.get());
+    }
+}
@@ -0,0 +1,116 @@
+package dev.bengi.main.common.pagination;
+
+import dev.bengi.main.common.search.SearchTarget;
+import dev.bengi.main.modules.projects.model.Project;
+import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs searches through {@link PaginationService} against PostgreSQL, so every parameter bound
+ * to a statement must actually appear in it (the driver rejects the rest).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PaginationSearchIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String USERS_SQL = "SELECT u.* FROM users u WHERE 1=1";
+    private static final String USERS_COUNT_SQL = "SELECT COUNT(*) FROM users u WHERE 1=1";
+    private static final Set<String> USER_SORT_FIELDS = Set.of("id", "username");
+
+    private static PaginationService paginationService;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        jdbc.execute("""
+            INSERT INTO users (username, email, password, first_name, last_name, active)
+            VALUES ('alice', 'alice@example.com', 'x', 'Alice', 'Smith', TRUE),
+                   ('alicia', 'alicia@example.com', 'x', 'Alicia', 'Jones', TRUE),
+                   ('bob', 'bob@example.com', 'x', 'Bob', 'Alison', TRUE),
+                   ('carol', 'carol@example.com', 'x', 'Carol', 'White', TRUE);
+            INSERT INTO projects (name, active) VALUES ('Alpha release', TRUE), ('Beta launch', TRUE), ('Alpha docs', TRUE);
+            """);
+
+        DatabaseClient databaseClient = DatabaseClient.create(new PostgresqlConnectionFactory(
+                PostgresqlConnectionConfiguration.builder()
+                        .host(POSTGRES.getHost())
+                        .port(POSTGRES.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT))
+                        .database(POSTGRES.getDatabaseName())
+                        .username(POSTGRES.getUsername())
+                        .password(POSTGRES.getPassword())
+                        .build()));
+        paginationService = new PaginationService(databaseClient, new MappingR2dbcConverter(new R2dbcMappingContext()));
+    }
+
+    @Test
+    void searchSortedByColumn() {
+        PageResponse<String> page = searchUsers(new PageRequest(0, 10, "username", "asc", "ali", null));
+
+        assertEquals(List.of("alice", "alicia", "bob"), page.getContent());
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    void searchSortedByRelevance() {
+        PageResponse<String> page = searchUsers(new PageRequest(0, 10, PaginationService.RELEVANCE_SORT, "asc", "ali", null));
+
+        // Names starting with the term rank ahead of matches elsewhere in the document
+        assertEquals(Set.of("alice", "alicia"), Set.copyOf(page.getContent().subList(0, 2)));
+        assertEquals("bob", page.getContent().get(2));
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    void keysetSearchWithCount() {
+        PageResponse<String> page = paginationService.paginateKeyset(
+                KeysetQuery.of(Project.class, "SELECT * FROM projects")
+                        .searchable(SearchTarget.PROJECTS)
+                        .sortableBy("name"),
+                new PageRequest(0, 10, "name", "asc", "alpha", null),
+                projects -> Flux.fromIterable(projects).map(Project::getName))
+                .block();
+
+        assertEquals(List.of("Alpha docs", "Alpha release"), page.getContent());
+        assertEquals(2, page.getTotalElements());
+    }
+
+    private static PageResponse<String> searchUsers(PageRequest pageRequest) {
+        return paginationService.executePaginatedQuery(
+                USERS_SQL,
+                USERS_COUNT_SQL,
+                Map.of(),
+                pageRequest,
+                USER_SORT_FIELDS,
+                paginationService.buildSearchCondition(pageRequest, SearchTarget.USERS, "u"),
+                spec -> spec.map((row, meta) -> row.get("username", String.class)).all(),
+                spec -> spec.map((row, meta) -> row.get(0, Long.class)).one())
+                .block();
+    }
+}
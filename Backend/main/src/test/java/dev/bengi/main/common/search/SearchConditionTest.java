@@ -0,0 +1,64 @@
+package dev.bengi.main.common.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchConditionTest {
+
+    @Test
+    void termIsBoundNotInlined() {
+        SearchCondition condition = SearchCondition.of(SearchTarget.USERS, "u", "x' OR '1'='1");
+
+        assertFalse(condition.where().contains("'1'"));
+        assertFalse(condition.orderBy().contains("'1'"));
+        assertEquals("x'%", condition.params().get("search_0"));
+        assertEquals("%'1'='1%", condition.params().get("search_2"));
+    }
+
+    @Test
+    void statementTextDependsOnlyOnWordShape() {
+        SearchCondition first = SearchCondition.of(SearchTarget.PROJECTS, null, "alpha release");
+        SearchCondition second = SearchCondition.of(SearchTarget.PROJECTS, null, "BETA Launch");
+
+        assertEquals(first.where(), second.where());
+        assertEquals(first.orderBy(), second.orderBy());
+    }
+
+    @Test
+    void rankingParametersAreKeptApartFromTheFilter() {
+        SearchCondition condition = SearchCondition.of(SearchTarget.FEEDBACKS, null, "quarterly review");
+
+        assertEquals(Set.of("search_0", "search_1"), condition.params().keySet());
+        assertEquals(Set.of("search_prefix", "search_query"), condition.orderParams().keySet());
+        assertFalse(condition.where().contains(":search_prefix"));
+    }
+
+    @Test
+    void shortWordsMatchNamePrefix() {
+        SearchCondition condition = SearchCondition.of(SearchTarget.USERS, "u", "jo");
+
+        assertEquals("(lower(coalesce(u.username, '')) LIKE :search_0)", condition.where());
+        assertEquals("jo%", condition.params().get("search_0"));
+    }
+
+    @Test
+    void likeWildcardsAreEscaped() {
+        SearchCondition condition = SearchCondition.of(SearchTarget.QUESTIONS, null, "100%_done");
+
+        assertEquals("%100\\%\\_done%", condition.params().get("search_0"));
+    }
+
+    @Test
+    void wordsAreNormalisedAndCapped() {
+        assertEquals(SearchCondition.MAX_WORDS, SearchCondition.words("a b c d e f g").size());
+        assertEquals(1, SearchCondition.words("  Alpha   alpha ").size());
+        assertTrue(SearchCondition.words("   ").isEmpty());
+        assertNull(SearchCondition.of(SearchTarget.FEEDBACKS, null, "  "));
+    }
+}
@@ -0,0 +1,158 @@
+package dev.bengi.main.modules.feedback.service;
+
+import dev.bengi.main.common.cache.ReferenceDataCache;
+import dev.bengi.main.modules.feedback.dto.FeedbackMapper;
+import dev.bengi.main.modules.feedback.dto.FeedbackResponseDto;
+import dev.bengi.main.modules.feedback.model.Feedback;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.h2.CloseableConnectionFactory;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query-count regression test for the feedback batch enrichment stage.
+ * The number of statements must stay the same no matter how many feedbacks are enriched.
+ */
+class FeedbackBatchEnricherTest {
+
+    private static final int EXPECTED_QUERIES = 5;
+
+    private final AtomicInteger executedStatements = new AtomicInteger();
+    private CloseableConnectionFactory connectionFactory;
+    private DatabaseClient databaseClient;
+    private FeedbackBatchEnricher enricher;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = H2ConnectionFactory.inMemory("enricher-" + System.nanoTime());
+        databaseClient = DatabaseClient.builder()
+                .connectionFactory(connectionFactory)
+                .executeFunction(statement -> {
+                    executedStatements.incrementAndGet();
+                    return statement.execute();
+                })
+                .build();
+        ReferenceDataCache referenceDataCache =
+                new ReferenceDataCache(databaseClient, new SimpleMeterRegistry(), 1_000, Duration.ofMinutes(10));
+        enricher = new FeedbackBatchEnricher(databaseClient, Mappers.getMapper(FeedbackMapper.class), referenceDataCache);
+
+        Flux.just(
+                "CREATE TABLE projects (id BIGINT PRIMARY KEY, name VARCHAR(255))",
+                "CREATE TABLE questions (id BIGINT PRIMARY KEY, text VARCHAR(500))",
+                "CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(100))",
+                "CREATE TABLE departments (id BIGINT PRIMARY KEY, name VARCHAR(255))",
+                "CREATE TABLE feedback_questions (feedback_id BIGINT, question_id BIGINT)",
+                "CREATE TABLE feedback_target_users (feedback_id BIGINT, user_id BIGINT)",
+                "CREATE TABLE feedback_target_departments (feedback_id BIGINT, department_id BIGINT)",
+                "CREATE TABLE submissions (id BIGINT AUTO_INCREMENT PRIMARY KEY, feedback_id BIGINT)",
+                "INSERT INTO projects VALUES (1, 'Alpha'), (2, 'Beta')",
+                "INSERT INTO departments VALUES (1, 'Engineering'), (2, 'Testing')"
+        ).concatMap(sql -> databaseClient.sql(sql).then()).blockLast();
+
+        seedFeedbacks(50, 20);
+        executedStatements.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.close().block();
+    }
+
+    @Test
+    void queryCountDoesNotDependOnBatchSize() {
+        enrich(feedbacks(1));
+        int singleFeedbackQueries = executedStatements.getAndSet(0);
+
+        enrich(feedbacks(50));
+        int fiftyFeedbackQueries = executedStatements.getAndSet(0);
+
+        assertEquals(EXPECTED_QUERIES, singleFeedbackQueries);
+        assertEquals(singleFeedbackQueries, fiftyFeedbackQueries);
+    }
+
+    @Test
+    void cachedProjectNamesSkipTheProjectQuery() {
+        enrich(feedbacks(2));
+        executedStatements.set(0);
+
+        List<FeedbackResponseDto> result = enrich(feedbacks(2));
+
+        assertEquals(EXPECTED_QUERIES - 1, executedStatements.get());
+        assertEquals("Beta", result.get(0).projectName());
+        assertEquals("Alpha", result.get(1).projectName());
+    }
+
+    @Test
+    void resolvesNamesAndCountsPerFeedback() {
+        List<FeedbackResponseDto> result = enrich(feedbacks(3));
+
+        assertEquals(List.of(1L, 2L, 3L), result.stream().map(FeedbackResponseDto::id).toList());
+
+        FeedbackResponseDto first = result.get(0);
+        assertEquals("Beta", first.projectName());
+        assertEquals(20, first.questionIds().size());
+        assertEquals("Question 1", first.questionTitles().get(0));
+        assertEquals(20, first.targetUsernames().size());
+        assertEquals("user1", first.targetUsernames().get(0));
+        assertEquals(List.of("Testing"), first.targetDepartmentNames());
+        assertEquals(1L, first.submissionCount());
+        assertTrue(first.canSubmit());
+        assertFalse(result.get(1).canSubmit());
+    }
+
+    @Test
+    void emptyBatchRunsNoQueries() {
+        List<FeedbackResponseDto> result = enricher.enrich(Flux.empty(), batch -> Mono.just(Set.of()))
+                .collectList()
+                .block();
+
+        assertTrue(result.isEmpty());
+        assertEquals(0, executedStatements.get());
+    }
+
+    private List<FeedbackResponseDto> enrich(List<Feedback> feedbacks) {
+        return enricher.enrich(Flux.fromIterable(feedbacks), batch -> Mono.just(Set.of(1L)))
+                .collectList()
+                .block();
+    }
+
+    private void seedFeedbacks(int feedbackCount, int targetsPerFeedback) {
+        Flux<String> statements = Flux.concat(
+                Flux.range(1, targetsPerFeedback).map(i ->
+                        "INSERT INTO questions VALUES (" + i + ", 'Question " + i + "')"),
+                Flux.range(1, targetsPerFeedback).map(i ->
+                        "INSERT INTO users VALUES (" + i + ", 'user" + i + "')"),
+                Flux.range(1, feedbackCount).flatMapIterable(f -> List.of(
+                        "INSERT INTO feedback_target_departments VALUES (" + f + ", " + (f % 2 + 1) + ")",
+                        "INSERT INTO submissions (feedback_id) VALUES (" + f + ")")),
+                Flux.range(1, feedbackCount).flatMap(f -> Flux.range(1, targetsPerFeedback).flatMapIterable(t -> List.of(
+                        "INSERT INTO feedback_questions VALUES (" + f + ", " + t + ")",
+                        "INSERT INTO feedback_target_users VALUES (" + f + ", " + t + ")")))
+        );
+        statements.concatMap(sql -> databaseClient.sql(sql).then()).blockLast();
+    }
+
+    private List<Feedback> feedbacks(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new Feedback(id, "Feedback " + id, null, id % 2 + 1, now, now.plusDays(7), true, now, now))
+                .toList();
+    }
+}
@@ -0,0 +1,113 @@
+package dev.bengi.main.modules.feedback.service;
+
+import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Folds submissions into the results rollup one at a time, as submits do, and checks that a
+ * rebuild from submission_responses writes exactly the same rows.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FeedbackResultsIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbc;
+    private static FeedbackResultsService resultsService;
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+
+        PostgresqlConnectionFactory connectionFactory = new PostgresqlConnectionFactory(
+                PostgresqlConnectionConfiguration.builder()
+                        .host(POSTGRES.getHost())
+                        .port(POSTGRES.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT))
+                        .database(POSTGRES.getDatabaseName())
+                        .username(POSTGRES.getUsername())
+                        .password(POSTGRES.getPassword())
+                        .build());
+        resultsService = new FeedbackResultsService(
+                DatabaseClient.create(connectionFactory),
+                TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory)));
+    }
+
+    @Test
+    void rebuildMatchesIncrementalSubmits() {
+        long feedbackId = insertId("INSERT INTO feedbacks (title) VALUES ('Quarterly review') RETURNING id");
+        long rating = question(feedbackId, "How was it?", "RATING");
+        long agree = question(feedbackId, "Would you recommend it?", "BOOLEAN");
+        long colour = question(feedbackId, "Favourite colour", "MULTIPLE_CHOICE");
+        long comment = question(feedbackId, "Anything else?", "TEXT");
+
+        submit(feedbackId, Map.of(rating, "4", agree, "TRUE", colour, "Red", comment, "Fine"));
+        submit(feedbackId, Map.of(rating, " 2 ", agree, "false", colour, "Blue"));
+        submit(feedbackId, Map.of(rating, "n/a", agree, "True", colour, "Red", comment, " "));
+        submit(feedbackId, Map.of());
+
+        Map<String, Object> incremental = snapshot(feedbackId);
+        assertFalse(((List<?>) incremental.get("questions")).isEmpty());
+
+        resultsService.rebuild(feedbackId).block();
+
+        assertEquals(incremental, snapshot(feedbackId));
+    }
+
+    private static void submit(long feedbackId, Map<Long, String> responses) {
+        long submissionId = insertId("INSERT INTO submissions (feedback_id, privacy_level) VALUES (?, 'PUBLIC') RETURNING id", feedbackId);
+        responses.forEach((questionId, response) -> jdbc.update(
+                "INSERT INTO submission_responses (submission_id, question_id, response) VALUES (?, ?, ?)",
+                submissionId, questionId, response));
+        resultsService.recordSubmission(feedbackId, responses).block();
+    }
+
+    private static long question(long feedbackId, String text, String type) {
+        long questionId = insertId("INSERT INTO questions (text, question_type) VALUES (?, ?) RETURNING id", text, type);
+        jdbc.update("INSERT INTO feedback_questions (feedback_id, question_id) VALUES (?, ?)", feedbackId, questionId);
+        return questionId;
+    }
+
+    private static long insertId(String sql, Object... args) {
+        return jdbc.queryForObject(sql, Long.class, args);
+    }
+
+    private static Map<String, Object> snapshot(long feedbackId) {
+        Map<String, Object> rows = new LinkedHashMap<>();
+        rows.put("submissions", jdbc.queryForObject(
+                "SELECT submission_count FROM feedback_results WHERE feedback_id = ?", Long.class, feedbackId));
+        rows.put("questions", jdbc.queryForList("""
+                SELECT question_id, answer_count, text_count, rating_count, rating_sum, rating_min, rating_max
+                FROM feedback_question_results WHERE feedback_id = ? ORDER BY question_id
+                """, feedbackId));
+        rows.put("choices", jdbc.queryForList(
+                "SELECT question_id, choice, answer_count FROM feedback_choice_counts WHERE feedback_id = ? ORDER BY question_id, choice",
+                feedbackId));
+        return rows;
+    }
+}
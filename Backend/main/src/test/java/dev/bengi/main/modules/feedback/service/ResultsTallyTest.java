@@ -0,0 +1,92 @@
+package dev.bengi.main.modules.feedback.service;
+
+import dev.bengi.main.modules.feedback.service.FeedbackResultsService.ResultsTally;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResultsTallyTest {
+
+    @Test
+    void ratingsAreParsedAndUnparseableOnesOnlyCounted() {
+        ResultsTally tally = new ResultsTally();
+        tally.add(1L, "RATING", "4");
+        tally.add(1L, "RATING", " 2.5 ");
+        tally.add(1L, "RATING", "great");
+        tally.add(1L, "RATING", "NaN");
+
+        ResultsTally.Columns c = tally.columns();
+
+        assertArrayEquals(new Long[]{1L}, c.questionIds);
+        assertArrayEquals(new Long[]{4L}, c.answerCounts);
+        assertArrayEquals(new Long[]{0L}, c.textCounts);
+        assertArrayEquals(new Long[]{2L}, c.ratingCounts);
+        assertArrayEquals(new Double[]{6.5}, c.ratingSums);
+        assertArrayEquals(new Double[]{2.5}, c.ratingMins);
+        assertArrayEquals(new Double[]{4.0}, c.ratingMaxs);
+        assertArrayEquals(new String[]{"2.5", "4", "NaN", "great"}, c.choices);
+        assertArrayEquals(new Long[]{1L, 1L, 1L, 1L}, c.choiceCounts);
+    }
+
+    @Test
+    void booleanAnswersAreNormalised() {
+        ResultsTally tally = new ResultsTally();
+        tally.add(3L, "BOOLEAN", "TRUE");
+        tally.add(3L, "BOOLEAN", " true");
+        tally.add(3L, "BOOLEAN", "False");
+
+        ResultsTally.Columns c = tally.columns();
+
+        assertArrayEquals(new String[]{"false", "true"}, c.choices);
+        assertArrayEquals(new Long[]{1L, 2L}, c.choiceCounts);
+        assertArrayEquals(new Long[]{0L}, c.ratingCounts);
+        assertNull(c.ratingMins[0]);
+    }
+
+    @Test
+    void histogramIsOrderedByQuestionThenChoice() {
+        ResultsTally tally = new ResultsTally();
+        tally.add(9L, "MULTIPLE_CHOICE", "Red");
+        tally.add(2L, "MULTIPLE_CHOICE", "Yes");
+        tally.add(9L, "MULTIPLE_CHOICE", "Blue");
+        tally.add(2L, "MULTIPLE_CHOICE", "No");
+        tally.add(9L, "MULTIPLE_CHOICE", "Red");
+
+        ResultsTally.Columns c = tally.columns();
+
+        assertArrayEquals(new Long[]{2L, 9L}, c.questionIds);
+        assertArrayEquals(new Long[]{2L, 3L}, c.answerCounts);
+        assertArrayEquals(new Long[]{2L, 2L, 9L, 9L}, c.choiceQuestionIds);
+        assertArrayEquals(new String[]{"No", "Yes", "Blue", "Red"}, c.choices);
+        assertArrayEquals(new Long[]{1L, 1L, 1L, 2L}, c.choiceCounts);
+    }
+
+    @Test
+    void textAndUnknownTypesAreCountedWithoutHistogram() {
+        ResultsTally tally = new ResultsTally();
+        tally.add(5L, "TEXT", "Looks good");
+        tally.add(5L, "ESSAY", "Legacy type");
+        tally.add(5L, null, "No type");
+
+        ResultsTally.Columns c = tally.columns();
+
+        assertArrayEquals(new Long[]{3L}, c.answerCounts);
+        assertArrayEquals(new Long[]{3L}, c.textCounts);
+        assertEquals(0, c.choices.length);
+    }
+
+    @Test
+    void blankAndMissingResponsesAreIgnored() {
+        ResultsTally tally = new ResultsTally();
+        tally.add(1L, "RATING", "  ");
+        tally.add(1L, "RATING", null);
+        tally.add(null, "RATING", "3");
+
+        ResultsTally.Columns c = tally.columns();
+
+        assertEquals(0, c.questionIds.length);
+        assertEquals(0, c.choices.length);
+    }
+}
@@ -0,0 +1,204 @@
+package dev.bengi.main.modules.submit.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.bengi.main.exception.ErrorCode;
+import dev.bengi.main.exception.GlobalServiceException;
+import io.r2dbc.h2.CloseableConnectionFactory;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmissionExportServiceTest {
+
+    private static final SubmissionExportService.ExportFilter FEEDBACK_1 =
+            new SubmissionExportService.ExportFilter(1L, null, null, null);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CloseableConnectionFactory connectionFactory;
+    private DatabaseClient databaseClient;
+    private SubmissionExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = H2ConnectionFactory.inMemory("export-" + System.nanoTime());
+        databaseClient = DatabaseClient.create(connectionFactory);
+        exportService = new SubmissionExportService(databaseClient, objectMapper);
+        execute("""
+                CREATE TABLE submissions (id BIGINT PRIMARY KEY, feedback_id BIGINT, user_id VARCHAR(255),
+                    submitted_at TIMESTAMP, is_anonymous BOOLEAN, privacy_level VARCHAR(50), overall_comments TEXT)
+                """,
+                "CREATE TABLE submission_responses (submission_id BIGINT, question_id BIGINT, response TEXT, PRIMARY KEY (submission_id, question_id))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.close().block();
+    }
+
+    @Test
+    void csvQuotesFieldsWithSeparatorsQuotesAndNewlines() {
+        submission(1, "alice", false, "PUBLIC", "Overall, \"good\" work");
+        response(1, 10, "line one\nline two");
+        response(1, 11, "plain");
+
+        List<String> lines = csvLines();
+
+        assertEquals("submission_id,feedback_id,submitted_by,privacy_level,submitted_at,overall_comments,question_id,response",
+                lines.get(0));
+        assertEquals("1,1,alice,PUBLIC,2025-01-01T09:00,\"Overall, \"\"good\"\" work\",10,\"line one", lines.get(1));
+        assertEquals("line two\"", lines.get(2));
+        assertEquals("1,1,alice,PUBLIC,2025-01-01T09:00,\"Overall, \"\"good\"\" work\",11,plain", lines.get(3));
+    }
+
+    @Test
+    void csvNeutralisesSpreadsheetFormulas() {
+        submission(1, "alice", false, "PUBLIC", "=HYPERLINK(\"x\")");
+        response(1, 10, "+1");
+        response(1, 11, "-2");
+        response(1, 12, "@SUM(A1)");
+        response(1, 13, "1+1");
+
+        List<String> lines = csvLines();
+
+        String prefix = "1,1,alice,PUBLIC,2025-01-01T09:00,\"'=HYPERLINK(\"\"x\"\")\",";
+        assertEquals(prefix + "10,\"'+1\"", lines.get(1));
+        assertEquals(prefix + "11,\"'-2\"", lines.get(2));
+        assertEquals(prefix + "12,\"'@SUM(A1)\"", lines.get(3));
+        assertEquals(prefix + "13,1+1", lines.get(4));
+    }
+
+    @Test
+    void submissionWithoutResponsesGetsOneCsvLine() {
+        submission(1, "alice", false, "PUBLIC", null);
+
+        List<String> lines = csvLines();
+
+        assertEquals(2, lines.size());
+        assertEquals("1,1,alice,PUBLIC,2025-01-01T09:00,,,", lines.get(1));
+    }
+
+    @Test
+    void submitterIsHiddenUnlessThePrivacyLevelAllowsIt() throws Exception {
+        submission(1, "alice", false, "PUBLIC", null);
+        submission(2, "bob", true, "PUBLIC", null);
+        submission(3, "carol", false, "ANONYMOUS", null);
+        submission(4, "dave", false, null, null);
+        submission(5, "erin", false, "SECRET", null);
+        submission(6, "frank", false, "PRIVATE", null);
+
+        List<JsonNode> records = ndjsonRecords();
+
+        assertEquals(6, records.size());
+        assertEquals("alice", records.get(0).get("submittedBy").asText());
+        assertTrue(records.get(1).get("submittedBy").isNull());
+        assertTrue(records.get(2).get("submittedBy").isNull());
+        assertTrue(records.get(3).get("submittedBy").isNull());
+        assertTrue(records.get(4).get("submittedBy").isNull());
+        assertEquals("frank", records.get(5).get("submittedBy").asText());
+        assertTrue(csv().contains("\n2,1,,PUBLIC,"));
+    }
+
+    @Test
+    void ndjsonWritesOneLinePerSubmissionWithItsResponses() throws Exception {
+        submission(1, "alice", false, "PUBLIC", "Thanks");
+        response(1, 11, "b");
+        response(1, 10, "a\nwith newline");
+        submission(2, "bob", false, "PUBLIC", null);
+        submission(3, "carol", false, "PUBLIC", null);
+        response(3, 10, "c");
+
+        String body = ndjson();
+        String[] lines = body.split("\n", -1);
+
+        assertEquals(4, lines.length);
+        assertEquals("", lines[3]);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("a\nwith newline", first.get("responses").get("10").asText());
+        assertEquals("b", first.get("responses").get("11").asText());
+        assertEquals(0, objectMapper.readTree(lines[1]).get("responses").size());
+        assertEquals("c", objectMapper.readTree(lines[2]).get("responses").get("10").asText());
+    }
+
+    @Test
+    void exportWithoutFilterIsRejected() {
+        GlobalServiceException e = assertThrows(GlobalServiceException.class, () -> exportService.export(
+                new SubmissionExportService.ExportFilter(null, null, null, null),
+                SubmissionExportService.Format.CSV,
+                DefaultDataBufferFactory.sharedInstance).blockLast());
+        assertEquals(ErrorCode.BAD_REQUEST, e.getError());
+    }
+
+    private void submission(long id, String userId, boolean anonymous, String privacyLevel, String comments) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        INSERT INTO submissions (id, feedback_id, user_id, submitted_at, is_anonymous, privacy_level, overall_comments)
+                        VALUES (:id, 1, :userId, TIMESTAMP '2025-01-01 09:00:00', :anonymous, :privacyLevel, :comments)
+                        """)
+                .bind("id", id)
+                .bind("userId", userId)
+                .bind("anonymous", anonymous);
+        spec = privacyLevel != null ? spec.bind("privacyLevel", privacyLevel) : spec.bindNull("privacyLevel", String.class);
+        spec = comments != null ? spec.bind("comments", comments) : spec.bindNull("comments", String.class);
+        spec.then().block();
+    }
+
+    private void response(long submissionId, long questionId, String response) {
+        databaseClient.sql("INSERT INTO submission_responses VALUES (:submissionId, :questionId, :response)")
+                .bind("submissionId", submissionId)
+                .bind("questionId", questionId)
+                .bind("response", response)
+                .then()
+                .block();
+    }
+
+    private void execute(String... statements) {
+        Flux.just(statements).concatMap(sql -> databaseClient.sql(sql).then()).blockLast();
+    }
+
+    private List<String> csvLines() {
+        String body = csv();
+        assertTrue(body.endsWith("\n"));
+        return List.of(body.substring(0, body.length() - 1).split("\n", -1));
+    }
+
+    private String csv() {
+        return export(SubmissionExportService.Format.CSV);
+    }
+
+    private String ndjson() {
+        return export(SubmissionExportService.Format.NDJSON);
+    }
+
+    private List<JsonNode> ndjsonRecords() throws Exception {
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : ndjson().split("\n")) {
+            records.add(objectMapper.readTree(line));
+        }
+        return records;
+    }
+
+    private String export(SubmissionExportService.Format format) {
+        return exportService.export(FEEDBACK_1, format, DefaultDataBufferFactory.sharedInstance)
+                .map(buffer -> {
+                    String chunk = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return chunk;
+                })
+                .reduce("", String::concat)
+                .block();
+    }
+}
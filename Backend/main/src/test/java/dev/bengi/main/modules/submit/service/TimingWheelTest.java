@@ -0,0 +1,56 @@
+package dev.bengi.main.modules.submit.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final Duration TICK = Duration.ofSeconds(5);
+
+    @Test
+    void returnsEntriesOnceTheirTickHasPassed() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+        wheel.schedule("a", 7_000);
+        wheel.schedule("b", 12_000);
+
+        assertTrue(wheel.advance(4_999).isEmpty());
+        assertTrue(wheel.advance(9_999).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(10_000));
+        assertEquals(List.of("b"), wheel.advance(15_000));
+        assertTrue(wheel.advance(40_000).isEmpty());
+    }
+
+    @Test
+    void pastDeadlinesGoToTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 20_000);
+        wheel.schedule("late", 1_000);
+
+        assertEquals(List.of("late"), wheel.advance(25_000));
+    }
+
+    @Test
+    void longPauseVisitsEveryBucketOnce() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+        wheel.schedule("a", 5_000);
+        wheel.schedule("b", 15_000);
+
+        List<String> due = wheel.advance(500_000);
+
+        assertEquals(2, due.size());
+        assertTrue(due.containsAll(List.of("a", "b")));
+    }
+
+    @Test
+    void deadlinesBeyondOneRevolutionComeBackEarly() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0);
+        wheel.schedule("far", 25_000);
+
+        // Tick 5 shares a bucket with tick 1; the caller re-checks and reschedules
+        assertEquals(List.of("far"), wheel.advance(5_000));
+    }
+}
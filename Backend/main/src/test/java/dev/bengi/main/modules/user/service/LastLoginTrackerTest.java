@@ -0,0 +1,137 @@
+package dev.bengi.main.modules.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LastLoginTrackerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Update> updates = new ArrayList<>();
+    private boolean failWrites;
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = mock(DatabaseClient.class);
+        when(databaseClient.sql(anyString())).thenAnswer(invocation -> spec(invocation.getArgument(0)));
+    }
+
+    @Test
+    void repeatedLoginsCoalesceToTheLatestTimestamp() {
+        LastLoginTracker tracker = tracker(500);
+        tracker.record(1L, T0.plusMinutes(5));
+        tracker.record(1L, T0);
+        tracker.record(1L, T0.plusMinutes(2));
+
+        tracker.flush().block();
+
+        assertEquals(1, updates.size());
+        assertArrayEquals(new Long[]{1L}, updates.get(0).ids());
+        assertArrayEquals(new LocalDateTime[]{T0.plusMinutes(5)}, updates.get(0).times());
+    }
+
+    @Test
+    void flushWritesOneUnnestUpdateAndEmptiesTheBuffer() {
+        LastLoginTracker tracker = tracker(500);
+        tracker.record(1L, T0);
+        tracker.record(2L, T0.plusSeconds(1));
+        tracker.record(3L, T0.plusSeconds(2));
+
+        tracker.flush().block();
+
+        assertEquals(1, updates.size());
+        assertTrue(updates.get(0).sql().contains("unnest("));
+        assertEquals(Set.of(1L, 2L, 3L), new HashSet<>(Arrays.asList(updates.get(0).ids())));
+        assertEquals(0.0, pending());
+        assertEquals(3.0, meterRegistry.get("users.last_login.written").counter().count());
+
+        tracker.flush().block();
+        assertEquals(1, updates.size());
+    }
+
+    @Test
+    void pendingEntriesAreSplitIntoBatches() {
+        LastLoginTracker tracker = tracker(2);
+        tracker.record(1L, T0);
+        tracker.record(2L, T0);
+        tracker.record(3L, T0);
+
+        tracker.flush().block();
+
+        assertEquals(2, updates.size());
+        assertEquals(3, updates.get(0).ids().length + updates.get(1).ids().length);
+    }
+
+    @Test
+    void failedFlushRequeuesEntriesForTheNextOne() {
+        LastLoginTracker tracker = tracker(500);
+        tracker.record(1L, T0);
+        tracker.record(2L, T0);
+
+        failWrites = true;
+        tracker.flush().block();
+        assertEquals(2.0, pending());
+        assertEquals(2.0, meterRegistry.get("users.last_login.failed").counter().count());
+
+        // A login after the failure still wins over the requeued value
+        tracker.record(1L, T0.plusMinutes(1));
+        failWrites = false;
+        tracker.flush().block();
+
+        Update retry = updates.get(1);
+        Map<Long, LocalDateTime> written = new HashMap<>();
+        for (int i = 0; i < retry.ids().length; i++) {
+            written.put(retry.ids()[i], retry.times()[i]);
+        }
+        assertEquals(Map.of(1L, T0.plusMinutes(1), 2L, T0), written);
+        assertEquals(0.0, pending());
+    }
+
+    private LastLoginTracker tracker(int batchSize) {
+        return new LastLoginTracker(databaseClient, meterRegistry, batchSize, Duration.ofSeconds(1));
+    }
+
+    private double pending() {
+        return meterRegistry.get("users.last_login.pending").gauge().value();
+    }
+
+    private DatabaseClient.GenericExecuteSpec spec(String sql) {
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+        Map<String, Object> binds = new HashMap<>();
+        when(spec.bind(anyString(), any())).thenAnswer(invocation -> {
+            binds.put(invocation.getArgument(0), invocation.getArgument(1));
+            return spec;
+        });
+        when(spec.then()).thenAnswer(invocation -> Mono.defer(() -> {
+            updates.add(new Update(sql, (Long[]) binds.get("ids"), (LocalDateTime[]) binds.get("times")));
+            return failWrites ? Mono.error(new IllegalStateException("connection lost")) : Mono.empty();
+        }));
+        return spec;
+    }
+
+    private record Update(String sql, Long[] ids, LocalDateTime[] times) {
+    }
+}
@@ -0,0 +1,106 @@
+package dev.bengi.main.security;
+
+import dev.bengi.main.exception.ErrorCode;
+import dev.bengi.main.exception.GlobalServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.Disposable;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.shutdown();
+    }
+
+    @Test
+    void hashesOffTheCallingThread() {
+        hasher = new PasswordHasher(new ThreadRecordingEncoder(), 1, 1, meterRegistry);
+
+        String encoded = hasher.encode("secret").block();
+
+        assertTrue(encoded.startsWith("password-hash-"), encoded);
+        assertEquals(1, meterRegistry.get("security.password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void rejectsWithServiceUnavailableWhenSaturated() throws InterruptedException {
+        hasher = new PasswordHasher(new BlockingEncoder(), 1, 1, meterRegistry);
+
+        Disposable running = hasher.matches("a", "a").subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Disposable queued = hasher.matches("b", "b").subscribe();
+        assertEquals(1, hasher.queueDepth());
+
+        GlobalServiceException rejected = assertThrows(GlobalServiceException.class,
+                () -> hasher.matches("c", "c").block());
+        assertEquals(ErrorCode.SERVICE_UNAVAILABLE, rejected.getError());
+        assertEquals(1.0, meterRegistry.get("security.password.rejected").counter().count());
+
+        running.dispose();
+        queued.dispose();
+    }
+
+    @Test
+    void cancelledCallersFreeTheirQueueSlot() throws InterruptedException {
+        hasher = new PasswordHasher(new BlockingEncoder(), 1, 2, meterRegistry);
+
+        Disposable running = hasher.matches("a", "a").subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        hasher.matches("b", "b").subscribe().dispose();
+        hasher.matches("c", "c").subscribe().dispose();
+        assertEquals(0, hasher.queueDepth());
+
+        Disposable accepted = hasher.matches("d", "d").subscribe();
+        assertEquals(1, hasher.queueDepth());
+        assertEquals(0.0, meterRegistry.get("security.password.rejected").counter().count());
+
+        running.dispose();
+        accepted.dispose();
+    }
+
+    private static final class ThreadRecordingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return true;
+        }
+    }
+
+    private final class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -28,6 +28,7 @@ type QType = 'SINGLE_CHOICE' | 'MULTIPLE_CHOICE' | 'TEXT_BASED' | 'SENTIMENT';
 type AnswersMap = Record<number, string | string[]>;
 
 const MAX_TEXT_LENGTH = 255;
+const SESSION_HEARTBEAT_MS = 60_000; // Well inside the server's idle timeout
 const DESIGN_MODE = false;
 
 function mapAnswerType(t: EmployeeQuestion['type']): string {
@@ -147,6 +148,16 @@ export default function FeedbackForm({ id }: { id: string }) {
     };
   }, [id, showAlert]);
 
+  // Keep the timing session open while the form is being filled in
+  useEffect(() => {
+    const fid = Number(id);
+    if (Number.isNaN(fid) || showCongrats) return;
+    const timer = setInterval(() => {
+      employeeSvc.heartbeatSession(fid).catch(() => {});
+    }, SESSION_HEARTBEAT_MS);
+    return () => clearInterval(timer);
+  }, [id, showCongrats]);
+
   const totalQuestions = feedback?.questions?.length ?? 0;
   const currentQuestion = totalQuestions > 0 ? feedback?.questions?.[currentStep] : undefined;
 
@@ -56,9 +56,11 @@ export const employeeService = {
   getDashboardData: () =>
     api.get<EmployeeDashboardData>('/api/employees/dashboard-summary'),
 
-  // Start/stop timing session for a feedback form
+  // Start/heartbeat/stop timing session for a feedback form
   startSession: (feedbackId: number) =>
     api.post<{ id: number; startedAt: string }>(`/api/sessions/start?feedbackId=${feedbackId}`),
+  heartbeatSession: (feedbackId: number) =>
+    api.post<{ id: number; startedAt: string; lastSeenAt: string }>(`/api/sessions/heartbeat?feedbackId=${feedbackId}`),
   stopSession: () =>
     api.post<{ id: number; durationSeconds: number }>(`/api/sessions/stop`),
 